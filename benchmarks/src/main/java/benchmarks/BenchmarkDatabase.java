@@ -0,0 +1,76 @@
+package benchmarks;
+
+import model.Database;
+import model.Item;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * BenchmarkDatabase creates the databases used by the benchmarks: either a
+ * temporary file or an in-memory database, with the items table filled with
+ * a given number of rows.
+ *
+ * @author Liam Tripp
+ */
+public final class BenchmarkDatabase {
+
+    public final static String FILE = "file";
+    public final static String MEMORY = "memory";
+
+    private BenchmarkDatabase() {
+    }
+
+    /**
+     * Creates a database with the provided number of rows in the items table.
+     * The rows have ids from 1 to numberOfRows.
+     *
+     * @param storage FILE for a temporary file, MEMORY for an in-memory database
+     * @param numberOfRows the number of rows in the items table
+     * @return the database
+     */
+    public static Database create(String storage, int numberOfRows) {
+        Database database = new Database(createFileName(storage), Database.DEFAULT_NUMBER_OF_READERS);
+        database.initializeDatabase();
+        database.bulkInsert(createItems(numberOfRows));
+        return database;
+    }
+
+    /**
+     * Returns the name of a new database file for the storage, which is
+     * deleted when the JVM exits.
+     *
+     * @param storage FILE for a temporary file, MEMORY for an in-memory database
+     * @return the name of the database file
+     */
+    public static String createFileName(String storage) {
+        if (storage.equals(MEMORY)) {
+            return Database.IN_MEMORY;
+        }
+        try {
+            File file = File.createTempFile("benchmark", ".db");
+            file.deleteOnExit();
+            new File(file.getPath() + "-wal").deleteOnExit();
+            new File(file.getPath() + "-shm").deleteOnExit();
+            return file.getPath();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Creates items whose stock is their position in the list.
+     *
+     * @param numberOfItems the number of items
+     * @return the items
+     */
+    public static List<Item> createItems(int numberOfItems) {
+        List<Item> items = new ArrayList<>(numberOfItems);
+        for (int i = 0; i < numberOfItems; i++) {
+            items.add(new Item(-1, "item" + i, 100L + i % 10_000, i));
+        }
+        return items;
+    }
+}
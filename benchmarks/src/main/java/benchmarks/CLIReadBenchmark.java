@@ -0,0 +1,135 @@
+package benchmarks;
+
+import model.Database;
+import org.openjdk.jmh.annotations.*;
+import presenter.DatabasePresenter;
+import view.DatabaseCLI;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CLIReadBenchmark measures the DatabaseCLI rendering the items table, both
+ * as a whole and one page at a time. A whole table is rendered either into
+ * a String, which is printed once complete, or streamed through the
+ * console's output buffer, in which case the time until the buffer is
+ * first written out is measured too.
+ *
+ * @author Liam Tripp
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CLIReadBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int rows;
+
+    @Param({BenchmarkDatabase.FILE, BenchmarkDatabase.MEMORY})
+    public String storage;
+
+    private Database database;
+    private DatabaseCLI databaseCLI;
+
+    /**
+     * FirstOutputWritten is thrown by a FirstOutputWriter to stop a READ once
+     * its output starts reaching the console.
+     */
+    private static final class FirstOutputWritten extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        FirstOutputWritten() {
+            super(null, null, false, false);
+        }
+    }
+
+    private final static FirstOutputWritten FIRST_OUTPUT_WRITTEN = new FirstOutputWritten();
+
+    /**
+     * FirstOutputWriter stands in for the console and throws as soon as
+     * anything is written to it.
+     */
+    private static final class FirstOutputWriter extends Writer {
+        @Override
+        public void write(char[] characters, int offset, int length) {
+            throw FIRST_OUTPUT_WRITTEN;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        database = BenchmarkDatabase.create(storage, rows);
+        DatabasePresenter databasePresenter = new DatabasePresenter();
+        databasePresenter.addDatabase(database);
+        databaseCLI = new DatabaseCLI();
+        databaseCLI.addPresenter(databasePresenter);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public String readTable() {
+        return databaseCLI.processInput("read items");
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void readTableStreamed() throws IOException {
+        Writer writer = new BufferedWriter(Writer.nullWriter(), DatabaseCLI.OUTPUT_BUFFER_SIZE);
+        databaseCLI.processInput("read items", writer);
+        writer.flush();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void readTableAlignedStreamed() throws IOException {
+        Writer writer = new BufferedWriter(Writer.nullWriter(), DatabaseCLI.OUTPUT_BUFFER_SIZE);
+        databaseCLI.processInput("read items aligned", writer);
+        writer.flush();
+    }
+
+    /**
+     * Measures the time until the first rows of a streamed table reach the
+     * console, which is when the output buffer first fills up, or the end
+     * of the table if it fits in the buffer. When a table is rendered into
+     * a String, that time is the whole of readTable.
+     */
+    @Benchmark
+    public boolean readTableFirstOutput() throws IOException {
+        Writer writer = new BufferedWriter(new FirstOutputWriter(), DatabaseCLI.OUTPUT_BUFFER_SIZE);
+        try {
+            databaseCLI.processInput("read items", writer);
+            writer.flush();
+            return false;
+        } catch (FirstOutputWritten e) {
+            return true;
+        }
+    }
+
+    @Benchmark
+    public String readFirstPage() {
+        return databaseCLI.processInput("read items page 1");
+    }
+
+    @Benchmark
+    public String readLastPage() {
+        return databaseCLI.processInput("read items page " + rows / DatabaseCLI.DEFAULT_PAGE_SIZE);
+    }
+}
@@ -0,0 +1,82 @@
+package benchmarks;
+
+import model.InputFileReader;
+import org.json.simple.JSONObject;
+import org.openjdk.jmh.annotations.*;
+import view.Command;
+import view.InputMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * CommandParsingBenchmark measures the throughput of parsing user input,
+ * one line per operation, cycling through every valid and invalid input in
+ * testUserInputs.json. Parsing by the InputMatcher is measured against the
+ * way it used to be done, compiling and trying the Regex of every Command
+ * in turn.
+ *
+ * @author Liam Tripp
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandParsingBenchmark {
+
+    private String[] lines;
+    private int nextLine;
+    private InputMatcher inputMatcher;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        JSONObject inputs = (JSONObject) new InputFileReader("testUserInputs", "json")
+                .getJSONFileAsObject().get("inputs");
+        List<String> inputLines = new ArrayList<>();
+        for (Object commandInputs : inputs.values()) {
+            for (String validity : new String[]{"valid", "invalid"}) {
+                JSONObject validityInputs = (JSONObject) ((JSONObject) commandInputs).get(validity);
+                if (validityInputs != null) {
+                    for (Object line : validityInputs.values()) {
+                        inputLines.add((String) line);
+                    }
+                }
+            }
+        }
+        lines = inputLines.toArray(new String[0]);
+        inputMatcher = new InputMatcher();
+    }
+
+    /**
+     * Returns the next line of input, starting over after the last one.
+     *
+     * @return the next line of input
+     */
+    private String nextLine() {
+        String line = lines[nextLine];
+        nextLine = nextLine + 1 == lines.length ? 0 : nextLine + 1;
+        return line;
+    }
+
+    @Benchmark
+    public Matcher inputMatcher() {
+        return inputMatcher.matchInputToCommandRegex(nextLine());
+    }
+
+    @Benchmark
+    public Matcher compileEveryCommand() {
+        String line = nextLine();
+        for (Command command : Command.values()) {
+            Matcher matcher = Pattern.compile(command.getRegex(), Pattern.CASE_INSENSITIVE).matcher(line);
+            if (matcher.matches()) {
+                return matcher;
+            }
+        }
+        return null;
+    }
+}
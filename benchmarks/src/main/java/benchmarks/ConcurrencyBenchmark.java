@@ -0,0 +1,91 @@
+package benchmarks;
+
+import model.Database;
+import model.Item;
+import model.Table;
+import org.openjdk.jmh.annotations.*;
+import presenter.DatabasePresenter;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ConcurrencyBenchmark measures reads made while other threads write, both
+ * against the Database, with and without reader connections alongside its
+ * writer, and through the DatabasePresenter and its item cache. JMH reports
+ * the throughput of the readers and writers of each group separately.
+ *
+ * @author Liam Tripp
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrencyBenchmark {
+
+    @Param({"1000"})
+    public int rows;
+
+    /** the number of reader connections; with 0, reads share the writer's connection */
+    @Param({"0", "4"})
+    public int readers;
+
+    private Database database;
+    private DatabasePresenter databasePresenter;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // reader connections only read alongside the writer with a database file in WAL mode
+        database = new Database(BenchmarkDatabase.createFileName(BenchmarkDatabase.FILE), readers);
+        database.initializeDatabase();
+        database.bulkInsert(BenchmarkDatabase.createItems(rows));
+        databasePresenter = new DatabasePresenter();
+        databasePresenter.addDatabase(database);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    /**
+     * Returns the id of a random row of the table as first filled.
+     *
+     * @return the id of a random row
+     */
+    private int randomId() {
+        return ThreadLocalRandom.current().nextInt(1, rows + 1);
+    }
+
+    @Benchmark
+    @Group("database")
+    @GroupThreads(4)
+    public Item databaseRead() {
+        return database.selectById(Table.ITEMS, randomId());
+    }
+
+    @Benchmark
+    @Group("database")
+    @GroupThreads(1)
+    public int databaseInsert() {
+        return database.insertItem(new Item(-1, "written", 250L, 1));
+    }
+
+    @Benchmark
+    @Group("presenter")
+    @GroupThreads(4)
+    public Item presenterRead() {
+        return databasePresenter.getItem(randomId());
+    }
+
+    @Benchmark
+    @Group("presenter")
+    @GroupThreads(2)
+    public Item presenterUpdate() {
+        int stock = ThreadLocalRandom.current().nextInt(1000);
+        return databasePresenter.updateItem(String.valueOf(randomId()),
+                "price = " + stock * 100 + ", stock = " + stock);
+    }
+}
@@ -0,0 +1,99 @@
+package benchmarks;
+
+import model.Database;
+import model.Item;
+import model.Table;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DatabaseBenchmark measures the Database's CRUD methods on the items table.
+ * Each operation that adds or removes a row is paired with its inverse so
+ * that the table keeps its size.
+ *
+ * @author Liam Tripp
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DatabaseBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int rows;
+
+    @Param({BenchmarkDatabase.FILE, BenchmarkDatabase.MEMORY})
+    public String storage;
+
+    private Database database;
+    private String tableName;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        database = BenchmarkDatabase.create(storage, rows);
+        tableName = Table.ITEMS.getName();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    /**
+     * Returns the id of a random row of the table.
+     *
+     * @return the id of a random row
+     */
+    private int randomId() {
+        return ThreadLocalRandom.current().nextInt(1, rows + 1);
+    }
+
+    @Benchmark
+    public int insertAndDelete() {
+        int itemId = database.insertItem(new Item(-1, "inserted", 199L, 1));
+        return database.deleteById(Table.ITEMS, itemId);
+    }
+
+    @Benchmark
+    public List<Item> selectById() {
+        return database.selectFromTable(tableName, "*", String.valueOf(randomId()));
+    }
+
+    @Benchmark
+    public List<Item> selectPage() {
+        return database.selectPage(Table.ITEMS, randomId(), 20);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Item> selectAll() {
+        return database.selectFromTable(tableName, "*");
+    }
+
+    @Benchmark
+    public Item updateItem() {
+        return database.updateItem(String.valueOf(randomId()),
+                "stock = " + ThreadLocalRandom.current().nextInt(1000));
+    }
+
+    @Benchmark
+    public Item deleteFromTableAndInsert() {
+        int itemId = randomId();
+        Item item = database.selectById(Table.ITEMS, itemId);
+        database.deleteFromTable(tableName, String.valueOf(itemId));
+        database.insert(Table.ITEMS, item);
+        return item;
+    }
+
+    @Benchmark
+    public Item moveToDeletedItemsAndRestore() {
+        int itemId = randomId();
+        database.moveToDeletedItems(itemId, "");
+        return database.restoreFromDeletedItems(itemId);
+    }
+}
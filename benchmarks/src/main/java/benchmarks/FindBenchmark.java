@@ -0,0 +1,99 @@
+package benchmarks;
+
+import model.Database;
+import model.Item;
+import model.Table;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FindBenchmark measures full-text searches of item names and deletion
+ * comments with FIND. Each item is named by an adjective, a noun and a
+ * unique code, so that words match from one item to a twentieth of them.
+ *
+ * @author Liam Tripp
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FindBenchmark {
+
+    @Param({"1000000"})
+    public int rows;
+
+    @Param({BenchmarkDatabase.FILE, BenchmarkDatabase.MEMORY})
+    public String storage;
+
+    private final static int LIMIT = 20;
+    /** one in every DELETED_FRACTION items is deleted, half of them because of a recall */
+    private final static int DELETED_FRACTION = 100;
+    private final static String[] ADJECTIVES = {"red", "green", "blue", "large", "small", "fresh", "frozen",
+            "organic", "dried", "sweet", "sour", "spicy", "plain", "salted", "smoked", "roasted", "raw",
+            "sliced", "whole", "mini"};
+    private final static String[] NOUNS = {"apple", "banana", "cherry", "grape", "lemon", "mango", "melon",
+            "orange", "peach", "pear", "plum", "berry", "carrot", "celery", "garlic", "onion", "pepper",
+            "potato", "tomato", "bean", "rice", "bread", "cheese", "butter", "cream", "yogurt", "milk",
+            "egg", "chicken", "beef", "pork", "salmon", "tuna", "shrimp", "pasta", "noodle", "cookie",
+            "cake", "pie", "juice", "soda", "coffee", "tea", "honey", "jam", "sauce", "soup", "salad",
+            "nut", "seed"};
+
+    private Database database;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        database = new Database(BenchmarkDatabase.createFileName(storage), Database.DEFAULT_NUMBER_OF_READERS);
+        database.initializeDatabase();
+        List<Item> items = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            String name = ADJECTIVES[i % ADJECTIVES.length] + " " + NOUNS[i / ADJECTIVES.length % NOUNS.length] +
+                    " sku" + i;
+            items.add(new Item(-1, name, 100L + i % 10_000, i));
+        }
+        database.bulkInsert(items);
+        database.beginTransaction();
+        for (int itemId = 1; itemId <= rows; itemId += DELETED_FRACTION) {
+            String comment = itemId % (2 * DELETED_FRACTION) == 1 ? "supplier recall of batch " + itemId
+                    : "damaged in transit";
+            database.moveToDeletedItems(itemId, comment);
+        }
+        database.commitTransaction();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    @Benchmark
+    public List<Item> findUniqueWord() {
+        return database.findItems(Table.ITEMS, "sku123456", LIMIT);
+    }
+
+    @Benchmark
+    public List<Item> findTwoWords() {
+        // one in a thousand items
+        return database.findItems(Table.ITEMS, "smoked salmon", LIMIT);
+    }
+
+    @Benchmark
+    public List<Item> findPrefix() {
+        return database.findItems(Table.ITEMS, "sku12345*", LIMIT);
+    }
+
+    @Benchmark
+    public List<Item> findCommonWord() {
+        // one in twenty items, every one of which is ranked
+        return database.findItems(Table.ITEMS, "organic", LIMIT);
+    }
+
+    @Benchmark
+    public List<Item> findDeletionComment() {
+        return database.findItems(Table.DELETED_ITEMS, "recall", LIMIT);
+    }
+}
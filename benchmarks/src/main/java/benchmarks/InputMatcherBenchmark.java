@@ -0,0 +1,55 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import view.InputMatcher;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+
+/**
+ * InputMatcherBenchmark measures matching user input to a command. Matching
+ * does not depend on the contents of the database, so unlike the other
+ * benchmarks it has no table size parameter.
+ *
+ * @author Liam Tripp
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InputMatcherBenchmark {
+
+    /** the only input that is not a command, measuring how quickly a typo is rejected */
+    private static final String INVALID_INPUT = "this is not a command";
+
+    @Param({
+            "create widget 12.99 40",
+            "read items",
+            "read items page 3 size 50",
+            "update 42 name = 'gadget', price = 3.50, stock = 7",
+            "delete 42 damaged in transit",
+            "restore 42",
+            INVALID_INPUT
+    })
+    public String input;
+
+    private InputMatcher inputMatcher;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        inputMatcher = new InputMatcher();
+        // an input that fails to match by mistake would measure rejection instead of matching
+        boolean matches = inputMatcher.matchInputToCommandRegex(input) != null;
+        if (matches == input.equals(INVALID_INPUT)) {
+            throw new IllegalStateException("Input \"" + input + "\" should "
+                    + (matches ? "not " : "") + "match a command.");
+        }
+    }
+
+    @Benchmark
+    public Matcher matchInputToCommandRegex() {
+        return inputMatcher.matchInputToCommandRegex(input);
+    }
+}
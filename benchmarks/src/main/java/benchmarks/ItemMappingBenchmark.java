@@ -0,0 +1,86 @@
+package benchmarks;
+
+import model.Database;
+import model.Item;
+import model.Table;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Field;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ItemMappingBenchmark measures creating Items from every row of the items
+ * table, with the Item(ResultSet) constructor and with an ItemRowMapper,
+ * against the reflective mapping Item(ResultSet) used to do. Every variant
+ * maps the live SQLite ResultSet passed by Database.forEachRow, whichever
+ * the storage.
+ *
+ * @author Liam Tripp
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemMappingBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int rows;
+
+    @Param({BenchmarkDatabase.FILE, BenchmarkDatabase.MEMORY})
+    public String storage;
+
+    private Database database;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        database = new Database(BenchmarkDatabase.createFileName(storage), 0);
+        database.initializeDatabase();
+        database.bulkInsert(BenchmarkDatabase.createItems(rows));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    /**
+     * Creates an Item from the current row of a ResultSet the way
+     * Item(ResultSet) used to: the names of the columns are those of Item's
+     * fields, looked up by reflection for every row, and each value is
+     * read by the name of its column.
+     *
+     * @param resultSet the ResultSet positioned on the row
+     * @return the Item in the row
+     * @throws SQLException if the row cannot be read
+     */
+    private static Item mapReflectively(ResultSet resultSet) throws SQLException {
+        final Field[] attributes = Item.class.getDeclaredFields();
+        return new Item(resultSet.getInt(attributes[0].getName()),
+                resultSet.getString(attributes[1].getName()),
+                resultSet.getLong(attributes[2].getName()),
+                resultSet.getInt(attributes[3].getName()));
+    }
+
+    @Benchmark
+    public long reflection(Blackhole blackhole) {
+        return database.forEachRow(Table.ITEMS,
+                (resultSet, rowMapper) -> blackhole.consume(mapReflectively(resultSet)));
+    }
+
+    @Benchmark
+    public long resultSetConstructor(Blackhole blackhole) {
+        return database.forEachRow(Table.ITEMS,
+                (resultSet, rowMapper) -> blackhole.consume(new Item(resultSet)));
+    }
+
+    @Benchmark
+    public long rowMapper(Blackhole blackhole) {
+        return database.forEachRow(Table.ITEMS,
+                (resultSet, rowMapper) -> blackhole.consume(rowMapper.mapRow(resultSet)));
+    }
+}
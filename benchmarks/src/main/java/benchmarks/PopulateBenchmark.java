@@ -0,0 +1,55 @@
+package benchmarks;
+
+import model.Database;
+import model.Item;
+import model.LoadReport;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PopulateBenchmark measures filling an empty items table from a list of
+ * the given number of items. Filling it from items.json is measured by
+ * PopulateFromFileBenchmark, which does not depend on the number of rows.
+ *
+ * @author Liam Tripp
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PopulateBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int rows;
+
+    @Param({BenchmarkDatabase.FILE, BenchmarkDatabase.MEMORY})
+    public String storage;
+
+    private Database database;
+    private List<Item> items;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        database = new Database(BenchmarkDatabase.createFileName(storage), 0);
+        items = BenchmarkDatabase.createItems(rows);
+    }
+
+    @Setup(Level.Iteration)
+    public void emptyTables() {
+        database.initializeDatabase();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    @Benchmark
+    public LoadReport bulkInsert() {
+        return database.bulkInsert(items);
+    }
+}
@@ -0,0 +1,47 @@
+package benchmarks;
+
+import model.Database;
+import model.LoadReport;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PopulateFromFileBenchmark measures filling an empty items table from
+ * items.json.
+ *
+ * @author Liam Tripp
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PopulateFromFileBenchmark {
+
+    @Param({BenchmarkDatabase.FILE, BenchmarkDatabase.MEMORY})
+    public String storage;
+
+    private Database database;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        database = new Database(BenchmarkDatabase.createFileName(storage), 0);
+    }
+
+    @Setup(Level.Iteration)
+    public void emptyTables() {
+        database.initializeDatabase();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    @Benchmark
+    public LoadReport populateDatabase() {
+        return database.populateDatabase();
+    }
+}
@@ -0,0 +1,105 @@
+package benchmarks;
+
+import model.Database;
+import model.Item;
+import model.ItemSearch;
+import model.Table;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * SearchBenchmark measures finding items by name prefix, price range and
+ * stock range with the indexed SEARCH, against scanning the whole table
+ * and filtering it as READ requires.
+ *
+ * @author Liam Tripp
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchBenchmark {
+
+    @Param({"1000000"})
+    public int rows;
+
+    @Param({BenchmarkDatabase.FILE, BenchmarkDatabase.MEMORY})
+    public String storage;
+
+    private final static int LIMIT = 1000;
+    /** matches item12345 and item123450 to item123459 */
+    private final static String NAME_PREFIX = "item12345";
+    /** matches one in every thousand items */
+    private final static long MIN_PRICE = 5_000;
+    private final static long MAX_PRICE = 5_009;
+    /** matches one hundred items */
+    private final static int MIN_STOCK = 500_000;
+    private final static int MAX_STOCK = 500_099;
+
+    private Database database;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        database = BenchmarkDatabase.create(storage, rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    /**
+     * Returns the number of items in the table matching a filter, reading
+     * every item.
+     *
+     * @param filter the filter the items must match
+     * @return the number of matching items
+     */
+    private int scan(Predicate<Item> filter) {
+        int[] matches = new int[1];
+        database.forEachItem(Table.ITEMS, item -> {
+            if (filter.test(item)) {
+                matches[0]++;
+            }
+        });
+        return matches[0];
+    }
+
+    @Benchmark
+    public List<Item> searchNamePrefix() {
+        return database.searchItems(new ItemSearch(NAME_PREFIX, null, null, null, null), LIMIT);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int scanNamePrefix() {
+        return scan(item -> item.getName().startsWith(NAME_PREFIX));
+    }
+
+    @Benchmark
+    public List<Item> searchPriceRange() {
+        return database.searchItems(new ItemSearch(null, MIN_PRICE, MAX_PRICE, null, null), LIMIT);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int scanPriceRange() {
+        return scan(item -> item.getPriceInCents() >= MIN_PRICE && item.getPriceInCents() <= MAX_PRICE);
+    }
+
+    @Benchmark
+    public List<Item> searchStockRange() {
+        return database.searchItems(new ItemSearch(null, null, null, MIN_STOCK, MAX_STOCK), LIMIT);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int scanStockRange() {
+        return scan(item -> item.getStock() >= MIN_STOCK && item.getStock() <= MAX_STOCK);
+    }
+}
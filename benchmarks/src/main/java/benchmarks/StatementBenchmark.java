@@ -0,0 +1,155 @@
+package benchmarks;
+
+import model.InputFileReader;
+import model.Item;
+import model.ItemRowMapper;
+import model.SQLOperation;
+import model.StatementCache;
+import model.Table;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * StatementBenchmark measures single-row inserts and selects by id with SQL
+ * concatenated into a new Statement for each call, as the Database used to
+ * execute them, against the PreparedStatements of a StatementCache, which
+ * are prepared once and bound for each call. Both run on the same
+ * connection, with the schema and the full-text triggers of the Database,
+ * and map the selected row with an ItemRowMapper. Each insert is paired
+ * with a delete made the same way so that the table keeps its size.
+ *
+ * @author Liam Tripp
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatementBenchmark {
+
+    @Param({"1000", "100000"})
+    public int rows;
+
+    @Param({BenchmarkDatabase.FILE, BenchmarkDatabase.MEMORY})
+    public String storage;
+
+    private Connection connection;
+    private StatementCache statementCache;
+    private final Item item = new Item(-1, "inserted", 199L, 1);
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:sqlite:" + BenchmarkDatabase.createFileName(storage));
+        try (Statement statement = connection.createStatement()) {
+            // the journal mode of the Database's writer connection
+            statement.execute("PRAGMA journal_mode = WAL");
+            statement.executeUpdate(new InputFileReader("DDL", "sql").getSQLFileAsString());
+            statement.executeUpdate(new InputFileReader("FTS", "sql").getSQLFileAsString());
+        }
+        statementCache = new StatementCache(connection);
+
+        connection.setAutoCommit(false);
+        PreparedStatement insert = statementCache.get(SQLOperation.INSERT_NEW, Table.ITEMS);
+        for (Item newItem : BenchmarkDatabase.createItems(rows)) {
+            bindItem(insert, newItem);
+            insert.addBatch();
+        }
+        insert.executeBatch();
+        connection.commit();
+        connection.setAutoCommit(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        statementCache.close();
+        connection.close();
+    }
+
+    /**
+     * Returns the id of a random row of the table.
+     *
+     * @return the id of a random row
+     */
+    private int randomId() {
+        return ThreadLocalRandom.current().nextInt(1, rows + 1);
+    }
+
+    /**
+     * Binds the values of an Item to an INSERT_NEW statement.
+     *
+     * @param insert the INSERT_NEW statement
+     * @param newItem the item being inserted
+     * @throws SQLException if a value cannot be bound
+     */
+    private static void bindItem(PreparedStatement insert, Item newItem) throws SQLException {
+        insert.setString(1, newItem.getName());
+        insert.setLong(2, newItem.getPriceInCents());
+        insert.setInt(3, newItem.getStock());
+    }
+
+    /**
+     * Maps the first row of a ResultSet, if there is one.
+     *
+     * @param resultSet the ResultSet
+     * @return the Item in the first row, null if there is none
+     * @throws SQLException if the row cannot be read
+     */
+    private static Item mapFirstRow(ResultSet resultSet) throws SQLException {
+        return resultSet.next() ? ItemRowMapper.forTable(resultSet, Table.ITEMS).mapRow(resultSet) : null;
+    }
+
+    @Benchmark
+    public int insertAndDeleteConcatenated() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("INSERT INTO " + Table.ITEMS.getName() + "(" + Item.getAttributeNamesExceptId() +
+                    ") VALUES (" + item.getValuesInSQLFormatExceptId() + ")");
+            int itemId;
+            // the driver does not return generated keys for a Statement's SQL
+            try (ResultSet generatedKeys = statement.executeQuery("SELECT last_insert_rowid()")) {
+                itemId = generatedKeys.next() ? generatedKeys.getInt(1) : -1;
+            }
+            return statement.executeUpdate("DELETE FROM " + Table.ITEMS.getName() + " WHERE id = " + itemId);
+        }
+    }
+
+    @Benchmark
+    public int insertAndDeletePrepared() throws SQLException {
+        PreparedStatement insert = statementCache.get(SQLOperation.INSERT_NEW, Table.ITEMS);
+        bindItem(insert, item);
+        insert.executeUpdate();
+        int itemId;
+        try (ResultSet generatedKeys = insert.getGeneratedKeys()) {
+            itemId = generatedKeys.next() ? generatedKeys.getInt(1) : -1;
+        }
+        PreparedStatement delete = statementCache.get(SQLOperation.DELETE_BY_ID, Table.ITEMS);
+        delete.setInt(1, itemId);
+        return delete.executeUpdate();
+    }
+
+    @Benchmark
+    public Item selectByIdConcatenated() throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT * FROM " + Table.ITEMS.getName() +
+                     " WHERE id = " + randomId())) {
+            return mapFirstRow(resultSet);
+        }
+    }
+
+    @Benchmark
+    public Item selectByIdPrepared() throws SQLException {
+        PreparedStatement select = statementCache.get(SQLOperation.SELECT_BY_ID, Table.ITEMS);
+        select.setInt(1, randomId());
+        try (ResultSet resultSet = select.executeQuery()) {
+            return mapFirstRow(resultSet);
+        }
+    }
+}
@@ -1,12 +1,35 @@
 package backend;
 
 import model.Database;
+import model.SlowStatementLog;
+import model.SnapshotScheduler;
+import presenter.GroupCommitWriter;
 import presenter.DatabasePresenter;
 import view.DatabaseCLI;
+import view.DatabaseHTTPServer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 /**
  * DatabaseBackend provides the main method used for interacting with the
- * database.
+ * database. Without arguments, it prompts the user for commands. With
+ * "--script [file]", it executes the commands in the file, or in standard
+ * input if the file is "-", and "--batch-size [size]" sets the number of
+ * writes per transaction. The database file is only recreated and seeded
+ * if it is out of date, or if "--rebuild" is given. With "--memory", the
+ * database is kept in memory and copied to a snapshot file
+ * ("--snapshot-file [file]") every "--snapshot-interval [seconds]" and when
+ * the program ends. With "--http [port]", the database is served over HTTP
+ * instead until the program is interrupted. With "--group-commit", writes
+ * from every thread are committed together in groups. The metrics of its
+ * commands and SQL operations are registered with JMX as Metrics.OBJECT_NAME.
+ * SQL statements taking "--slow-threshold [milliseconds]" or longer are kept
+ * with their query plans, and appended to "--slow-log [file]" if it is given.
  *
  * @author Liam Tripp
  */
@@ -15,36 +38,221 @@ public class DatabaseBackend {
     private final Database database;
     private final DatabasePresenter databasePresenter;
     private final DatabaseCLI databaseCLI;
+    private SnapshotScheduler snapshotScheduler;
+    public final static long DEFAULT_SNAPSHOT_INTERVAL_SECONDS = 60;
 
     /**
-     * Constructor for DatabaseBackend.
+     * Constructor for DatabaseBackend. The existing database file is reused
+     * if it is up-to-date.
      */
     public DatabaseBackend() {
-        database = new Database();
+        this(new Database(), false);
+    }
+
+    /**
+     * Constructor for DatabaseBackend.
+     *
+     * @param database the database to be used
+     * @param rebuildDatabase true if the database should be recreated and
+     *                        reseeded even if it is up-to-date
+     */
+    public DatabaseBackend(Database database, boolean rebuildDatabase) {
+        this.database = database;
         databasePresenter = new DatabasePresenter();
         databaseCLI = new DatabaseCLI();
 
-        database.initializeDatabase();
-        database.populateDatabase();
+        System.out.println(database.startDatabase(rebuildDatabase));
         databasePresenter.addDatabase(database);
         databaseCLI.addPresenter(databasePresenter);
+        database.getMetrics().registerMBean();
+    }
+
+    /**
+     * Creates a DatabaseBackend whose database is kept in memory. The
+     * database is restored from the snapshot file if it exists, and copied to
+     * it periodically and when the program ends.
+     *
+     * @param rebuildDatabase true if the database should be recreated and
+     *                        reseeded even if the snapshot is up-to-date
+     * @param snapshotFileName the name of the snapshot file
+     * @param snapshotIntervalMillis the time between snapshots, in milliseconds
+     * @return the DatabaseBackend
+     */
+    public static DatabaseBackend createInMemory(boolean rebuildDatabase, String snapshotFileName,
+                                                 long snapshotIntervalMillis) {
+        Database database = new Database(Database.IN_MEMORY, 0);
+        long startTime = System.nanoTime();
+        if (database.restoreFrom(snapshotFileName)) {
+            System.out.printf("Restored snapshot %s in %.1f ms%n", snapshotFileName,
+                    (System.nanoTime() - startTime) / 1_000_000.0);
+        }
+        DatabaseBackend databaseBackend = new DatabaseBackend(database, rebuildDatabase);
+        databaseBackend.snapshotScheduler = database.scheduleSnapshots(snapshotFileName, snapshotIntervalMillis);
+        return databaseBackend;
+    }
+
+    /**
+     * Shuts down the database if the user has not quit, then reports the
+     * snapshots taken, if any.
+     */
+    public void finish() {
+        if (!databaseCLI.userWantsToQuit()) {
+            databaseCLI.quit();
+        }
+        database.getMetrics().unregisterMBean();
+        if (snapshotScheduler != null) {
+            System.out.println("Snapshots: " + snapshotScheduler.getStatistics());
+        }
+        GroupCommitWriter.Statistics groupCommitStatistics = databasePresenter.getGroupCommitStatistics();
+        if (groupCommitStatistics != null) {
+            System.out.println("Group commit: " + groupCommitStatistics);
+        }
+    }
+
+    /**
+     * Commits writes from every thread together in groups.
+     *
+     * @param maxBatchSize the maximum number of writes committed together
+     * @param maxDelayMillis the maximum time a write waits for others to be
+     *                       grouped with it, in milliseconds
+     */
+    public void enableGroupCommit(int maxBatchSize, long maxDelayMillis) {
+        databasePresenter.enableGroupCommit(maxBatchSize, maxDelayMillis);
+    }
+
+    /**
+     * Configures which SQL statements are kept as slow and where they are
+     * written.
+     *
+     * @param thresholdMillis the time a statement must take to be kept, in
+     *                        milliseconds, or null to keep the default
+     * @param fileName the file slow statements are appended to, or null to
+     *                 keep them in memory only
+     */
+    public void configureSlowStatementLog(Long thresholdMillis, String fileName) {
+        SlowStatementLog slowStatementLog = database.getSlowStatementLog();
+        if (thresholdMillis != null) {
+            slowStatementLog.setThresholdMillis(thresholdMillis);
+        }
+        if (fileName != null) {
+            slowStatementLog.setFile(Path.of(fileName), SlowStatementLog.DEFAULT_MAX_FILE_BYTES);
+        }
+    }
+
+    /**
+     * Serves the database over HTTP until the program is interrupted, then
+     * stops the server and shuts down the database.
+     *
+     * @param port the port to listen on
+     */
+    public void serve(int port) {
+        DatabaseHTTPServer databaseHTTPServer = new DatabaseHTTPServer(databasePresenter, port);
+        databaseHTTPServer.start();
+        System.out.println("Listening on http://localhost:" + databaseHTTPServer.getPort() + "/");
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            databaseHTTPServer.stop();
+            finish();
+        }));
     }
 
     /**
      * Executes DatabaseBackend program.
      */
     public void execute() {
-        database.initializeDatabase();
-        database.populateDatabase();
-
         databaseCLI.introduction();
         while (databaseCLI.userWantsToQuit() == false) {
             databaseCLI.promptUserForInput();
         }
     }
 
+    /**
+     * Executes the commands in a script without prompting the user, then
+     * prints a summary of the run.
+     *
+     * @param script the reader the script is read from
+     * @param transactionSize the maximum number of writes per transaction
+     */
+    public void executeScript(BufferedReader script, int transactionSize) {
+        ScriptRunner scriptRunner = new ScriptRunner(databaseCLI, databasePresenter, transactionSize, System.out);
+        ScriptReport scriptReport = scriptRunner.run(script);
+        System.out.println();
+        System.out.println(scriptReport);
+    }
+
     public static void main(String[] args) {
-        DatabaseBackend databaseBackend = new DatabaseBackend();
-        databaseBackend.execute();
+        // before any HTTP server is created, as the JDK only reads it once; -D on the command line takes precedence
+        if (System.getProperty(DatabaseHTTPServer.NODELAY_PROPERTY) == null) {
+            System.setProperty(DatabaseHTTPServer.NODELAY_PROPERTY, "true");
+        }
+        String scriptName = null;
+        Integer httpPort = null;
+        boolean rebuildDatabase = false;
+        boolean inMemory = false;
+        boolean groupCommit = false;
+        Long slowThresholdMillis = null;
+        String slowLogFileName = null;
+        String snapshotFileName = Database.DEFAULT_SNAPSHOT_FILE_NAME;
+        long snapshotIntervalSeconds = DEFAULT_SNAPSHOT_INTERVAL_SECONDS;
+        int transactionSize = ScriptRunner.DEFAULT_TRANSACTION_SIZE;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--script") && i + 1 < args.length) {
+                scriptName = args[++i];
+            } else if (args[i].equals("--rebuild")) {
+                rebuildDatabase = true;
+            } else if (args[i].equals("--batch-size") && i + 1 < args.length) {
+                transactionSize = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--http")) {
+                httpPort = DatabaseHTTPServer.DEFAULT_PORT;
+                if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                    httpPort = Integer.parseInt(args[++i]);
+                }
+            } else if (args[i].equals("--group-commit")) {
+                groupCommit = true;
+            } else if (args[i].equals("--slow-threshold") && i + 1 < args.length) {
+                slowThresholdMillis = Long.parseLong(args[++i]);
+            } else if (args[i].equals("--slow-log") && i + 1 < args.length) {
+                slowLogFileName = args[++i];
+            } else if (args[i].equals("--memory")) {
+                inMemory = true;
+            } else if (args[i].equals("--snapshot-file") && i + 1 < args.length) {
+                snapshotFileName = args[++i];
+            } else if (args[i].equals("--snapshot-interval") && i + 1 < args.length) {
+                snapshotIntervalSeconds = Long.parseLong(args[++i]);
+            } else {
+                System.err.println("Usage: DatabaseBackend [--rebuild] [--script file|-] [--batch-size size] [--http [port]] [--group-commit] " +
+                        "[--slow-threshold milliseconds] [--slow-log file] " +
+                        "[--memory [--snapshot-file file] [--snapshot-interval seconds]]");
+                return;
+            }
+        }
+
+        DatabaseBackend databaseBackend;
+        if (inMemory) {
+            databaseBackend = createInMemory(rebuildDatabase, snapshotFileName, snapshotIntervalSeconds * 1000);
+        } else {
+            databaseBackend = new DatabaseBackend(new Database(), rebuildDatabase);
+        }
+        databaseBackend.configureSlowStatementLog(slowThresholdMillis, slowLogFileName);
+        if (groupCommit) {
+            databaseBackend.enableGroupCommit(GroupCommitWriter.DEFAULT_MAX_BATCH_SIZE,
+                    GroupCommitWriter.DEFAULT_MAX_DELAY_MILLIS);
+        }
+        if (httpPort != null) {
+            // the server's threads keep the program running
+            databaseBackend.serve(httpPort);
+            return;
+        }
+        if (scriptName == null) {
+            databaseBackend.execute();
+        } else {
+            try (BufferedReader script = scriptName.equals("-")
+                    ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                    : Files.newBufferedReader(Path.of(scriptName), StandardCharsets.UTF_8)) {
+                databaseBackend.executeScript(script, transactionSize);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        databaseBackend.finish();
     }
 }
@@ -0,0 +1,47 @@
+package backend;
+
+/**
+ * ScriptReport summarizes a script run by the ScriptRunner.
+ *
+ * @param commands the number of commands executed
+ * @param writes the number of commands that wrote to the database
+ * @param errors the number of commands that failed
+ * @param transactions the number of transactions committed
+ * @param elapsedNanos the time taken to run the script, in nanoseconds
+ * @param medianLatencyNanos the median time taken by a command, in nanoseconds
+ * @param p99LatencyNanos the 99th percentile time taken by a command, in nanoseconds
+ * @param maxLatencyNanos the longest time taken by a command, in nanoseconds
+ * @author Liam Tripp
+ */
+public record ScriptReport(int commands, int writes, int errors, int transactions, long elapsedNanos,
+                           long medianLatencyNanos, long p99LatencyNanos, long maxLatencyNanos) {
+
+    /**
+     * Returns the number of commands executed per second.
+     *
+     * @return the number of commands executed per second
+     */
+    public double getCommandsPerSecond() {
+        if (elapsedNanos == 0) {
+            return commands;
+        }
+        return commands / (elapsedNanos / 1_000_000_000.0);
+    }
+
+    /**
+     * Returns the time taken to run the script, in milliseconds.
+     *
+     * @return the time taken to run the script, in milliseconds
+     */
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Ran %d commands (%d writes, %d errors) in %d transactions over %d ms " +
+                        "(%.0f commands/s)%nLatency: median %.1f us, p99 %.1f us, max %.1f us",
+                commands, writes, errors, transactions, getElapsedMillis(), getCommandsPerSecond(),
+                medianLatencyNanos / 1000.0, p99LatencyNanos / 1000.0, maxLatencyNanos / 1000.0);
+    }
+}
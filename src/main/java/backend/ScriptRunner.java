@@ -0,0 +1,145 @@
+package backend;
+
+import presenter.DatabasePresenter;
+import view.Command;
+import view.DatabaseCLI;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Arrays;
+
+/**
+ * ScriptRunner executes a script of commands through the DatabaseCLI without
+ * prompting the user. Each line of the script is one command; blank lines and
+ * lines starting with '#' are skipped. Writes are grouped into transactions
+ * of a fixed number of commands, and a command that fails is reported without
+ * stopping the script or undoing the other commands in its transaction.
+ *
+ * @author Liam Tripp
+ */
+public class ScriptRunner {
+
+    private final DatabaseCLI databaseCLI;
+    private final DatabasePresenter databasePresenter;
+    private final PrintStream output;
+    private final int transactionSize;
+    public final static int DEFAULT_TRANSACTION_SIZE = 500;
+    private final static String COMMENT_PREFIX = "#";
+
+    /**
+     * Constructor for ScriptRunner.
+     *
+     * @param databaseCLI the CLI the commands are executed through
+     * @param databasePresenter the presenter used to group writes into transactions
+     * @param transactionSize the maximum number of writes per transaction
+     * @param output the stream each command's output is printed to
+     */
+    public ScriptRunner(DatabaseCLI databaseCLI, DatabasePresenter databasePresenter,
+                        int transactionSize, PrintStream output) {
+        if (transactionSize < 1) {
+            throw new IllegalArgumentException("Transaction size must be positive.");
+        }
+        this.databaseCLI = databaseCLI;
+        this.databasePresenter = databasePresenter;
+        this.transactionSize = transactionSize;
+        this.output = output;
+    }
+
+    /**
+     * Executes every command of a script, stopping early if it contains QUIT.
+     *
+     * @param script the reader the script is read from
+     * @return a summary of the run
+     */
+    public ScriptReport run(BufferedReader script) {
+        long[] latencies = new long[1024];
+        int commands = 0;
+        int writes = 0;
+        int errors = 0;
+        int transactions = 0;
+        int writesInTransaction = 0;
+        long startTime = System.nanoTime();
+        try {
+            String line;
+            int lineNumber = 0;
+            while (!databaseCLI.userWantsToQuit() && (line = script.readLine()) != null) {
+                lineNumber++;
+                String input = Command.normalizeInput(line);
+                if (input.isEmpty() || input.startsWith(COMMENT_PREFIX)) {
+                    continue;
+                }
+
+                Command command = Command.getCommandForInput(input);
+                boolean isWrite = command != null && command.isWrite();
+                if (isWrite && writesInTransaction == 0) {
+                    databasePresenter.beginTransaction();
+                } else if (command == Command.QUIT && writesInTransaction > 0) {
+                    // QUIT shuts down the database
+                    databasePresenter.commitTransaction();
+                    transactions++;
+                    writesInTransaction = 0;
+                }
+
+                long commandStartTime = System.nanoTime();
+                String consoleOutput;
+                try {
+                    consoleOutput = databaseCLI.processInput(input);
+                } catch (RuntimeException e) {
+                    consoleOutput = "ERROR: " + e.getMessage();
+                }
+                long latency = System.nanoTime() - commandStartTime;
+
+                if (commands == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, commands * 2);
+                }
+                latencies[commands++] = latency;
+                if (databaseCLI.isError(consoleOutput)) {
+                    errors++;
+                    output.println("Line " + lineNumber + ": " + consoleOutput);
+                } else {
+                    output.println(consoleOutput);
+                }
+
+                if (isWrite) {
+                    writes++;
+                    writesInTransaction++;
+                    if (writesInTransaction == transactionSize) {
+                        databasePresenter.commitTransaction();
+                        transactions++;
+                        writesInTransaction = 0;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            if (writesInTransaction > 0) {
+                databasePresenter.commitTransaction();
+                transactions++;
+            }
+        }
+        long elapsedNanos = System.nanoTime() - startTime;
+
+        Arrays.sort(latencies, 0, commands);
+        return new ScriptReport(commands, writes, errors, transactions, elapsedNanos,
+                percentile(latencies, commands, 50), percentile(latencies, commands, 99),
+                commands == 0 ? 0 : latencies[commands - 1]);
+    }
+
+    /**
+     * Returns a percentile of the sorted latencies.
+     *
+     * @param sortedLatencies the latencies, sorted in ascending order
+     * @param count the number of latencies
+     * @param percentile the percentile, between 0 and 100
+     * @return the latency at the percentile, 0 if there are no latencies
+     */
+    private static long percentile(long[] sortedLatencies, int count, int percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        return sortedLatencies[Math.max(index, 0)];
+    }
+}
@@ -0,0 +1,179 @@
+package model;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ConnectionPool holds the connections used by the Database: a single writer
+ * connection and a number of read-only reader connections. The database is
+ * put in WAL mode so that readers are not blocked by the writer.
+ * Each connection has its own StatementCache.
+ *
+ * @author Liam Tripp
+ */
+public class ConnectionPool {
+
+    private final StatementCache writer;
+    private final ReentrantLock writerLock;
+    private final List<StatementCache> readers;
+    private final BlockingQueue<StatementCache> availableReaders;
+
+    /**
+     * Constructor for ConnectionPool.
+     *
+     * @param url the JDBC url of the database
+     * @param numberOfReaders the number of reader connections. If it is 0,
+     *                        reads are performed by the writer connection
+     */
+    public ConnectionPool(String url, int numberOfReaders) {
+        if (numberOfReaders < 0) {
+            throw new IllegalArgumentException("Number of readers cannot be negative.");
+        }
+        writerLock = new ReentrantLock();
+        readers = new ArrayList<>();
+        availableReaders = new ArrayBlockingQueue<>(Math.max(1, numberOfReaders));
+
+        try {
+            Connection writerConnection = DriverManager.getConnection(url);
+            if (numberOfReaders > 0) {
+                executePragma(writerConnection, "PRAGMA journal_mode = WAL");
+            }
+            writer = new StatementCache(writerConnection);
+
+            for (int i = 0; i < numberOfReaders; i++) {
+                Connection readerConnection = DriverManager.getConnection(url);
+                executePragma(readerConnection, "PRAGMA query_only = true");
+                StatementCache reader = new StatementCache(readerConnection);
+                readers.add(reader);
+                availableReaders.add(reader);
+            }
+        } catch (SQLException e) {
+            // if the error message is "out of memory",
+            // it probably means no database file is found
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Executes a PRAGMA statement on a connection.
+     *
+     * @param connection the connection to configure
+     * @param pragma the PRAGMA statement
+     * @throws SQLException if the statement fails
+     */
+    private void executePragma(Connection connection, String pragma) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(pragma);
+        }
+    }
+
+    /**
+     * Returns the writer's connection. The writer lock should be held while
+     * it is used.
+     *
+     * @return the writer's connection
+     */
+    public Connection getWriterConnection() {
+        return writer.getConnection();
+    }
+
+    /**
+     * Returns the writer's statements. The writer lock should be held while
+     * they are used.
+     *
+     * @return the writer's statements
+     */
+    public StatementCache getWriter() {
+        return writer;
+    }
+
+    /**
+     * Acquires the writer lock, waiting for other writers to finish.
+     */
+    public void lockWriter() {
+        writerLock.lock();
+    }
+
+    /**
+     * Releases the writer lock.
+     */
+    public void unlockWriter() {
+        writerLock.unlock();
+    }
+
+    /**
+     * Indicates whether the current thread holds the writer lock.
+     *
+     * @return true if the current thread holds the writer lock, false otherwise
+     */
+    public boolean isWriterHeldByCurrentThread() {
+        return writerLock.isHeldByCurrentThread();
+    }
+
+    /**
+     * Returns the number of reader connections.
+     *
+     * @return the number of reader connections
+     */
+    public int getNumberOfReaders() {
+        return readers.size();
+    }
+
+    /**
+     * Borrows a reader connection's statements, waiting for one to become
+     * available. A thread holding the writer lock reads through the writer
+     * so that it sees its own uncommitted changes. Every reader must be
+     * returned with releaseReader.
+     *
+     * @return the statements of a reader connection
+     */
+    public StatementCache acquireReader() {
+        if (readers.isEmpty() || writerLock.isHeldByCurrentThread()) {
+            writerLock.lock();
+            return writer;
+        }
+        try {
+            return availableReaders.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Returns a reader connection's statements to the pool.
+     *
+     * @param reader the statements returned by acquireReader
+     */
+    public void releaseReader(StatementCache reader) {
+        if (reader == writer) {
+            writerLock.unlock();
+        } else {
+            availableReaders.add(reader);
+        }
+    }
+
+    /**
+     * Closes every connection in the pool.
+     */
+    public void close() {
+        try {
+            for (StatementCache reader : readers) {
+                reader.close();
+                reader.getConnection().close();
+            }
+            writer.close();
+            writer.getConnection().close();
+        } catch (SQLException e) {
+            // connection close failed.
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -1,57 +1,797 @@
 package model;
 
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetProvider;
+import java.io.File;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.StringJoiner;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Database contains the CRUD functionality for the SQLite database.
  * (CRUD = create, read, update, destroy)
  *
+ * Database is safe to use from multiple threads. Writes are made one at a
+ * time on the writer connection while holding its lock. Reads are made on
+ * a pooled reader connection held only for the duration of the read, and
+ * do not wait for writes. No statement is shared between threads.
+ *
  * @author Liam Tripp
  */
 public class Database {
 
+    private final ConnectionPool connectionPool;
     private final Connection connection;
-    private final Statement statement;
+    private int batchSize;
+    private SnapshotScheduler snapshotScheduler;
+    private final Metrics metrics;
+    private final SlowStatementLog slowStatementLog;
     private final static String CLASS_LOADER_NAME = "org.sqlite.JDBC";
-    private final static String DATABASE_NAME = "jdbc:sqlite:warehouse.db";
+    private final static String URL_PREFIX = "jdbc:sqlite:";
+    public final static String DEFAULT_FILE_NAME = "warehouse.db";
+    /** the file name of a database kept in memory instead of a file */
+    public final static String IN_MEMORY = ":memory:";
+    public final static String DEFAULT_SNAPSHOT_FILE_NAME = "warehouse.snapshot.db";
+    public final static int DEFAULT_NUMBER_OF_READERS =
+            Math.min(4, Runtime.getRuntime().availableProcessors());
+    public final static int DEFAULT_BATCH_SIZE = 1000;
+    public final static int DEFAULT_PAGE_SIZE = 500;
+    /** the id before the first row of a table, used to read a table's first page */
+    public final static int FIRST_PAGE_ID = Integer.MIN_VALUE;
+    /** the version of DDL.sql and FTS.sql, to be incremented whenever the schema changes */
+    public final static int SCHEMA_VERSION = 3;
+    /** a word of the text given to findItems, which may end with '*' to find words starting with it */
+    private final static Pattern FIND_TERM = Pattern.compile("(\\w+)(\\*?)", Pattern.UNICODE_CHARACTER_CLASS);
+    private final static String SCHEMA_VERSION_KEY = "schema_version";
+    private final static String SEED_CHECKSUM_KEY = "seed_checksum";
+    private final static String METADATA_TABLE = "metadata";
+    /** the names under which statements that are not an SQLOperation are recorded in the Metrics */
+    private final static String BULK_INSERT_OPERATION = "BULK_INSERT";
+    private final static String UPDATE_OPERATION = "UPDATE";
+    private final static String UPDATE_BY_IDS_OPERATION = "UPDATE_BY_IDS";
+    private final static String MOVE_BY_IDS_OPERATION = "MOVE_BY_IDS";
+    private final static String SELECT_OPERATION = "SELECT";
+    private final static String SEARCH_OPERATION = "SEARCH";
+    private final static String STATEMENT_OPERATION = "STATEMENT";
 
+    /**
+     * Constructor for Database. Uses the default database file and number
+     * of reader connections.
+     */
     public Database() {
+        this(DEFAULT_FILE_NAME, DEFAULT_NUMBER_OF_READERS);
+    }
+
+    /**
+     * Constructor for Database.
+     *
+     * @param fileName the name of the database file, or IN_MEMORY to keep
+     *                 the database in memory
+     * @param numberOfReaders the number of connections used for reading. An
+     *                        in-memory database is private to its connection,
+     *                        so it only uses the writer
+     */
+    public Database(String fileName, int numberOfReaders) {
+        if (fileName.equals(IN_MEMORY)) {
+            numberOfReaders = 0;
+        }
         // load the sqlite-JDBC driver using the current class loader
         try {
             Class.forName(CLASS_LOADER_NAME);
-            connection = DriverManager.getConnection(DATABASE_NAME);
-            statement = connection.createStatement();
+            connectionPool = new ConnectionPool(URL_PREFIX + fileName, numberOfReaders);
+            connection = connectionPool.getWriterConnection();
+            batchSize = DEFAULT_BATCH_SIZE;
+            metrics = new Metrics();
+            slowStatementLog = new SlowStatementLog(SlowStatementLog.DEFAULT_THRESHOLD_MILLIS,
+                    SlowStatementLog.DEFAULT_CAPACITY);
         } catch (ClassNotFoundException e) {
             throw new RuntimeException(e);
-        } catch (SQLException e) {
-            // if the error message is "out of memory",
-            // it probably means no database file is found
-            throw new RuntimeException(e);
         }
     }
 
     /**
-     * Creates the database.
+     * Creates the database. The tables are created by DDL.sql, then their
+     * full-text indexes and the triggers keeping them in sync by FTS.sql.
      */
     public void initializeDatabase() {
         InputFileReader inputFileReader = new InputFileReader("DDL", "sql");
         String sqlTableCreateStatement = inputFileReader.getSQLFileAsString();
         executeStatement(sqlTableCreateStatement);
+        InputFileReader fullTextReader = new InputFileReader("FTS", "sql");
+        executeStatement(fullTextReader.getSQLFileAsString());
+    }
+
+    /**
+     * Prepares the database for use. The schema is created and items.json is
+     * loaded unless the database file was already prepared with the current
+     * SCHEMA_VERSION and the same items.json, in which case its contents are
+     * kept as they are.
+     *
+     * @param forceRebuild true if the schema should be created and items.json
+     *                     loaded even if the database file is up-to-date
+     * @return a report of the time taken by each step of startup
+     */
+    public StartupReport startDatabase(boolean forceRebuild) {
+        long startTime = System.nanoTime();
+        InputFileReader seedFileReader = new InputFileReader(Table.ITEMS.getName(), "json");
+        String seedChecksum = Long.toHexString(seedFileReader.getChecksum());
+        long schemaStartTime = System.nanoTime();
+        long checksumNanos = schemaStartTime - startTime;
+
+        if (!forceRebuild && tableExists(METADATA_TABLE) &&
+                String.valueOf(SCHEMA_VERSION).equals(selectMetadata(SCHEMA_VERSION_KEY)) &&
+                seedChecksum.equals(selectMetadata(SEED_CHECKSUM_KEY))) {
+            long endTime = System.nanoTime();
+            return new StartupReport(false, checksumNanos, endTime - schemaStartTime, null, endTime - startTime);
+        }
+
+        // the metadata is only written if the schema and seed data are committed with it
+        LoadReport seedReport = inTransaction(() -> {
+            initializeDatabase();
+            LoadReport loadReport = populateDatabase();
+            updateMetadata(SCHEMA_VERSION_KEY, String.valueOf(SCHEMA_VERSION));
+            updateMetadata(SEED_CHECKSUM_KEY, seedChecksum);
+            return loadReport;
+        });
+        long endTime = System.nanoTime();
+        long schemaNanos = endTime - schemaStartTime - seedReport.elapsedNanos();
+        return new StartupReport(true, checksumNanos, schemaNanos, seedReport, endTime - startTime);
+    }
+
+    /**
+     * Indicates whether a table exists in the database file.
+     *
+     * @param tableName the name of the table
+     * @return true if the table exists, false otherwise
+     */
+    private boolean tableExists(String tableName) {
+        connectionPool.lockWriter();
+        try (PreparedStatement preparedStatement = connection.prepareStatement(
+                "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = ?")) {
+            preparedStatement.setString(1, tableName);
+            ResultSet resultSet = preparedStatement.executeQuery();
+            return resultSet.next();
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        } finally {
+            connectionPool.unlockWriter();
+        }
+    }
+
+    /**
+     * Returns a value stored in the metadata table.
+     *
+     * @param key the key of the value
+     * @return the value, null if it does not exist
+     */
+    private String selectMetadata(String key) {
+        connectionPool.lockWriter();
+        try (PreparedStatement preparedStatement = connection.prepareStatement(
+                "SELECT value FROM " + METADATA_TABLE + " WHERE key = ?")) {
+            preparedStatement.setString(1, key);
+            ResultSet resultSet = preparedStatement.executeQuery();
+            return resultSet.next() ? resultSet.getString(1) : null;
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        } finally {
+            connectionPool.unlockWriter();
+        }
+    }
+
+    /**
+     * Stores a value in the metadata table, replacing any previous value.
+     *
+     * @param key the key of the value
+     * @param value the value to be stored
+     */
+    private void updateMetadata(String key, String value) throws SQLException {
+        try (PreparedStatement preparedStatement = connection.prepareStatement(
+                "INSERT OR REPLACE INTO " + METADATA_TABLE + "(key, value) VALUES (?, ?)")) {
+            preparedStatement.setString(1, key);
+            preparedStatement.setString(2, value);
+            preparedStatement.executeUpdate();
+        }
+    }
+
+    /**
+     * Sets the number of rows sent to SQLite per batch during bulk inserts.
+     *
+     * @param batchSize the number of rows per batch
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive.");
+        }
+        this.batchSize = batchSize;
     }
 
     /**
      * Adds values from items.json to the ITEMS table.
+     *
+     * @return a report of the number of rows loaded and the time taken
      */
-    public void populateDatabase() {
+    public LoadReport populateDatabase() {
         InputFileReader inputFileReader = new InputFileReader(Table.ITEMS.getName(), "json");
         List<Item> itemsFromJSONFile = inputFileReader.getItemsFromJSONFile();
+        return bulkInsert(itemsFromJSONFile);
+    }
+
+    /**
+     * Inserts new Items into the ITEMS table within a single transaction,
+     * sending them to SQLite in batches. The Items' ids are ignored.
+     *
+     * @param items the items to be inserted
+     * @return a report of the number of rows loaded and the time taken
+     */
+    public LoadReport bulkInsert(List<Item> items) {
+        long startTime = System.nanoTime();
+        inTransaction(() -> {
+            PreparedStatement preparedStatement = connectionPool.getWriter().get(SQLOperation.INSERT_NEW, Table.ITEMS);
+            int rowsInBatch = 0;
+            for (Item item : items) {
+                bindNewItem(preparedStatement, item);
+                preparedStatement.addBatch();
+                rowsInBatch++;
+                if (rowsInBatch == batchSize) {
+                    preparedStatement.executeBatch();
+                    rowsInBatch = 0;
+                }
+            }
+            if (rowsInBatch > 0) {
+                preparedStatement.executeBatch();
+            }
+            return null;
+        });
+        recordSQLOperation(BULK_INSERT_OPERATION, SQLOperation.INSERT_NEW.getSQL(Table.ITEMS), connection,
+                startTime, items.size());
+        return new LoadReport(items.size(), System.nanoTime() - startTime);
+    }
+
+    /**
+     * SQLWork is a unit of work performed with the writer connection.
+     *
+     * @param <T> the type of the work's result
+     */
+    @FunctionalInterface
+    private interface SQLWork<T> {
+        T execute() throws SQLException;
+    }
+
+    /**
+     * Performs work with the writer connection within a single transaction,
+     * rolling it back if the work fails. If a transaction is already open on
+     * the writer, the work becomes part of it and is committed with it; if
+     * the work fails, only its own changes are rolled back.
+     *
+     * @param work the work to be performed
+     * @param <T> the type of the work's result
+     * @return the result of the work
+     */
+    private <T> T inTransaction(SQLWork<T> work) {
+        connectionPool.lockWriter();
+        try {
+            if (!connection.getAutoCommit()) {
+                Savepoint savepoint = connection.setSavepoint();
+                try {
+                    T result = work.execute();
+                    connection.releaseSavepoint(savepoint);
+                    return result;
+                } catch (SQLException | RuntimeException e) {
+                    connection.rollback(savepoint);
+                    throw e;
+                }
+            }
+            connection.setAutoCommit(false);
+            try {
+                T result = work.execute();
+                connection.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        } finally {
+            connectionPool.unlockWriter();
+        }
+    }
+
+    /**
+     * Opens a transaction on the writer connection. Every write made by the
+     * calling thread until commitTransaction is called becomes part of it,
+     * and other threads' writes wait until it is committed.
+     */
+    public void beginTransaction() {
+        connectionPool.lockWriter();
+        try {
+            connection.setAutoCommit(false);
+        } catch (SQLException e) {
+            connectionPool.unlockWriter();
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Commits the transaction opened by beginTransaction.
+     */
+    public void commitTransaction() {
+        try {
+            connection.commit();
+            connection.setAutoCommit(true);
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        } finally {
+            connectionPool.unlockWriter();
+        }
+    }
+
+    /**
+     * Moves the Item with the provided id from the ITEMS table to the
+     * DELETED_ITEMS table in a single transaction.
+     *
+     * @param itemId the id of the item
+     * @param comment the deletion comment for the item, may be blank
+     * @return the item as inserted into DELETED_ITEMS, null if it does not exist
+     */
+    public DeletedItem moveToDeletedItems(int itemId, String comment) {
+        return (DeletedItem) moveItem(Table.DELETED_ITEMS, itemId, comment.isBlank() ? null : comment);
+    }
+
+    /**
+     * Moves the Item with the provided id from the DELETED_ITEMS table back
+     * to the ITEMS table in a single transaction. The deletion comment is
+     * discarded.
+     *
+     * @param itemId the id of the item
+     * @return the item as inserted into ITEMS, null if it does not exist
+     */
+    public Item restoreFromDeletedItems(int itemId) {
+        return moveItem(Table.ITEMS, itemId, null);
+    }
+
+    /**
+     * Copies a row into a table from the other table with INSERT ... SELECT,
+     * reading it back with RETURNING, then deletes it from the other table.
+     *
+     * @param table the table the item is moved to
+     * @param itemId the id of the item
+     * @param comment the deletion comment, used when moving to DELETED_ITEMS
+     * @return the item as inserted, null if it does not exist
+     */
+    private Item moveItem(Table table, int itemId, String comment) {
+        Table sourceTable = table == Table.ITEMS ? Table.DELETED_ITEMS : Table.ITEMS;
+        long startTime = System.nanoTime();
+        Item movedItem = inTransaction(() -> {
+            StatementCache writer = connectionPool.getWriter();
+            PreparedStatement moveStatement = writer.get(SQLOperation.MOVE_BY_ID, table);
+            int parameterIndex = 1;
+            if (table == Table.DELETED_ITEMS) {
+                moveStatement.setString(parameterIndex++, comment);
+            }
+            moveStatement.setInt(parameterIndex, itemId);
+            List<Item> movedItems = createItems(table, moveStatement.executeQuery());
+            if (movedItems.isEmpty()) {
+                return null;
+            }
+
+            PreparedStatement deleteStatement = writer.get(SQLOperation.DELETE_BY_ID, sourceTable);
+            deleteStatement.setInt(1, itemId);
+            deleteStatement.executeUpdate();
+            return movedItems.get(0);
+        });
+        recordSQLOperation(SQLOperation.MOVE_BY_ID, table, connection, startTime, movedItem == null ? 0 : 1);
+        return movedItem;
+    }
+
+    /**
+     * Moves every Item whose id is in a set from the ITEMS table to the
+     * DELETED_ITEMS table in a single transaction. Ids without an Item are
+     * ignored.
+     *
+     * @param ids the ids of the items
+     * @param comment the deletion comment for every item, may be blank
+     * @return the number of items moved
+     */
+    public int moveToDeletedItems(IdSet ids, String comment) {
+        return moveItems(Table.DELETED_ITEMS, ids, comment.isBlank() ? null : comment);
+    }
+
+    /**
+     * Moves every Item whose id is in a set from the DELETED_ITEMS table back
+     * to the ITEMS table in a single transaction. Ids without an Item are
+     * ignored, and the deletion comments are discarded.
+     *
+     * @param ids the ids of the items
+     * @return the number of items moved
+     */
+    public int restoreFromDeletedItems(IdSet ids) {
+        return moveItems(Table.ITEMS, ids, null);
+    }
+
+    /**
+     * Copies the rows whose id is in a set into a table from the other table
+     * with one INSERT ... SELECT, then deletes them from the other table
+     * with one DELETE. If any row cannot be moved, no row is moved.
+     *
+     * @param table the table the items are moved to
+     * @param ids the ids of the items
+     * @param comment the deletion comment, used when moving to DELETED_ITEMS
+     * @return the number of items moved
+     */
+    private int moveItems(Table table, IdSet ids, String comment) {
+        Table sourceTable = table == Table.ITEMS ? Table.DELETED_ITEMS : Table.ITEMS;
+        String selectedColumns = String.join(", ", Item.getAttributeNamesAsArray());
+        if (table == Table.DELETED_ITEMS) {
+            selectedColumns += ", ?"; // comment
+        }
+        String moveStatement = "INSERT INTO " + table.getName() + "(" + String.join(", ", table.getColumnNames()) +
+                ") SELECT " + selectedColumns + " FROM " + sourceTable.getName() + " WHERE " + ids.getSQLCondition();
+        String deleteStatement = "DELETE FROM " + sourceTable.getName() + " WHERE " + ids.getSQLCondition();
+        long startTime = System.nanoTime();
+        int movedRows = inTransaction(() -> {
+            int rows;
+            try (PreparedStatement preparedStatement = connection.prepareStatement(moveStatement)) {
+                int parameterIndex = 1;
+                if (table == Table.DELETED_ITEMS) {
+                    preparedStatement.setString(parameterIndex++, comment);
+                }
+                bindParameters(preparedStatement, parameterIndex, ids.getParameters());
+                rows = preparedStatement.executeUpdate();
+            }
+            try (PreparedStatement preparedStatement = connection.prepareStatement(deleteStatement)) {
+                bindParameters(preparedStatement, 1, ids.getParameters());
+                preparedStatement.executeUpdate();
+            }
+            return rows;
+        });
+        recordSQLOperation(MOVE_BY_IDS_OPERATION, moveStatement, connection, startTime, movedRows);
+        return movedRows;
+    }
+
+    /**
+     * Binds values to consecutive parameters of a statement.
+     *
+     * @param preparedStatement the statement
+     * @param firstIndex the index of the first parameter bound
+     * @param parameters the values to be bound, in order
+     * @throws SQLException if a value cannot be bound
+     */
+    private static void bindParameters(PreparedStatement preparedStatement, int firstIndex,
+                                       List<Object> parameters) throws SQLException {
+        int parameterIndex = firstIndex;
+        for (Object parameter : parameters) {
+            preparedStatement.setObject(parameterIndex++, parameter);
+        }
+    }
+
+    /**
+     * Inserts a new Item into the ITEMS table. The Item's id is ignored and
+     * one is assigned by the database.
+     *
+     * @param item the item to be inserted
+     * @return the id assigned to the inserted item
+     */
+    public int insertItem(Item item) {
+        long startTime = System.nanoTime();
+        connectionPool.lockWriter();
+        PreparedStatement preparedStatement = connectionPool.getWriter().get(SQLOperation.INSERT_NEW, Table.ITEMS);
+        try {
+            bindNewItem(preparedStatement, item);
+            preparedStatement.executeUpdate();
+
+            ResultSet generatedKeys = preparedStatement.getGeneratedKeys();
+            int itemId = generatedKeys.next() ? generatedKeys.getInt(1) : -1;
+            generatedKeys.close();
+            recordSQLOperation(SQLOperation.INSERT_NEW, Table.ITEMS, connection, startTime, 1);
+            return itemId;
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        } finally {
+            connectionPool.unlockWriter();
+        }
+    }
+
+    /**
+     * Binds the values of a new Item to an INSERT_NEW statement.
+     *
+     * @param preparedStatement the INSERT_NEW statement
+     * @param item the item being inserted
+     * @throws SQLException if a value cannot be bound
+     */
+    private void bindNewItem(PreparedStatement preparedStatement, Item item) throws SQLException {
+        preparedStatement.setString(1, item.getName());
+        preparedStatement.setLong(2, item.getPriceInCents());
+        preparedStatement.setInt(3, item.getStock());
+    }
+
+    /**
+     * Inserts an Item into a table, including its id. If the table is
+     * DELETED_ITEMS, the Item's deletion comment is inserted as well.
+     *
+     * @param table the table to insert into
+     * @param item the item to be inserted
+     */
+    public void insert(Table table, Item item) {
+        long startTime = System.nanoTime();
+        connectionPool.lockWriter();
+        PreparedStatement preparedStatement = connectionPool.getWriter().get(SQLOperation.INSERT, table);
+        try {
+            preparedStatement.setInt(1, item.getId());
+            preparedStatement.setString(2, item.getName());
+            preparedStatement.setLong(3, item.getPriceInCents());
+            preparedStatement.setInt(4, item.getStock());
+            if (table == Table.DELETED_ITEMS) {
+                String comment = null;
+                if (item instanceof DeletedItem deletedItem && !deletedItem.getComment().isBlank()) {
+                    comment = deletedItem.getComment();
+                }
+                preparedStatement.setString(5, comment);
+            }
+            recordSQLOperation(SQLOperation.INSERT, table, connection, startTime, preparedStatement.executeUpdate());
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        } finally {
+            connectionPool.unlockWriter();
+        }
+    }
+
+    /**
+     * Selects and returns every Item in a table.
+     *
+     * @param table the table being selected from
+     * @return list of the items in the table
+     */
+    public List<Item> selectAll(Table table) {
+        long startTime = System.nanoTime();
+        StatementCache reader = connectionPool.acquireReader();
+        try {
+            PreparedStatement preparedStatement = reader.get(SQLOperation.SELECT_ALL, table);
+            List<Item> items = createItems(table, preparedStatement.executeQuery());
+            recordSQLOperation(SQLOperation.SELECT_ALL, table, reader.getConnection(), startTime, items.size());
+            return items;
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        } finally {
+            connectionPool.releaseReader(reader);
+        }
+    }
+
+    /**
+     * Selects and returns the Item with the provided id from a table.
+     *
+     * @param table the table being selected from
+     * @param itemId the id of the item
+     * @return the item with the provided id, null if it does not exist
+     */
+    public Item selectById(Table table, int itemId) {
+        long startTime = System.nanoTime();
+        StatementCache reader = connectionPool.acquireReader();
+        try {
+            PreparedStatement preparedStatement = reader.get(SQLOperation.SELECT_BY_ID, table);
+            preparedStatement.setInt(1, itemId);
+            List<Item> items = createItems(table, preparedStatement.executeQuery());
+            recordSQLOperation(SQLOperation.SELECT_BY_ID, table, reader.getConnection(), startTime, items.size());
+            return items.isEmpty() ? null : items.get(0);
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        } finally {
+            connectionPool.releaseReader(reader);
+        }
+    }
+
+    /**
+     * Selects and returns a page of Items from a table, ordered by id. Pages
+     * are read by key, so reading a page costs the same no matter how far
+     * into the table it is.
+     *
+     * @param table the table being selected from
+     * @param afterId the id of the last item of the previous page, or
+     *                FIRST_PAGE_ID for the first page
+     * @param pageSize the maximum number of items in the page
+     * @return list of at most pageSize items with ids greater than afterId
+     */
+    public List<Item> selectPage(Table table, int afterId, int pageSize) {
+        long startTime = System.nanoTime();
+        StatementCache reader = connectionPool.acquireReader();
+        try {
+            PreparedStatement preparedStatement = reader.get(SQLOperation.SELECT_PAGE, table);
+            preparedStatement.setInt(1, afterId);
+            preparedStatement.setInt(2, pageSize);
+            List<Item> items = createItems(table, preparedStatement.executeQuery());
+            recordSQLOperation(SQLOperation.SELECT_PAGE, table, reader.getConnection(), startTime, items.size());
+            return items;
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        } finally {
+            connectionPool.releaseReader(reader);
+        }
+    }
+
+    /**
+     * Returns the id of the row at an offset in a table ordered by id.
+     * Used to find where a numbered page starts.
+     *
+     * @param table the table being selected from
+     * @param offset the number of rows before the row
+     * @return the id of the row, null if the table has fewer rows
+     */
+    public Integer selectIdAtOffset(Table table, long offset) {
+        long startTime = System.nanoTime();
+        StatementCache reader = connectionPool.acquireReader();
+        try {
+            PreparedStatement preparedStatement = reader.get(SQLOperation.SELECT_ID_AT_OFFSET, table);
+            preparedStatement.setLong(1, offset);
+            ResultSet resultSet = preparedStatement.executeQuery();
+            Integer itemId = resultSet.next() ? resultSet.getInt(1) : null;
+            resultSet.close();
+            recordSQLOperation(SQLOperation.SELECT_ID_AT_OFFSET, table, reader.getConnection(), startTime, itemId == null ? 0 : 1);
+            return itemId;
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        } finally {
+            connectionPool.releaseReader(reader);
+        }
+    }
+
+    /**
+     * Selects and returns the Items in the ITEMS table matching a search.
+     * Each filter of the search is served by an index, so only matching rows
+     * are read. The Items are returned in the order of the index used.
+     *
+     * @param search the filters the items must match
+     * @param limit the maximum number of items returned
+     * @return list of at most limit items matching the search
+     */
+    public List<Item> searchItems(ItemSearch search, int limit) {
+        String searchStatement = search.getSQL();
+        List<Object> parameters = search.getParameters();
+        long startTime = System.nanoTime();
+        StatementCache reader = connectionPool.acquireReader();
+        try (PreparedStatement preparedStatement = reader.getConnection().prepareStatement(searchStatement)) {
+            int parameterIndex = 1;
+            for (Object parameter : parameters) {
+                preparedStatement.setObject(parameterIndex++, parameter);
+            }
+            preparedStatement.setInt(parameterIndex, limit);
+            List<Item> items = createItems(Table.ITEMS, preparedStatement.executeQuery());
+            recordSQLOperation(SEARCH_OPERATION, searchStatement, reader.getConnection(), startTime, items.size());
+            return items;
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        } finally {
+            connectionPool.releaseReader(reader);
+        }
+    }
+
+    /**
+     * Selects and returns the Items of a table whose text contains every word
+     * of a text, most relevant first. The names of ITEMS are searched, and
+     * the names and comments of DELETED_ITEMS. Words ending with '*' match
+     * every word starting with them, and other punctuation is ignored.
+     *
+     * @param table the table being searched
+     * @param text the words to be found
+     * @param limit the maximum number of items returned
+     * @return list of at most limit items ranked by bm25, empty if the text has no words
+     */
+    public List<Item> findItems(Table table, String text, int limit) {
+        String matchExpression = createMatchExpression(text);
+        if (matchExpression.isEmpty()) {
+            return new ArrayList<>();
+        }
+        long startTime = System.nanoTime();
+        StatementCache reader = connectionPool.acquireReader();
+        try {
+            PreparedStatement preparedStatement = reader.get(SQLOperation.FIND, table);
+            preparedStatement.setString(1, matchExpression);
+            preparedStatement.setInt(2, limit);
+            List<Item> items = createItems(table, preparedStatement.executeQuery());
+            recordSQLOperation(SQLOperation.FIND, table, reader.getConnection(), startTime, items.size());
+            return items;
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        } finally {
+            connectionPool.releaseReader(reader);
+        }
+    }
+
+    /**
+     * Returns an FTS5 match expression requiring every word of a text. Each
+     * word is quoted so that it cannot be read as FTS5 syntax.
+     *
+     * @param text the words to be found
+     * @return the match expression, empty if the text has no words
+     */
+    private static String createMatchExpression(String text) {
+        StringJoiner matchExpression = new StringJoiner(" ");
+        Matcher matcher = FIND_TERM.matcher(text);
+        while (matcher.find()) {
+            matchExpression.add("\"" + matcher.group(1) + "\"" + matcher.group(2));
+        }
+        return matchExpression.toString();
+    }
+
+    /**
+     * Passes every row of a table to a handler, in order of id, without
+     * creating Items. Unlike forEachItem, the rows are read by a single
+     * query, so they are a consistent snapshot of the table, and a reader
+     * connection is held until the last row has been handled.
+     *
+     * @param table the table being selected from
+     * @param rowHandler the handler of each row
+     * @return the number of rows handled
+     */
+    public long forEachRow(Table table, RowHandler rowHandler) {
+        long startTime = System.nanoTime();
+        StatementCache reader = connectionPool.acquireReader();
+        try {
+            PreparedStatement preparedStatement = reader.get(SQLOperation.SELECT_ALL_ORDERED, table);
+            long rows = 0;
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                ItemRowMapper rowMapper = ItemRowMapper.forTable(resultSet, table);
+                while (resultSet.next()) {
+                    rowHandler.handleRow(resultSet, rowMapper);
+                    rows++;
+                }
+            }
+            recordSQLOperation(SQLOperation.SELECT_ALL_ORDERED, table, reader.getConnection(), startTime, rows);
+            return rows;
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        } finally {
+            connectionPool.releaseReader(reader);
+        }
+    }
 
-        String columnsToInsert = Item.getAttributeNamesExceptId();
-        for (Item item : itemsFromJSONFile) {
-            String valuesToInsert = item.getValuesInSQLFormatExceptId();
-            insert(Table.ITEMS.getName(), columnsToInsert, valuesToInsert);
+    /**
+     * Passes every Item in a table to an action, in order of id. The table is
+     * read one page at a time, so only one page is held in memory.
+     *
+     * @param table the table being selected from
+     * @param action the action performed on each item
+     */
+    public void forEachItem(Table table, Consumer<Item> action) {
+        int afterId = FIRST_PAGE_ID;
+        List<Item> page;
+        do {
+            page = selectPage(table, afterId, DEFAULT_PAGE_SIZE);
+            for (Item item : page) {
+                action.accept(item);
+            }
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * Deletes the Item with the provided id from a table.
+     *
+     * @param table the table being deleted from
+     * @param itemId the id of the item
+     * @return the number of rows deleted
+     */
+    public int deleteById(Table table, int itemId) {
+        long startTime = System.nanoTime();
+        connectionPool.lockWriter();
+        PreparedStatement preparedStatement = connectionPool.getWriter().get(SQLOperation.DELETE_BY_ID, table);
+        try {
+            preparedStatement.setInt(1, itemId);
+            int rowsDeleted = preparedStatement.executeUpdate();
+            recordSQLOperation(SQLOperation.DELETE_BY_ID, table, connection, startTime, rowsDeleted);
+            return rowsDeleted;
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        } finally {
+            connectionPool.unlockWriter();
         }
     }
 
@@ -79,24 +819,44 @@ public class Database {
      * @return list of selected rows in the selected table
      */
     public List<Item> selectFromTable(String tableName, String selectedColumns, String itemId) {
-        ResultSet resultSet = getResultSet(tableName, selectedColumns, itemId);
-        List<Item> items = new ArrayList<>();
-
-        try {
-            while (resultSet.next()) {
-                if (tableName.equals(Table.DELETED_ITEMS.getName())) {
-                    DeletedItem item = new DeletedItem(resultSet);
-                    items.add(item);
-                } else {
-                    Item item = new Item(resultSet);
-                    items.add(item);
-                }
-
+        Table table = Table.getTable(tableName);
+        if (table != null && selectedColumns.equals("*")) {
+            if (itemId.isBlank()) {
+                return selectAll(table);
             }
-            resultSet.close();
+            Item item = selectById(table, Integer.parseInt(itemId.trim()));
+            return item == null ? new ArrayList<>() : new ArrayList<>(List.of(item));
+        }
+
+        long startTime = System.nanoTime();
+        StatementCache reader = connectionPool.acquireReader();
+        String selectStatement = createSelectStatement(tableName, selectedColumns, itemId);
+        try (Statement statement = reader.getConnection().createStatement()) {
+            List<Item> items = createItems(table, statement.executeQuery(selectStatement));
+            recordSQLOperation(SELECT_OPERATION, selectStatement, reader.getConnection(), startTime, items.size());
+            return items;
         } catch (SQLException e) {
             throw new RuntimeException(e);
+        } finally {
+            connectionPool.releaseReader(reader);
+        }
+    }
+
+    /**
+     * Creates a list of Items from the rows of a ResultSet, then closes it.
+     *
+     * @param table the table the rows were selected from
+     * @param resultSet the rows to create the items from
+     * @return list of the items in the ResultSet
+     * @throws SQLException if the ResultSet cannot be read
+     */
+    private List<Item> createItems(Table table, ResultSet resultSet) throws SQLException {
+        List<Item> items = new ArrayList<>();
+        ItemRowMapper rowMapper = ItemRowMapper.forTable(resultSet, table);
+        while (resultSet.next()) {
+            items.add(rowMapper.mapRow(resultSet));
         }
+        resultSet.close();
         return items;
     }
 
@@ -112,20 +872,53 @@ public class Database {
     }
 
     /**
-     * Updates a single attribute of a single item from a table
+     * Updates one or more attributes of a single item from the items table.
+     * The update and the read of the updated item are done by a single
+     * UPDATE ... RETURNING statement.
      *
      * @param itemId the item being updated
-     * @param columnValuePairs the name-value pairs used to update the Item
+     * @param columnValuePairs the comma-separated name-value pairs used to
+     *                         update the Item (ex: name = 'name', stock = 1)
+     * @return the updated item, null if it does not exist
      */
     public Item updateItem(String itemId, String columnValuePairs) {
+        int id = Integer.parseInt(itemId.trim());
         String statementToExecute = "UPDATE " + Table.ITEMS.getName() + " SET " +
-                columnValuePairs + " WHERE id = " + itemId;
-        // check that item exists
-        if (selectFromTable(Table.ITEMS.getName(), "*", itemId).isEmpty()) {
-            return null;
+                columnValuePairs + " WHERE id = ? RETURNING *";
+        long startTime = System.nanoTime();
+        connectionPool.lockWriter();
+        try (PreparedStatement preparedStatement = connection.prepareStatement(statementToExecute)) {
+            preparedStatement.setInt(1, id);
+            List<Item> updatedItems = createItems(Table.ITEMS, preparedStatement.executeQuery());
+            recordSQLOperation(UPDATE_OPERATION, statementToExecute, connection, startTime, updatedItems.size());
+            return updatedItems.isEmpty() ? null : updatedItems.get(0);
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        } finally {
+            connectionPool.unlockWriter();
         }
-        executeStatement(statementToExecute);
-        return selectFromTable(Table.ITEMS.getName(), "*", itemId).get(0);
+    }
+
+    /**
+     * Updates the ITEMS table's rows whose id is in a set with one UPDATE
+     * statement. Ids without an Item are ignored.
+     *
+     * @param ids the ids of the items
+     * @param columnValuePairs the new values, formatted as "column = value, ..."
+     * @return the number of items updated
+     */
+    public int updateItems(IdSet ids, String columnValuePairs) {
+        String statementToExecute = "UPDATE " + Table.ITEMS.getName() + " SET " +
+                columnValuePairs + " WHERE " + ids.getSQLCondition();
+        long startTime = System.nanoTime();
+        int updatedRows = inTransaction(() -> {
+            try (PreparedStatement preparedStatement = connection.prepareStatement(statementToExecute)) {
+                bindParameters(preparedStatement, 1, ids.getParameters());
+                return preparedStatement.executeUpdate();
+            }
+        });
+        recordSQLOperation(UPDATE_BY_IDS_OPERATION, statementToExecute, connection, startTime, updatedRows);
+        return updatedRows;
     }
 
     /**
@@ -135,9 +928,11 @@ public class Database {
      * @param itemId the provided item ids
      */
     public void deleteFromTable(String tableName, String itemId) {
-        String statementToExecute = "DELETE FROM " + tableName +
-                " WHERE id = " + itemId;
-        executeStatement(statementToExecute);
+        Table table = Table.getTable(tableName);
+        if (table == null) {
+            throw new IllegalArgumentException("Table " + tableName + " does not exist.");
+        }
+        deleteById(table, Integer.parseInt(itemId.trim()));
     }
 
     /**
@@ -147,12 +942,31 @@ public class Database {
      * @return the number of rows in the table
      */
     public int getSizeOfTable(String tableName) {
-        return selectFromTable(tableName, "*").size();
+        Table table = Table.getTable(tableName);
+        if (table == null) {
+            return selectFromTable(tableName, "*").size();
+        }
+
+        long startTime = System.nanoTime();
+        StatementCache reader = connectionPool.acquireReader();
+        try {
+            ResultSet resultSet = reader.get(SQLOperation.COUNT, table).executeQuery();
+            int size = resultSet.next() ? resultSet.getInt(1) : 0;
+            resultSet.close();
+            recordSQLOperation(SQLOperation.COUNT, table, reader.getConnection(), startTime, 1);
+            return size;
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        } finally {
+            connectionPool.releaseReader(reader);
+        }
     }
 
     /**
      * Selects and returns a ResultSet of selected rows from a selected table.
-     * If itemId is blank, it selects all rows in the table.
+     * If itemId is blank, it selects all rows in the table. The rows are
+     * copied into a ResultSet that is disconnected from the database, so
+     * it remains valid while other threads use the database.
      *
      * @param tableName the name of the table
      * @param selectedColumns the columns to be selected
@@ -160,43 +974,229 @@ public class Database {
      * @return resultSet containing one or more rows of a table
      */
     public ResultSet getResultSet(String tableName, String selectedColumns, String itemId) {
+        long startTime = System.nanoTime();
+        StatementCache reader = connectionPool.acquireReader();
+        String selectStatement = createSelectStatement(tableName, selectedColumns, itemId);
+        try (Statement statement = reader.getConnection().createStatement()) {
+            CachedRowSet rows = RowSetProvider.newFactory().createCachedRowSet();
+            rows.populate(statement.executeQuery(selectStatement));
+            recordSQLOperation(SELECT_OPERATION, selectStatement, reader.getConnection(), startTime, rows.size());
+            return rows;
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        } finally {
+            connectionPool.releaseReader(reader);
+        }
+    }
+
+    /**
+     * Returns a SELECT statement for rows of a table. If itemId is blank,
+     * it selects all rows in the table.
+     *
+     * @param tableName the name of the table
+     * @param selectedColumns the columns to be selected
+     * @param itemId the id of the item to select, may be blank
+     * @return the SELECT statement
+     */
+    private static String createSelectStatement(String tableName, String selectedColumns, String itemId) {
         String statementToExecute = "SELECT " + selectedColumns + " FROM " + tableName;
         if (!itemId.isBlank()) {
             statementToExecute += " WHERE id = " + itemId;
         }
+        return statementToExecute;
+    }
 
-        try {
-            return statement.executeQuery(statementToExecute);
+    /**
+     * Executes an SQL statement on a table.
+     *
+     * @param sqlStatement the SQL statement to execute
+     * @return the number of rows changed by the statement
+     */
+    public int executeStatement(String sqlStatement) {
+        long startTime = System.nanoTime();
+        connectionPool.lockWriter();
+        try (Statement statement = connection.createStatement()) {
+            int rowsChanged = statement.executeUpdate(sqlStatement);
+            recordSQLOperation(STATEMENT_OPERATION, sqlStatement, connection, startTime, rowsChanged);
+            return rowsChanged;
         } catch (SQLException e) {
             throw new RuntimeException(e);
+        } finally {
+            connectionPool.unlockWriter();
         }
     }
 
     /**
-     * Executes an SQL statement on a table.
+     * Records an SQLOperation that has just completed in the Metrics, and in
+     * the slow statement log if it was slow.
      *
-     * @param sqlStatement the SQL statement to execute
+     * @param operation the operation
+     * @param table the table the operation was performed on
+     * @param connection the connection the operation was performed on
+     * @param startTime the System.nanoTime at which the operation started
+     * @param rows the number of rows read or changed by the operation
+     */
+    private void recordSQLOperation(SQLOperation operation, Table table, Connection connection,
+                                    long startTime, long rows) {
+        long nanos = System.nanoTime() - startTime;
+        metrics.recordSQLOperation(operation.name(), nanos, rows);
+        if (slowStatementLog.isSlow(nanos)) {
+            logSlowStatement(operation.getSQL(table), connection, nanos, rows);
+        }
+    }
+
+    /**
+     * Records an SQL statement that has just completed in the Metrics, and in
+     * the slow statement log if it was slow.
+     *
+     * @param operationName the name under which the statement is recorded
+     * @param sql the SQL of the statement
+     * @param connection the connection the statement was executed on
+     * @param startTime the System.nanoTime at which the statement started
+     * @param rows the number of rows read or changed by the statement
+     */
+    private void recordSQLOperation(String operationName, String sql, Connection connection,
+                                    long startTime, long rows) {
+        long nanos = System.nanoTime() - startTime;
+        metrics.recordSQLOperation(operationName, nanos, rows);
+        if (slowStatementLog.isSlow(nanos)) {
+            logSlowStatement(sql, connection, nanos, rows);
+        }
+    }
+
+    /**
+     * Adds a slow statement to the slow statement log with its query plan.
+     * The plan is explained on the connection the statement was executed on,
+     * locking it first if it is the writer.
+     *
+     * @param sql the SQL of the statement
+     * @param connection the connection the statement was executed on
+     * @param nanos the time taken by the statement, in nanoseconds
+     * @param rows the number of rows read or changed by the statement
+     */
+    private void logSlowStatement(String sql, Connection connection, long nanos, long rows) {
+        String queryPlan;
+        if (connection == this.connection) {
+            queryPlan = withWriterLock(() -> SlowStatementLog.explainQueryPlan(connection, sql));
+        } else {
+            queryPlan = SlowStatementLog.explainQueryPlan(connection, sql);
+        }
+        slowStatementLog.add(sql, nanos, rows, queryPlan);
+    }
+
+    /**
+     * Returns the log of the statements that took at least its threshold to
+     * execute. Its threshold is DEFAULT_THRESHOLD_MILLIS until it is changed.
+     *
+     * @return the Database's slow statement log
+     */
+    public SlowStatementLog getSlowStatementLog() {
+        return slowStatementLog;
+    }
+
+    /**
+     * Returns the Metrics in which the Database records its SQL operations.
+     * Commands performed on the Database are recorded in them as well.
+     *
+     * @return the Database's Metrics
      */
-    public void executeStatement(String sqlStatement) {
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Performs an action while holding the writer lock, so that no other
+     * thread writes until it is complete. Used to keep state derived from
+     * the database, such as a cache, updated in the same order as the
+     * database itself.
+     *
+     * @param action the action to be performed
+     * @param <T> the type of the action's result
+     * @return the result of the action
+     */
+    public <T> T withWriterLock(Supplier<T> action) {
+        connectionPool.lockWriter();
         try {
-            statement.executeUpdate(sqlStatement);
-        } catch (SQLException e) {
-            throw new RuntimeException(e);
+            return action.get();
+        } finally {
+            connectionPool.unlockWriter();
         }
     }
 
     /**
-     * Terminates the database's connection and statement.
+     * Indicates whether the current thread holds the writer lock, such as
+     * while it has a transaction open.
+     *
+     * @return true if the current thread holds the writer lock, false otherwise
+     */
+    public boolean isWriterHeldByCurrentThread() {
+        return connectionPool.isWriterHeldByCurrentThread();
+    }
+
+    /**
+     * Copies the database to a file with SQLite's online backup. Writes wait
+     * until the copy is complete.
+     *
+     * @param fileName the name of the file the database is copied to
+     */
+    public void backupTo(String fileName) {
+        executeStatement("backup to " + quoteFileName(fileName));
+    }
+
+    /**
+     * Replaces the contents of the database with a copy of a file made by
+     * backupTo.
+     *
+     * @param fileName the name of the file the database is copied from
+     * @return true if the file was restored, false if it does not exist
+     */
+    public boolean restoreFrom(String fileName) {
+        if (!new File(fileName).isFile()) {
+            return false;
+        }
+        executeStatement("restore from " + quoteFileName(fileName));
+        return true;
+    }
+
+    /**
+     * Returns a file name quoted for use in a backup or restore statement.
+     *
+     * @param fileName the name of the file
+     * @return the quoted file name
+     */
+    private static String quoteFileName(String fileName) {
+        return "'" + fileName.replace("'", "''") + "'";
+    }
+
+    /**
+     * Copies the database to a snapshot file periodically and when it is
+     * shut down.
+     *
+     * @param snapshotFileName the name of the snapshot file
+     * @param intervalMillis the time between snapshots, in milliseconds
+     * @return the scheduler taking the snapshots
+     */
+    public SnapshotScheduler scheduleSnapshots(String snapshotFileName, long intervalMillis) {
+        if (snapshotScheduler != null) {
+            throw new IllegalStateException("Snapshots are already scheduled.");
+        }
+        snapshotScheduler = new SnapshotScheduler(this, snapshotFileName);
+        snapshotScheduler.start(intervalMillis);
+        return snapshotScheduler;
+    }
+
+    /**
+     * Terminates the database's connections and statements, taking a final
+     * snapshot first if snapshots are scheduled.
      */
     public void shutdown() {
         try {
-            if (connection != null) {
-                connection.close();
+            if (snapshotScheduler != null) {
+                snapshotScheduler.stop();
+                snapshotScheduler.snapshot();
             }
-            statement.close();
-        } catch (SQLException e) {
-            // connection close failed.
-            throw new RuntimeException(e);
+        } finally {
+            connectionPool.close();
         }
     }
 }
@@ -1,6 +1,7 @@
 package model;
 
 import org.apache.commons.lang3.ArrayUtils;
+import org.json.simple.JSONObject;
 
 import java.lang.reflect.Field;
 import java.sql.ResultSet;
@@ -23,7 +24,7 @@ public class DeletedItem extends Item {
      * @param item the item being deleted
      */
     public DeletedItem(Item item) {
-        super(item.getId(), item.getName(), item.getPrice().toString(),
+        super(item.getId(), item.getName(), item.getPriceInCents(),
                 item.getStock());
         comment = "";
     }
@@ -35,19 +36,38 @@ public class DeletedItem extends Item {
      * @param comment the deletion comment for the item
      */
     public DeletedItem(Item item, String comment) {
-        super(item.getId(), item.getName(), item.getPrice().toString(),
+        super(item.getId(), item.getName(), item.getPriceInCents(),
                 item.getStock());
         this.comment = comment;
     }
 
+    /**
+     * Constructs a DeletedItem from a ResultSet. When mapping many rows, an
+     * ItemRowMapper should be used instead so that the columns are only
+     * resolved once.
+     *
+     * @param resultSet the ResultSet from an JDBC SQL query
+     */
     public DeletedItem(ResultSet resultSet) {
-        super(resultSet);
-        int numberOfItemAttributes = Item.class.getDeclaredFields().length;
-        int numberOfDeletedItemAttributes = DeletedItem.class.getDeclaredFields().length;
-        int totalNumberOfAttributes = numberOfItemAttributes + numberOfDeletedItemAttributes;
+        this(resultSet, createRowMapper(resultSet, true));
+    }
+
+    /**
+     * Constructs a DeletedItem from the current row of a ResultSet using the
+     * column positions resolved by an ItemRowMapper.
+     *
+     * @param resultSet the ResultSet from an JDBC SQL query
+     * @param rowMapper the row mapper for the ResultSet
+     */
+    DeletedItem(ResultSet resultSet, ItemRowMapper rowMapper) {
+        super(resultSet, rowMapper);
+        if (rowMapper.getCommentIndex() == 0) {
+            comment = "";
+            return;
+        }
 
         try {
-            String comment = resultSet.getString(totalNumberOfAttributes);
+            String comment = resultSet.getString(rowMapper.getCommentIndex());
             // prevent DeletedItem from initializing null value
             this.comment = Objects.requireNonNullElse(comment, "");
         } catch (SQLException e) {
@@ -113,6 +133,14 @@ public class DeletedItem extends Item {
         }
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public JSONObject toJSONObject() {
+        JSONObject jsonItem = super.toJSONObject();
+        jsonItem.put("comment", comment);
+        return jsonItem;
+    }
+
     @Override
     public boolean equals(Object object) {
         if (object == this) {
@@ -125,7 +153,7 @@ public class DeletedItem extends Item {
 
         return getId() == item.getId() &&
                 getName().equals(item.getName()) &&
-                getPrice().compareTo(item.getPrice()) == 0 &&
+                getPriceInCents() == item.getPriceInCents() &&
                 getStock() == item.getStock() &&
                 getComment().equals(item.getComment());
     }
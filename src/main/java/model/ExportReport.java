@@ -0,0 +1,52 @@
+package model;
+
+/**
+ * ExportReport describes the outcome of exporting a table to a file with an
+ * ItemExporter.
+ *
+ * @param rows the number of rows written
+ * @param bytes the size of the file written, in bytes
+ * @param elapsedNanos the time taken by the export, in nanoseconds
+ * @author Liam Tripp
+ */
+public record ExportReport(long rows, long bytes, long elapsedNanos) {
+
+    /**
+     * Returns the number of rows written per second.
+     *
+     * @return the number of rows written per second
+     */
+    public double getRowsPerSecond() {
+        if (elapsedNanos == 0) {
+            return rows;
+        }
+        return rows / (elapsedNanos / 1_000_000_000.0);
+    }
+
+    /**
+     * Returns the number of megabytes written per second.
+     *
+     * @return the number of megabytes written per second
+     */
+    public double getMegabytesPerSecond() {
+        if (elapsedNanos == 0) {
+            return bytes / 1_000_000.0;
+        }
+        return bytes / 1_000_000.0 / (elapsedNanos / 1_000_000_000.0);
+    }
+
+    /**
+     * Returns the time taken by the export, in milliseconds.
+     *
+     * @return the time taken by the export, in milliseconds
+     */
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Exported %d rows (%.1f MB) in %d ms (%.0f rows/s, %.1f MB/s)",
+                rows, bytes / 1_000_000.0, getElapsedMillis(), getRowsPerSecond(), getMegabytesPerSecond());
+    }
+}
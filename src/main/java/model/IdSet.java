@@ -0,0 +1,169 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * IdSet is a set of item ids written as a comma-separated list of ids and
+ * ranges of ids (ex: "3,7,9" or "10-500,600"). The ranges are sorted and
+ * merged when the set is parsed, so that a statement can select every id
+ * in the set with one BETWEEN condition per range instead of one
+ * statement per id.
+ *
+ * @author Liam Tripp
+ */
+public class IdSet {
+
+    /** each range takes two parameters, and older versions of SQLite allow at most 999 */
+    public final static int MAX_RANGES = 499;
+
+    /** the first and last id of each range, inclusive, in ascending order */
+    private final int[] firstIds;
+    private final int[] lastIds;
+
+    /**
+     * Constructor for IdSet.
+     *
+     * @param firstIds the first id of each range, in ascending order
+     * @param lastIds the last id of each range
+     */
+    private IdSet(int[] firstIds, int[] lastIds) {
+        this.firstIds = firstIds;
+        this.lastIds = lastIds;
+    }
+
+    /**
+     * Parses a comma-separated list of ids and ranges of ids, such as
+     * "1-100,205". Overlapping and adjacent ranges are merged.
+     *
+     * @param ids the list of ids and ranges
+     * @return the set of ids
+     * @throws IllegalArgumentException if the list is malformed, a range
+     *                                  ends before it starts or there are
+     *                                  more than MAX_RANGES ranges once merged
+     */
+    public static IdSet parse(String ids) {
+        String[] parts = ids.trim().split(",");
+        int[][] ranges = new int[parts.length][];
+        for (int i = 0; i < parts.length; i++) {
+            String part = parts[i];
+            int separatorIndex = part.indexOf('-', 1);
+            try {
+                if (separatorIndex < 0) {
+                    int id = Integer.parseInt(part);
+                    ranges[i] = new int[]{id, id};
+                } else {
+                    ranges[i] = new int[]{Integer.parseInt(part.substring(0, separatorIndex)),
+                            Integer.parseInt(part.substring(separatorIndex + 1))};
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("'" + part + "' is not an id or a range of ids");
+            }
+            if (ranges[i][0] > ranges[i][1]) {
+                throw new IllegalArgumentException("the range " + part + " ends before it starts");
+            }
+        }
+
+        Arrays.sort(ranges, (range, otherRange) -> Integer.compare(range[0], otherRange[0]));
+        List<int[]> mergedRanges = new ArrayList<>();
+        for (int[] range : ranges) {
+            int[] lastRange = mergedRanges.isEmpty() ? null : mergedRanges.get(mergedRanges.size() - 1);
+            if (lastRange != null && (long) range[0] <= (long) lastRange[1] + 1) {
+                lastRange[1] = Math.max(lastRange[1], range[1]);
+            } else {
+                mergedRanges.add(range);
+            }
+        }
+        if (mergedRanges.size() > MAX_RANGES) {
+            throw new IllegalArgumentException("at most " + MAX_RANGES + " separate ranges of ids may be given");
+        }
+
+        int[] firstIds = new int[mergedRanges.size()];
+        int[] lastIds = new int[mergedRanges.size()];
+        for (int i = 0; i < mergedRanges.size(); i++) {
+            firstIds[i] = mergedRanges.get(i)[0];
+            lastIds[i] = mergedRanges.get(i)[1];
+        }
+        return new IdSet(firstIds, lastIds);
+    }
+
+    /**
+     * Indicates whether the set contains exactly one id.
+     *
+     * @return true if the set contains one id, false otherwise
+     */
+    public boolean isSingleId() {
+        return firstIds.length == 1 && firstIds[0] == lastIds[0];
+    }
+
+    /**
+     * Indicates whether an id is in the set.
+     *
+     * @param id the id
+     * @return true if the id is in the set, false otherwise
+     */
+    public boolean contains(int id) {
+        int index = Arrays.binarySearch(firstIds, id);
+        if (index >= 0) {
+            return true;
+        }
+        // the range starting before the id, if any
+        int rangeIndex = -index - 2;
+        return rangeIndex >= 0 && id <= lastIds[rangeIndex];
+    }
+
+    /**
+     * Returns the number of ids in the set.
+     *
+     * @return the number of ids in the set
+     */
+    public long size() {
+        long size = 0;
+        for (int i = 0; i < firstIds.length; i++) {
+            size += (long) lastIds[i] - firstIds[i] + 1;
+        }
+        return size;
+    }
+
+    /**
+     * Returns an SQL condition selecting the rows whose id is in the set,
+     * with two '?' for each range, to be bound to the values returned by
+     * getParameters.
+     *
+     * @return the condition on the id column
+     */
+    public String getSQLCondition() {
+        return "(" + String.join(" OR ", Collections.nCopies(firstIds.length, "id BETWEEN ? AND ?")) + ")";
+    }
+
+    /**
+     * Returns the values bound to the parameters of getSQLCondition, in order.
+     *
+     * @return the first and last id of each range
+     */
+    public List<Object> getParameters() {
+        List<Object> parameters = new ArrayList<>(firstIds.length * 2);
+        for (int i = 0; i < firstIds.length; i++) {
+            parameters.add(firstIds[i]);
+            parameters.add(lastIds[i]);
+        }
+        return parameters;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder();
+        for (int i = 0; i < firstIds.length; i++) {
+            if (i > 0) {
+                stringBuilder.append(',');
+            }
+            stringBuilder.append(firstIds[i]);
+            if (lastIds[i] != firstIds[i]) {
+                stringBuilder.append('-').append(lastIds[i]);
+            }
+        }
+        return stringBuilder.toString();
+    }
+}
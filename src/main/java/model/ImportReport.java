@@ -0,0 +1,45 @@
+package model;
+
+import java.util.List;
+
+/**
+ * ImportReport describes the outcome of importing Items from a file with an
+ * ItemImporter.
+ *
+ * @param rowsImported the number of rows inserted into the ITEMS table
+ * @param rowsRejected the number of rows that could not be imported
+ * @param batches the number of batches inserted, each in its own transaction
+ * @param elapsedNanos the time taken by the import, in nanoseconds
+ * @param errors the first errors found, each starting with its line or item number
+ * @author Liam Tripp
+ */
+public record ImportReport(int rowsImported, int rowsRejected, int batches, long elapsedNanos,
+                           List<String> errors) {
+
+    /**
+     * Returns the number of rows imported per second.
+     *
+     * @return the number of rows imported per second
+     */
+    public double getRowsPerSecond() {
+        if (elapsedNanos == 0) {
+            return rowsImported;
+        }
+        return rowsImported / (elapsedNanos / 1_000_000_000.0);
+    }
+
+    /**
+     * Returns the time taken by the import, in milliseconds.
+     *
+     * @return the time taken by the import, in milliseconds
+     */
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Imported %d rows (%d rejected) in %d batches, %d ms (%.0f rows/s)",
+                rowsImported, rowsRejected, batches, getElapsedMillis(), getRowsPerSecond());
+    }
+}
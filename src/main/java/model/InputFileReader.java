@@ -11,6 +11,7 @@ import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.zip.CRC32;
 
 /**
  * InputFileReader allows files to be read and returned as usable objects.
@@ -108,6 +109,25 @@ public class InputFileReader {
         return (JSONObject) obj;
     }
 
+    /**
+     * Returns the CRC-32 checksum of the file's contents.
+     *
+     * @return the checksum of the file
+     */
+    public long getChecksum() {
+        CRC32 checksum = new CRC32();
+        byte[] buffer = new byte[8192];
+        try (InputStream inputStream = createInputStream()) {
+            int bytesRead;
+            while ((bytesRead = inputStream.read(buffer)) != -1) {
+                checksum.update(buffer, 0, bytesRead);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return checksum.getValue();
+    }
+
     /**
      * Creates an InputStreamReader for a file with the specified name.
      * If the project is not a Maven project, prepend "[file's package]/"
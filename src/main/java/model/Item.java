@@ -18,7 +18,8 @@ public class Item {
 
     private final int id;
     private String name;
-    private BigDecimal price;
+    /** the price in cents, the same as it is stored in an SQL table */
+    private long price;
     private int stock;
 
     /**
@@ -30,9 +31,21 @@ public class Item {
      * @param stock the amount of an item in stock
      */
     public Item(int id, String name, String price, int stock) {
+        this(id, name, parseCents(price), stock);
+    }
+
+    /**
+     * Constructor for Item.
+     *
+     * @param id the id of the item
+     * @param name the name of the Item
+     * @param priceInCents the price of the item in cents
+     * @param stock the amount of an item in stock
+     */
+    public Item(int id, String name, long priceInCents, int stock) {
         this.id = id;
         this.name = name;
-        this.price = new BigDecimal(price);
+        this.price = priceInCents;
         this.stock = stock;
     }
 
@@ -49,19 +62,52 @@ public class Item {
     }
 
     /**
-     * Constructs an Item from a ResultSet.
+     * Constructs an Item from a ResultSet. Each value is read by the name of
+     * its column, which is cheaper for a single row than resolving every
+     * column from the metadata. When mapping many rows, an ItemRowMapper
+     * should be used instead so that the columns are only resolved once.
      *
      * @param resultSet the ResultSet from an JDBC SQL query
      */
     public Item(ResultSet resultSet) {
-        final Field[] attributes = Item.class.getDeclaredFields();
+        try {
+            id = resultSet.getInt("id");
+            name = resultSet.getString("name");
+            price = resultSet.getLong("price");
+            stock = resultSet.getInt("stock");
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Constructs an Item from the current row of a ResultSet using the
+     * column positions resolved by an ItemRowMapper.
+     *
+     * @param resultSet the ResultSet from an JDBC SQL query
+     * @param rowMapper the row mapper for the ResultSet
+     */
+    Item(ResultSet resultSet, ItemRowMapper rowMapper) {
+        try {
+            id = resultSet.getInt(rowMapper.getIdIndex());
+            name = resultSet.getString(rowMapper.getNameIndex());
+            price = resultSet.getLong(rowMapper.getPriceIndex());
+            stock = resultSet.getInt(rowMapper.getStockIndex());
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
 
+    /**
+     * Creates an ItemRowMapper for a ResultSet.
+     *
+     * @param resultSet the ResultSet being mapped
+     * @param mapsDeletedItems whether rows are mapped to DeletedItems
+     * @return an ItemRowMapper for the ResultSet
+     */
+    static ItemRowMapper createRowMapper(ResultSet resultSet, boolean mapsDeletedItems) {
         try {
-            id = resultSet.getInt(attributes[0].getName());
-            name = resultSet.getString(attributes[1].getName());
-            int price = resultSet.getInt((attributes[2].getName()));
-            this.price = new BigDecimal(price / 100 + "." + price % 100);
-            stock = resultSet.getInt(attributes[3].getName());
+            return new ItemRowMapper(resultSet.getMetaData(), mapsDeletedItems);
         } catch (SQLException e) {
             throw new RuntimeException(e);
         }
@@ -97,7 +143,18 @@ public class Item {
         this.name = name;
     }
 
+    /**
+     * Returns the price as a BigDecimal in dollars. A new BigDecimal is
+     * created for each call, so getPriceInCents should be preferred for
+     * comparisons and arithmetic.
+     *
+     * @return the price in dollars
+     */
     public BigDecimal getPrice() {
+        return BigDecimal.valueOf(price, 2);
+    }
+
+    public long getPriceInCents() {
         return price;
     }
 
@@ -108,13 +165,98 @@ public class Item {
      * @return bigDecimal price multiplied by 100
      */
     public BigDecimal getPriceTimes100() {
-        return price.scaleByPowerOfTen(2);
+        return BigDecimal.valueOf(price);
     }
 
+    /**
+     * Returns the price in the format dollars.cents (ex: 3.05).
+     *
+     * @return the price as a String
+     */
+    public String getPriceAsString() {
+        return formatCents(price);
+    }
+
+    /**
+     * Sets the price, rounding it to the nearest cent.
+     *
+     * @param priceAsDecimalString the price in the format dollars.cents
+     */
     public void setPrice(String priceAsDecimalString) {
-        double priceAsDouble = Double.parseDouble(priceAsDecimalString);
-        String priceAsDecimal = String.format("%.2f", priceAsDouble);
-        this.price = new BigDecimal(priceAsDecimal);
+        this.price = parseCents(priceAsDecimalString);
+    }
+
+    public void setPriceInCents(long priceInCents) {
+        this.price = priceInCents;
+    }
+
+    /**
+     * Converts a decimal price in dollars (ex: "3.05", "3.", ".5", "3") to
+     * cents. Digits past the cents are rounded half up.
+     *
+     * @param price the decimal price in dollars
+     * @return the price in cents
+     * @throws NumberFormatException if the price is not a decimal number
+     */
+    public static long parseCents(String price) {
+        int length = price.length();
+        int index = 0;
+        boolean isNegative = false;
+        if (length > 0 && (price.charAt(0) == '-' || price.charAt(0) == '+')) {
+            isNegative = price.charAt(0) == '-';
+            index++;
+        }
+
+        int numberOfDigits = 0;
+        long dollars = 0;
+        while (index < length && Character.isDigit(price.charAt(index))) {
+            dollars = Math.addExact(Math.multiplyExact(dollars, 10), price.charAt(index) - '0');
+            numberOfDigits++;
+            index++;
+        }
+
+        long cents = 0;
+        if (index < length && price.charAt(index) == '.') {
+            index++;
+            int numberOfDecimals = 0;
+            boolean roundUp = false;
+            while (index < length && Character.isDigit(price.charAt(index))) {
+                int digit = price.charAt(index) - '0';
+                if (numberOfDecimals < 2) {
+                    cents = cents * 10 + digit;
+                } else if (numberOfDecimals == 2) {
+                    roundUp = digit >= 5;
+                }
+                numberOfDecimals++;
+                index++;
+            }
+            if (numberOfDecimals == 1) {
+                cents *= 10;
+            }
+            if (roundUp) {
+                cents++;
+            }
+            numberOfDigits += numberOfDecimals;
+        }
+
+        if (index != length || numberOfDigits == 0) {
+            throw new NumberFormatException("Invalid price: " + price);
+        }
+        long priceInCents = Math.addExact(Math.multiplyExact(dollars, 100), cents);
+        return isNegative ? -priceInCents : priceInCents;
+    }
+
+    /**
+     * Formats a price in cents as dollars.cents (ex: 305 as "3.05").
+     *
+     * @param priceInCents the price in cents
+     * @return the price as a String
+     */
+    public static String formatCents(long priceInCents) {
+        long absoluteCents = Math.abs(priceInCents);
+        long cents = absoluteCents % 100;
+        String sign = priceInCents < 0 ? "-" : "";
+        return sign + (absoluteCents / 100) + (cents < 10 ? ".0" : ".") + cents;
     }
 
     public int getStock() {
@@ -149,11 +291,27 @@ public class Item {
         return new String[]{
                 String.valueOf(id),
                 name,
-                price.toString(),
+                formatCents(price),
                 String.valueOf(stock)
         };
     }
 
+    /**
+     * Returns the Item as a JSONObject in the format of items.json, with
+     * its id.
+     *
+     * @return the Item as a JSONObject
+     */
+    @SuppressWarnings("unchecked")
+    public JSONObject toJSONObject() {
+        JSONObject jsonItem = new JSONObject();
+        jsonItem.put("id", id);
+        jsonItem.put("name", name);
+        jsonItem.put("price", formatCents(price));
+        jsonItem.put("stock", stock);
+        return jsonItem;
+    }
+
     /**
      * Returns the values of all attributes as an SQL-formatted String.
      *
@@ -173,7 +331,7 @@ public class Item {
     public String getValuesInSQLFormatExceptId() {
         return String.join(", ",
                 getNameInQuotes(),
-                getPriceTimes100().toString(),
+                String.valueOf(price),
                 String.valueOf(stock));
     }
 
@@ -187,7 +345,7 @@ public class Item {
     public String getAttributeNameValueListExceptId() {
         return String.join(", ",
                 "name = " + getNameInQuotes(),
-                "price = " + getPriceTimes100().intValue(),
+                "price = " + price,
                 ("stock = " + stock));
     }
 
@@ -203,7 +361,7 @@ public class Item {
 
         return id == item.getId() &&
                 name.equals(item.getName()) &&
-                price.compareTo(item.getPrice()) == 0 &&
+                price == item.getPriceInCents() &&
                 stock == item.getStock();
     }
 
@@ -212,7 +370,7 @@ public class Item {
         return String.join(", ",
                 String.valueOf(id),
                 getNameInQuotes(),
-                price.toString(),
+                formatCents(price),
                 String.valueOf(stock));
     }
 }
@@ -0,0 +1,382 @@
+package model;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Locale;
+
+/**
+ * ItemExporter writes every row of a table to a CSV or JSON file. Rows are
+ * read from a single query and encoded straight from the ResultSet into a
+ * byte buffer, which is written to a FileChannel whenever it fills up, so
+ * no Item or String is created per row and memory use does not depend on
+ * the size of the table.
+ *
+ * Files are written in the formats read by ItemImporter: a CSV file starts
+ * with a header of the table's column names, and a JSON file is an object
+ * holding an array named after the table, like items.json. The file is
+ * written under a temporary name and only replaces the path once complete.
+ *
+ * @author Liam Tripp
+ */
+public class ItemExporter {
+
+    public final static int DEFAULT_BUFFER_SIZE = 256 * 1024;
+    /** the most bytes a character takes once escaped: a \\u00XX escape */
+    private final static int MAX_BYTES_PER_CHARACTER = 6;
+    private final static byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Format contains the file formats a table can be exported to.
+     */
+    public enum Format {
+        CSV,
+        JSON;
+
+        /**
+         * Returns the Format of a file from the end of its name, CSV unless
+         * it ends with .json.
+         *
+         * @param path the path of the file
+         * @return the Format of the file
+         */
+        public static Format forPath(Path path) {
+            String fileName = path.getFileName().toString().toLowerCase(Locale.ROOT);
+            return fileName.endsWith(".json") ? JSON : CSV;
+        }
+    }
+
+    private final Database database;
+    private final byte[] buffer;
+    private final ByteBuffer byteBuffer;
+    private int position;
+    private FileChannel fileChannel;
+    private Format format;
+    private String[] columnNames;
+    /** whether the table being exported has a comment column */
+    private boolean hasComment;
+    private long rows;
+    private long bytesWritten;
+
+    /**
+     * Constructor for ItemExporter.
+     *
+     * @param database the database the tables are exported from
+     * @param bufferSize the number of bytes written to the file at a time
+     */
+    public ItemExporter(Database database, int bufferSize) {
+        if (bufferSize < 64) {
+            throw new IllegalArgumentException("Buffer size must be at least 64 bytes.");
+        }
+        this.database = database;
+        buffer = new byte[bufferSize];
+        byteBuffer = ByteBuffer.wrap(buffer);
+    }
+
+    /**
+     * Writes every row of a table to a file, in order of id, replacing the
+     * file if it exists.
+     *
+     * @param table the table to be exported
+     * @param path the path of the file
+     * @param format the format of the file
+     * @return a summary of the export
+     */
+    public ExportReport exportTable(Table table, Path path, Format format) {
+        long startTime = System.nanoTime();
+        this.format = format;
+        columnNames = table.getColumnNames();
+        hasComment = table == Table.DELETED_ITEMS;
+        position = 0;
+        rows = 0;
+        bytesWritten = 0;
+        Path temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporaryPath, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            fileChannel = channel;
+            writeStart(table);
+            database.forEachRow(table, this::writeRow);
+            writeEnd();
+            flush();
+            fileChannel.force(false);
+        } catch (IOException e) {
+            deleteQuietly(temporaryPath);
+            throw new RuntimeException(e);
+        } catch (UncheckedIOException e) {
+            deleteQuietly(temporaryPath);
+            throw new RuntimeException(e.getCause());
+        } catch (RuntimeException e) {
+            deleteQuietly(temporaryPath);
+            throw e;
+        } finally {
+            fileChannel = null;
+        }
+        try {
+            Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            deleteQuietly(temporaryPath);
+            throw new RuntimeException(e);
+        }
+        return new ExportReport(rows, bytesWritten, System.nanoTime() - startTime);
+    }
+
+    /**
+     * Deletes a file, ignoring failures, after an export has failed.
+     *
+     * @param path the path of the file
+     */
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            System.err.println(path + " could not be deleted: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes what comes before the first row: the CSV header, or the start
+     * of the JSON object and its array.
+     *
+     * @param table the table being exported
+     */
+    private void writeStart(Table table) {
+        if (format == Format.CSV) {
+            writeASCII(String.join(",", columnNames));
+            writeByte('\n');
+        } else {
+            writeASCII("{\"" + table.getName() + "\": [");
+        }
+    }
+
+    /**
+     * Writes what comes after the last row.
+     */
+    private void writeEnd() {
+        if (format == Format.JSON) {
+            writeASCII(rows == 0 ? "]}\n" : "\n]}\n");
+        }
+    }
+
+    /**
+     * Writes the current row of a ResultSet. Text is read as UTF-8 bytes so
+     * that no String is created for it.
+     *
+     * @param resultSet the ResultSet positioned on the row
+     * @param rowMapper the positions of the row's columns
+     * @throws SQLException if the row cannot be read
+     */
+    private void writeRow(ResultSet resultSet, ItemRowMapper rowMapper) throws SQLException {
+        long id = resultSet.getLong(rowMapper.getIdIndex());
+        byte[] name = resultSet.getBytes(rowMapper.getNameIndex());
+        long price = resultSet.getLong(rowMapper.getPriceIndex());
+        long stock = resultSet.getLong(rowMapper.getStockIndex());
+        byte[] comment = null;
+        if (hasComment && rowMapper.getCommentIndex() != 0) {
+            comment = resultSet.getBytes(rowMapper.getCommentIndex());
+        }
+
+        if (format == Format.CSV) {
+            writeLong(id);
+            writeByte(',');
+            writeCSVText(name);
+            writeByte(',');
+            writeCents(price);
+            writeByte(',');
+            writeLong(stock);
+            if (hasComment) {
+                writeByte(',');
+                writeCSVText(comment);
+            }
+            writeByte('\n');
+        } else {
+            writeASCII(rows == 0 ? "\n{\"id\": " : ",\n{\"id\": ");
+            writeLong(id);
+            writeASCII(", \"name\": ");
+            writeJSONText(name);
+            writeASCII(", \"price\": \"");
+            writeCents(price);
+            writeASCII("\", \"stock\": ");
+            writeLong(stock);
+            if (hasComment) {
+                writeASCII(", \"comment\": ");
+                writeJSONText(comment);
+            }
+            writeByte('}');
+        }
+        rows++;
+    }
+
+    /**
+     * Writes the buffered bytes to the file.
+     */
+    private void flush() {
+        byteBuffer.clear().limit(position);
+        try {
+            while (byteBuffer.hasRemaining()) {
+                fileChannel.write(byteBuffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        bytesWritten += position;
+        position = 0;
+    }
+
+    /**
+     * Flushes the buffer unless it has room for a number of bytes.
+     *
+     * @param numberOfBytes the number of bytes about to be written
+     */
+    private void ensureCapacity(int numberOfBytes) {
+        if (position + numberOfBytes > buffer.length) {
+            flush();
+        }
+    }
+
+    private void writeByte(char character) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) character;
+    }
+
+    /**
+     * Writes text made only of ASCII characters.
+     *
+     * @param text the text to be written
+     */
+    private void writeASCII(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            writeByte(text.charAt(i));
+        }
+    }
+
+    /**
+     * Writes the decimal digits of a number.
+     *
+     * @param number the number to be written
+     */
+    private void writeLong(long number) {
+        ensureCapacity(20);
+        if (number < 0) {
+            buffer[position++] = '-';
+        } else {
+            number = -number;
+        }
+        // digits are computed from the negative number so that Long.MIN_VALUE is written correctly
+        int numberOfDigits = 1;
+        for (long remaining = number / 10; remaining != 0; remaining /= 10) {
+            numberOfDigits++;
+        }
+        int end = position + numberOfDigits;
+        for (int index = end - 1; index >= position; index--) {
+            buffer[index] = (byte) ('0' - (number % 10));
+            number /= 10;
+        }
+        position = end;
+    }
+
+    /**
+     * Writes a price in cents as dollars.cents, like Item.formatCents.
+     *
+     * @param priceInCents the price in cents
+     */
+    private void writeCents(long priceInCents) {
+        if (priceInCents < 0) {
+            writeByte('-');
+        }
+        long absoluteCents = Math.abs(priceInCents);
+        writeLong(absoluteCents / 100);
+        long cents = absoluteCents % 100;
+        ensureCapacity(3);
+        buffer[position++] = '.';
+        buffer[position++] = (byte) ('0' + cents / 10);
+        buffer[position++] = (byte) ('0' + cents % 10);
+    }
+
+    /**
+     * Writes UTF-8 text as a CSV field, quoting it if it contains a comma,
+     * quote or line break. A null value is written as an empty field.
+     *
+     * @param text the UTF-8 bytes of the text, may be null
+     */
+    private void writeCSVText(byte[] text) {
+        if (text == null) {
+            return;
+        }
+        boolean needsQuotes = false;
+        for (byte character : text) {
+            if (character == ',' || character == '"' || character == '\n' || character == '\r') {
+                needsQuotes = true;
+                break;
+            }
+        }
+        if (!needsQuotes) {
+            writeBytes(text);
+            return;
+        }
+        writeByte('"');
+        for (byte character : text) {
+            ensureCapacity(2);
+            if (character == '"') {
+                buffer[position++] = '"';
+            }
+            buffer[position++] = character;
+        }
+        writeByte('"');
+    }
+
+    /**
+     * Writes UTF-8 text as a JSON string, escaping quotes, backslashes and
+     * control characters. A null value is written as null.
+     *
+     * @param text the UTF-8 bytes of the text, may be null
+     */
+    private void writeJSONText(byte[] text) {
+        if (text == null) {
+            writeASCII("null");
+            return;
+        }
+        writeByte('"');
+        // the bytes of multi-byte UTF-8 characters are never below 0x80, so they are copied as they are
+        for (byte character : text) {
+            ensureCapacity(MAX_BYTES_PER_CHARACTER);
+            if (character == '"' || character == '\\') {
+                buffer[position++] = '\\';
+                buffer[position++] = character;
+            } else if (character >= 0 && character < 0x20) {
+                buffer[position++] = '\\';
+                buffer[position++] = 'u';
+                buffer[position++] = '0';
+                buffer[position++] = '0';
+                buffer[position++] = HEX_DIGITS[character >> 4];
+                buffer[position++] = HEX_DIGITS[character & 0xF];
+            } else {
+                buffer[position++] = character;
+            }
+        }
+        writeByte('"');
+    }
+
+    /**
+     * Writes bytes as they are.
+     *
+     * @param bytes the bytes to be written
+     */
+    private void writeBytes(byte[] bytes) {
+        int offset = 0;
+        while (offset < bytes.length) {
+            ensureCapacity(1);
+            int length = Math.min(bytes.length - offset, buffer.length - position);
+            System.arraycopy(bytes, offset, buffer, position, length);
+            position += length;
+            offset += length;
+        }
+    }
+}
@@ -0,0 +1,580 @@
+package model;
+
+import org.json.simple.parser.ContentHandler;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+import org.sqlite.SQLiteErrorCode;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * ItemImporter inserts the Items of a JSON or CSV file into the ITEMS table
+ * without reading the whole file into memory. The file is parsed as a
+ * stream and its rows are inserted in batches, each in its own transaction,
+ * so only one batch of Items is held at a time however large the file is.
+ *
+ * A JSON file contains objects with a name, price and stock, either in a
+ * top-level array or in an array such as the "items" array of items.json.
+ * A CSV file starts with a header naming its columns, of which name, price
+ * and stock are imported and the rest are ignored.
+ *
+ * Rows that are invalid are reported with their line (CSV) or item (JSON)
+ * number and skipped, without stopping the import. An ItemImporter imports
+ * one file at a time.
+ *
+ * @author Liam Tripp
+ */
+public class ItemImporter {
+
+    public final static int DEFAULT_BATCH_SIZE = 10_000;
+    /** the number of errors kept in the report; the rest are only counted */
+    public final static int MAX_REPORTED_ERRORS = 100;
+    public final static long DEFAULT_PROGRESS_INTERVAL_MILLIS = 1000;
+    private final static int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final Database database;
+    private final int batchSize;
+    private final Consumer<String> progress;
+    private long progressIntervalNanos;
+    private final List<Item> batch;
+    /** the line or item number of each Item in the batch, used to report the rows a batch rejects */
+    private final List<String> batchRowNames;
+    private List<String> errors;
+    private int rowsImported;
+    private int rowsRejected;
+    private int batches;
+    private long startTime;
+    private long lastProgressTime;
+    /** whether the database failed for a reason other than a row, which stops the import */
+    private boolean stopped;
+
+    /**
+     * Constructor for ItemImporter.
+     *
+     * @param database the database the Items are inserted into
+     * @param batchSize the number of Items inserted per transaction
+     * @param progress receives a line describing the progress of the import
+     *                 at most once per progress interval, may be null
+     */
+    public ItemImporter(Database database, int batchSize, Consumer<String> progress) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive.");
+        }
+        this.database = database;
+        this.batchSize = batchSize;
+        this.progress = progress == null ? line -> {} : progress;
+        setProgressIntervalMillis(DEFAULT_PROGRESS_INTERVAL_MILLIS);
+        batch = new ArrayList<>(batchSize);
+        batchRowNames = new ArrayList<>(batchSize);
+    }
+
+    /**
+     * Sets the minimum time between two reports of the import's progress.
+     * Progress is only reported once a batch has been inserted.
+     *
+     * @param progressIntervalMillis the interval in milliseconds. If it is 0,
+     *                               progress is reported after every batch
+     */
+    public void setProgressIntervalMillis(long progressIntervalMillis) {
+        if (progressIntervalMillis < 0) {
+            throw new IllegalArgumentException("Progress interval cannot be negative.");
+        }
+        progressIntervalNanos = progressIntervalMillis * 1_000_000;
+    }
+
+    /**
+     * Imports the Items of a file, which is read as JSON if its name ends
+     * with .json and as CSV if it ends with .csv.
+     *
+     * @param path the path of the file
+     * @return a summary of the import
+     * @throws IllegalArgumentException if the file is neither JSON nor CSV
+     */
+    public ImportReport importFile(Path path) {
+        String fileName = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        boolean isJSON = fileName.endsWith(".json");
+        if (!isJSON && !fileName.endsWith(".csv")) {
+            throw new IllegalArgumentException("File type must be .json or .csv");
+        }
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return isJSON ? importJSON(reader) : importCSV(reader);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Imports the Items of a JSON document. A malformed document, or one that
+     * cannot be read, stops the import, keeping the Items read before the
+     * error.
+     *
+     * @param reader the reader the document is read from
+     * @return a summary of the import
+     */
+    public ImportReport importJSON(Reader reader) {
+        start();
+        ItemHandler itemHandler = new ItemHandler();
+        try {
+            new JSONParser().parse(reader, itemHandler);
+        } catch (ParseException e) {
+            // the error is either within the current item or before the next one
+            int itemNumber = itemHandler.itemDepth == 0 ? itemHandler.itemNumber + 1 : itemHandler.itemNumber;
+            reportError("Item " + itemNumber, "malformed JSON at character " + e.getPosition() + ", import stopped");
+        } catch (IOException e) {
+            reportError("Item " + (itemHandler.itemNumber + 1), describeReadError(e));
+        }
+        return finish();
+    }
+
+    /**
+     * Imports the Items of a CSV document whose first line is a header.
+     * Fields may be quoted with '"', in which case they may contain commas,
+     * line breaks and quotes written as '""'. Blank lines are skipped. A
+     * document that cannot be read stops the import, keeping the Items read
+     * before the error.
+     *
+     * @param reader the reader the document is read from
+     * @return a summary of the import
+     */
+    public ImportReport importCSV(Reader reader) {
+        start();
+        CSVReader csvReader = new CSVReader(reader);
+        try {
+            List<String> header = csvReader.readRecord();
+            int nameIndex = header == null ? -1 : indexOfColumn(header, "name");
+            int priceIndex = header == null ? -1 : indexOfColumn(header, "price");
+            int stockIndex = header == null ? -1 : indexOfColumn(header, "stock");
+            if (nameIndex < 0 || priceIndex < 0 || stockIndex < 0) {
+                reportError("Line 1", "the header must name the columns name, price and stock");
+                return finish();
+            }
+
+            int lastIndex = Math.max(nameIndex, Math.max(priceIndex, stockIndex));
+            List<String> fields;
+            while (!stopped && (fields = csvReader.readRecord()) != null) {
+                String rowName = "Line " + csvReader.recordLineNumber;
+                if (fields.size() == 1 && fields.get(0).isBlank()) {
+                    continue;
+                }
+                if (csvReader.hasUnterminatedQuote) {
+                    reportError(rowName, "a quoted field is not closed");
+                } else if (fields.size() <= lastIndex) {
+                    reportError(rowName, "expected at least " + (lastIndex + 1) + " fields but found " +
+                            fields.size());
+                } else {
+                    addRow(rowName, fields.get(nameIndex), fields.get(priceIndex), fields.get(stockIndex));
+                }
+            }
+        } catch (IOException e) {
+            reportError("Line " + csvReader.lineNumber, describeReadError(e));
+        }
+        return finish();
+    }
+
+    /**
+     * Describes an error that stopped a document from being read. The
+     * characters of the read that failed are lost, so the Items kept are
+     * those read up to a few thousand lines before the error.
+     *
+     * @param e the error
+     * @return the reason the import stopped
+     */
+    private static String describeReadError(IOException e) {
+        if (e instanceof CharacterCodingException) {
+            return "the rest of the file is not valid UTF-8, import stopped";
+        }
+        return "the rest of the file could not be read (" + e.getMessage() + "), import stopped";
+    }
+
+    /**
+     * Returns the index of a column in a CSV header, ignoring case and
+     * surrounding whitespace.
+     *
+     * @param header the names of the columns
+     * @param columnName the name of the column
+     * @return the index of the column, -1 if it is not in the header
+     */
+    private static int indexOfColumn(List<String> header, String columnName) {
+        for (int i = 0; i < header.size(); i++) {
+            if (header.get(i).trim().equalsIgnoreCase(columnName)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Resets the counts for a new import.
+     */
+    private void start() {
+        batch.clear();
+        batchRowNames.clear();
+        errors = new ArrayList<>();
+        rowsImported = 0;
+        rowsRejected = 0;
+        batches = 0;
+        stopped = false;
+        startTime = System.nanoTime();
+        lastProgressTime = startTime;
+    }
+
+    /**
+     * Inserts the last batch and summarizes the import.
+     *
+     * @return a summary of the import
+     */
+    private ImportReport finish() {
+        insertBatch();
+        return new ImportReport(rowsImported, rowsRejected, batches, System.nanoTime() - startTime,
+                List.copyOf(errors));
+    }
+
+    /**
+     * Validates a row and adds it to the batch, inserting the batch once it
+     * is full. The checks match the constraints of the ITEMS table so that
+     * invalid rows rarely reach the database.
+     *
+     * @param rowName the line or item number of the row
+     * @param name the name of the Item
+     * @param price the price of the Item in dollars, a String or a Number
+     * @param stock the stock of the Item, a String or a Number
+     */
+    private void addRow(String rowName, Object name, Object price, Object stock) {
+        if (name == null || name.toString().isBlank()) {
+            reportRejectedRow(rowName, "name is missing");
+            return;
+        }
+        if (!(name instanceof String)) {
+            reportRejectedRow(rowName, "name '" + name + "' is not text");
+            return;
+        }
+        if (price == null || price.toString().isBlank()) {
+            reportRejectedRow(rowName, "price is missing");
+            return;
+        }
+        if (stock == null || stock.toString().isBlank()) {
+            reportRejectedRow(rowName, "stock is missing");
+            return;
+        }
+
+        long priceInCents;
+        try {
+            priceInCents = Item.parseCents(price instanceof Double ?
+                    BigDecimal.valueOf((Double) price).toPlainString() : price.toString().trim());
+        } catch (NumberFormatException e) {
+            reportRejectedRow(rowName, "price '" + price + "' is not a decimal number");
+            return;
+        }
+        int stockAsInt;
+        try {
+            stockAsInt = Integer.parseInt(stock.toString().trim());
+        } catch (NumberFormatException e) {
+            reportRejectedRow(rowName, "stock '" + stock + "' is not a whole number");
+            return;
+        }
+        if (priceInCents < 0) {
+            reportRejectedRow(rowName, "price cannot be negative");
+            return;
+        }
+        if (stockAsInt < 0) {
+            reportRejectedRow(rowName, "stock cannot be negative");
+            return;
+        }
+
+        batch.add(new Item(-1, ((String) name).strip(), priceInCents, stockAsInt));
+        batchRowNames.add(rowName);
+        if (batch.size() == batchSize) {
+            insertBatch();
+        }
+    }
+
+    /**
+     * Inserts the batch in a single transaction and reports progress if
+     * enough time has passed since it was last reported.
+     */
+    private void insertBatch() {
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (!stopped) {
+            insertRows(0, batch.size());
+        }
+        batch.clear();
+        batchRowNames.clear();
+        if (stopped) {
+            return;
+        }
+        batches++;
+
+        long now = System.nanoTime();
+        if (now - lastProgressTime >= progressIntervalNanos) {
+            lastProgressTime = now;
+            progress.accept(String.format("Imported %d rows (%d rejected), %.0f rows/s",
+                    rowsImported, rowsRejected, rowsImported / ((now - startTime) / 1_000_000_000.0)));
+        }
+    }
+
+    /**
+     * Inserts a range of the batch in a single transaction. If a constraint
+     * rejects it, each half is inserted on its own, so that only the rows
+     * the database rejects are skipped at the cost of a few transactions
+     * per rejected row. Any other failure, such as a full disk, is not
+     * caused by a row, so it stops the import instead.
+     *
+     * @param fromIndex the index of the first row, inclusive
+     * @param toIndex the index of the last row, exclusive
+     */
+    private void insertRows(int fromIndex, int toIndex) {
+        if (stopped) {
+            return;
+        }
+        try {
+            database.bulkInsert(batch.subList(fromIndex, toIndex));
+            rowsImported += toIndex - fromIndex;
+        } catch (RuntimeException e) {
+            Throwable cause = e.getCause() == null ? e : e.getCause();
+            if (!isConstraintViolation(cause)) {
+                stopped = true;
+                reportError(batchRowNames.get(fromIndex), "the database failed (" + cause.getMessage() +
+                        "), import stopped");
+                return;
+            }
+            if (toIndex - fromIndex == 1) {
+                reportRejectedRow(batchRowNames.get(fromIndex), cause.getMessage());
+                return;
+            }
+            int middleIndex = (fromIndex + toIndex) >>> 1;
+            insertRows(fromIndex, middleIndex);
+            insertRows(middleIndex, toIndex);
+        }
+    }
+
+    /**
+     * Indicates whether a failure to insert was caused by a constraint, such
+     * as a CHECK or a trigger raising an error, which rejects particular rows.
+     *
+     * @param cause the cause of the failure
+     * @return true if a constraint was violated, false otherwise
+     */
+    private static boolean isConstraintViolation(Throwable cause) {
+        // extended result codes, such as SQLITE_CONSTRAINT_TRIGGER, keep the primary code in their low byte
+        return cause instanceof SQLException sqlException &&
+                (sqlException.getErrorCode() & 0xFF) == SQLiteErrorCode.SQLITE_CONSTRAINT.code;
+    }
+
+    /**
+     * Counts a rejected row and reports why it was rejected.
+     *
+     * @param rowName the line or item number of the row
+     * @param reason the reason the row was rejected
+     */
+    private void reportRejectedRow(String rowName, String reason) {
+        rowsRejected++;
+        reportError(rowName, reason);
+    }
+
+    /**
+     * Keeps an error for the report unless MAX_REPORTED_ERRORS have been kept.
+     *
+     * @param rowName the line or item number the error was found at
+     * @param reason the description of the error
+     */
+    private void reportError(String rowName, String reason) {
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(rowName + ": " + reason);
+        }
+    }
+
+    /**
+     * ItemHandler receives the tokens of a JSON document as it is parsed and
+     * adds each object found directly in an array as a row. Values nested
+     * within such an object are ignored.
+     */
+    private class ItemHandler implements ContentHandler {
+
+        /** whether each open container is an array (true) or an object (false) */
+        private final Deque<Boolean> containers = new ArrayDeque<>();
+        private final Map<String, Object> values = new HashMap<>();
+        /** the number of open containers when the current item was opened, 0 outside of an item */
+        private int itemDepth;
+        private int itemNumber;
+        private String key;
+
+        @Override
+        public void startJSON() {
+        }
+
+        @Override
+        public void endJSON() {
+        }
+
+        @Override
+        public boolean startObject() {
+            boolean isInArray = Boolean.TRUE.equals(containers.peek());
+            containers.push(false);
+            if (itemDepth == 0 && isInArray) {
+                itemDepth = containers.size();
+                itemNumber++;
+                values.clear();
+            }
+            return true;
+        }
+
+        @Override
+        public boolean endObject() {
+            if (containers.size() == itemDepth) {
+                itemDepth = 0;
+                addRow("Item " + itemNumber, values.get("name"), values.get("price"), values.get("stock"));
+            }
+            containers.pop();
+            // parsing ends once the import is stopped
+            return !stopped;
+        }
+
+        @Override
+        public boolean startObjectEntry(String key) {
+            if (containers.size() == itemDepth) {
+                this.key = key;
+            }
+            return true;
+        }
+
+        @Override
+        public boolean endObjectEntry() {
+            if (containers.size() == itemDepth) {
+                key = null;
+            }
+            return true;
+        }
+
+        @Override
+        public boolean startArray() {
+            containers.push(true);
+            return true;
+        }
+
+        @Override
+        public boolean endArray() {
+            containers.pop();
+            return true;
+        }
+
+        @Override
+        public boolean primitive(Object value) {
+            if (key != null && containers.size() == itemDepth) {
+                values.put(key, value);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * CSVReader splits a CSV document into records, reading it through a
+     * buffer of its own.
+     */
+    private static class CSVReader {
+
+        private final Reader reader;
+        private final char[] buffer = new char[READ_BUFFER_SIZE];
+        private final StringBuilder field = new StringBuilder();
+        private int position;
+        private int limit;
+        private int lineNumber = 1;
+        /** the line the most recently read record started on */
+        private int recordLineNumber;
+        /** whether the most recently read record ended inside a quoted field */
+        private boolean hasUnterminatedQuote;
+
+        /**
+         * Constructor for CSVReader.
+         *
+         * @param reader the reader the document is read from
+         */
+        CSVReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        /**
+         * Returns the next character of the document.
+         *
+         * @return the next character, -1 at the end of the document
+         * @throws IOException if the document cannot be read
+         */
+        private int read() throws IOException {
+            if (position == limit) {
+                limit = reader.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return -1;
+                }
+            }
+            return buffer[position++];
+        }
+
+        /**
+         * Reads the fields of the next record.
+         *
+         * @return the fields of the record, null at the end of the document
+         * @throws IOException if the document cannot be read
+         */
+        List<String> readRecord() throws IOException {
+            int character = read();
+            if (character == -1) {
+                return null;
+            }
+            recordLineNumber = lineNumber;
+            hasUnterminatedQuote = false;
+            List<String> fields = new ArrayList<>();
+            field.setLength(0);
+            boolean isQuoted = false;
+            while (true) {
+                if (isQuoted) {
+                    if (character == -1) {
+                        hasUnterminatedQuote = true;
+                        fields.add(field.toString());
+                        return fields;
+                    }
+                    if (character == '"') {
+                        character = read();
+                        if (character != '"') {
+                            // the closing quote; the character after it is read as unquoted
+                            isQuoted = false;
+                            continue;
+                        }
+                    } else if (character == '\n') {
+                        lineNumber++;
+                    }
+                    field.append((char) character);
+                } else if (character == -1 || character == '\n') {
+                    lineNumber++;
+                    fields.add(field.toString());
+                    return fields;
+                } else if (character == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (character == '"' && field.isEmpty()) {
+                    isQuoted = true;
+                } else if (character != '\r') {
+                    field.append((char) character);
+                }
+                character = read();
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package model;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ * ItemRowMapper creates Items and DeletedItems from the rows of a ResultSet.
+ * The position of each column is resolved once from the ResultSet's
+ * metadata, so each row is read with positional getters.
+ *
+ * @author Liam Tripp
+ */
+public class ItemRowMapper implements RowMapper<Item> {
+
+    /** column positions start at 1; 0 indicates the column is absent */
+    private int idIndex;
+    private int nameIndex;
+    private int priceIndex;
+    private int stockIndex;
+    private int commentIndex;
+    private final boolean mapsDeletedItems;
+
+    /**
+     * Constructor for ItemRowMapper.
+     *
+     * @param metaData the metadata of the ResultSet being mapped
+     * @param mapsDeletedItems whether rows are mapped to DeletedItems
+     * @throws SQLException if the metadata cannot be read
+     */
+    public ItemRowMapper(ResultSetMetaData metaData, boolean mapsDeletedItems) throws SQLException {
+        this.mapsDeletedItems = mapsDeletedItems;
+        for (int column = 1; column <= metaData.getColumnCount(); column++) {
+            switch (metaData.getColumnLabel(column).toLowerCase()) {
+                case "id" -> idIndex = column;
+                case "name" -> nameIndex = column;
+                case "price" -> priceIndex = column;
+                case "stock" -> stockIndex = column;
+                case "comment" -> commentIndex = column;
+                default -> { } // columns that are not attributes of Item are ignored
+            }
+        }
+        if (idIndex == 0 || nameIndex == 0 || priceIndex == 0 || stockIndex == 0) {
+            throw new SQLException("ResultSet does not contain the columns of an Item.");
+        }
+    }
+
+    /**
+     * Returns an ItemRowMapper for a ResultSet selected from a table.
+     *
+     * @param resultSet the ResultSet being mapped
+     * @param table the table the rows were selected from
+     * @return an ItemRowMapper for the ResultSet
+     * @throws SQLException if the metadata cannot be read
+     */
+    public static ItemRowMapper forTable(ResultSet resultSet, Table table) throws SQLException {
+        return new ItemRowMapper(resultSet.getMetaData(), table == Table.DELETED_ITEMS);
+    }
+
+    public int getIdIndex() {
+        return idIndex;
+    }
+
+    public int getNameIndex() {
+        return nameIndex;
+    }
+
+    public int getPriceIndex() {
+        return priceIndex;
+    }
+
+    public int getStockIndex() {
+        return stockIndex;
+    }
+
+    public int getCommentIndex() {
+        return commentIndex;
+    }
+
+    @Override
+    public Item mapRow(ResultSet resultSet) throws SQLException {
+        if (mapsDeletedItems) {
+            return new DeletedItem(resultSet, this);
+        }
+        return new Item(resultSet, this);
+    }
+}
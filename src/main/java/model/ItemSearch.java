@@ -0,0 +1,116 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ItemSearch contains the filters used to search the ITEMS table. Each
+ * filter is optional and is left null when it is not used. Every filter
+ * that is used must match for an Item to be found.
+ *
+ * Each filter is served by an index created in DDL.sql, so a search seeks
+ * to the matching rows instead of scanning the whole table.
+ *
+ * @param namePrefix the start of the names to be found, ignoring case
+ * @param minPriceInCents the lowest price to be found, in cents
+ * @param maxPriceInCents the highest price to be found, in cents
+ * @param minStock the lowest stock to be found
+ * @param maxStock the highest stock to be found
+ * @author Liam Tripp
+ */
+public record ItemSearch(String namePrefix, Long minPriceInCents, Long maxPriceInCents,
+                         Integer minStock, Integer maxStock) {
+
+    /**
+     * Indicates whether the search has no filters, in which case it would
+     * find every Item.
+     *
+     * @return true if no filter is used, false otherwise
+     */
+    public boolean isEmpty() {
+        return (namePrefix == null || namePrefix.isEmpty()) && minPriceInCents == null &&
+                maxPriceInCents == null && minStock == null && maxStock == null;
+    }
+
+    /**
+     * Returns a SELECT statement for the Items matching the search, with a
+     * '?' for each value returned by getParameters followed by one for the
+     * maximum number of rows.
+     *
+     * A name prefix is matched as a range of names, from the prefix up to the
+     * prefix with its last character incremented, so that SQLite can seek
+     * through the NOCASE index on name. LIKE would only use the index if the
+     * column itself were declared NOCASE.
+     *
+     * @return the SELECT statement for the search
+     */
+    public String getSQL() {
+        List<String> conditions = new ArrayList<>();
+        if (namePrefix != null && !namePrefix.isEmpty()) {
+            conditions.add("name >= ? COLLATE NOCASE");
+            conditions.add("name < ? COLLATE NOCASE");
+        }
+        if (minPriceInCents != null) {
+            conditions.add("price >= ?");
+        }
+        if (maxPriceInCents != null) {
+            conditions.add("price <= ?");
+        }
+        if (minStock != null) {
+            conditions.add("stock >= ?");
+        }
+        if (maxStock != null) {
+            conditions.add("stock <= ?");
+        }
+        String whereClause = conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+        return "SELECT * FROM " + Table.ITEMS.getName() + whereClause + " LIMIT ?";
+    }
+
+    /**
+     * Returns the values bound to the parameters of getSQL, in order,
+     * excluding the maximum number of rows.
+     *
+     * @return the values of the search's filters
+     */
+    public List<Object> getParameters() {
+        List<Object> parameters = new ArrayList<>();
+        if (namePrefix != null && !namePrefix.isEmpty()) {
+            // NOCASE only folds ASCII letters, so the bounds are folded the same way
+            String lowerBound = toLowerCaseASCII(namePrefix);
+            int lastIndex = lowerBound.length() - 1;
+            String upperBound = lowerBound.substring(0, lastIndex) + (char) (lowerBound.charAt(lastIndex) + 1);
+            parameters.add(lowerBound);
+            parameters.add(upperBound);
+        }
+        if (minPriceInCents != null) {
+            parameters.add(minPriceInCents);
+        }
+        if (maxPriceInCents != null) {
+            parameters.add(maxPriceInCents);
+        }
+        if (minStock != null) {
+            parameters.add(minStock);
+        }
+        if (maxStock != null) {
+            parameters.add(maxStock);
+        }
+        return parameters;
+    }
+
+    /**
+     * Converts the ASCII letters A-Z of a String to lower case, leaving
+     * every other character as it is, the way SQLite's NOCASE does.
+     *
+     * @param text the String to convert
+     * @return the String with its ASCII letters in lower case
+     */
+    private static String toLowerCaseASCII(String text) {
+        char[] characters = text.toCharArray();
+        for (int i = 0; i < characters.length; i++) {
+            if (characters[i] >= 'A' && characters[i] <= 'Z') {
+                characters[i] += 'a' - 'A';
+            }
+        }
+        return new String(characters);
+    }
+}
@@ -0,0 +1,178 @@
+package model;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LatencyHistogram counts how long an operation takes and how many rows it
+ * touches. Latencies are counted in buckets whose width grows with the
+ * latency, so that every percentile is reported within 1/16 (about 6%) of
+ * its true value using a fixed amount of memory.
+ *
+ * LatencyHistogram is lock-free: recording only increments counters, so
+ * many threads can record at once without waiting for one another.
+ *
+ * @author Liam Tripp
+ */
+public class LatencyHistogram {
+
+    /** the number of bits of a latency kept by its bucket */
+    private final static int SUB_BUCKET_BITS = 4;
+    private final static int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    /** enough buckets for every non-negative long */
+    private final static int NUMBER_OF_BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets;
+    private final LongAdder totalNanos;
+    private final LongAdder rows;
+    private final AtomicLong maxNanos;
+
+    /**
+     * Statistics contains the counts and percentiles of a LatencyHistogram.
+     *
+     * @param count the number of operations recorded
+     * @param rows the number of rows touched by the operations
+     * @param totalNanos the total time taken by the operations
+     * @param p50Nanos the median time taken
+     * @param p90Nanos the 90th percentile of the time taken
+     * @param p99Nanos the 99th percentile of the time taken
+     * @param maxNanos the longest time taken
+     */
+    public record Statistics(long count, long rows, long totalNanos,
+                             long p50Nanos, long p90Nanos, long p99Nanos, long maxNanos) {
+
+        /**
+         * Returns the average time taken by an operation, in microseconds.
+         *
+         * @return the average time taken, 0 if nothing was recorded
+         */
+        public double getAverageMicros() {
+            return count == 0 ? 0 : totalNanos / 1_000.0 / count;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("count %d, rows %d, average %.1f us, " +
+                            "p50 %.1f us, p90 %.1f us, p99 %.1f us, max %.1f us",
+                    count, rows, getAverageMicros(), p50Nanos / 1_000.0,
+                    p90Nanos / 1_000.0, p99Nanos / 1_000.0, maxNanos / 1_000.0);
+        }
+    }
+
+    /**
+     * Constructor for LatencyHistogram.
+     */
+    public LatencyHistogram() {
+        buckets = new AtomicLongArray(NUMBER_OF_BUCKETS);
+        totalNanos = new LongAdder();
+        rows = new LongAdder();
+        maxNanos = new AtomicLong();
+    }
+
+    /**
+     * Records one operation.
+     *
+     * @param nanos the time taken by the operation, in nanoseconds
+     * @param numberOfRows the number of rows read or changed by the operation
+     */
+    public void record(long nanos, long numberOfRows) {
+        nanos = Math.max(0, nanos);
+        buckets.incrementAndGet(getBucketIndex(nanos));
+        totalNanos.add(nanos);
+        if (numberOfRows > 0) {
+            rows.add(numberOfRows);
+        }
+        if (nanos > maxNanos.get()) {
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+    }
+
+    /**
+     * Returns the index of the bucket counting a latency. Latencies below
+     * SUB_BUCKETS have a bucket each; larger ones share a bucket with the
+     * latencies that have the same highest SUB_BUCKET_BITS + 1 bits.
+     *
+     * @param nanos a non-negative latency
+     * @return the index of its bucket
+     */
+    static int getBucketIndex(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) nanos;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Returns the largest latency counted by a bucket.
+     *
+     * @param index the index of the bucket
+     * @return the largest latency in the bucket
+     */
+    static long getBucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long lowerBound = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lowerBound + (1L << shift) - 1;
+    }
+
+    /**
+     * Returns the counts and percentiles recorded so far. Operations recorded
+     * while the statistics are being read may be partially included.
+     *
+     * @return the statistics of the histogram
+     */
+    public Statistics getStatistics() {
+        long[] counts = new long[NUMBER_OF_BUCKETS];
+        long count = 0;
+        for (int i = 0; i < NUMBER_OF_BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            count += counts[i];
+        }
+        long max = maxNanos.get();
+        return new Statistics(count, rows.sum(), totalNanos.sum(),
+                getPercentile(counts, count, 0.50, max),
+                getPercentile(counts, count, 0.90, max),
+                getPercentile(counts, count, 0.99, max), max);
+    }
+
+    /**
+     * Returns a percentile of the latencies in the buckets.
+     *
+     * @param counts the count of each bucket
+     * @param count the sum of the counts
+     * @param percentile the percentile, between 0 and 1
+     * @param max the largest latency recorded
+     * @return the upper bound of the bucket containing the percentile, at most max
+     */
+    private static long getPercentile(long[] counts, long count, double percentile, long max) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(count * percentile);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(getBucketUpperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Discards everything recorded so far.
+     */
+    public void reset() {
+        for (int i = 0; i < NUMBER_OF_BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        totalNanos.reset();
+        rows.reset();
+        maxNanos.set(0);
+    }
+}
@@ -0,0 +1,38 @@
+package model;
+
+/**
+ * LoadReport describes the outcome of a bulk load into the Database.
+ *
+ * @param rows the number of rows loaded
+ * @param elapsedNanos the time taken to load the rows, in nanoseconds
+ * @author Liam Tripp
+ */
+public record LoadReport(int rows, long elapsedNanos) {
+
+    /**
+     * Returns the number of rows loaded per second.
+     *
+     * @return the number of rows loaded per second
+     */
+    public double getRowsPerSecond() {
+        if (elapsedNanos == 0) {
+            return rows;
+        }
+        return rows / (elapsedNanos / 1_000_000_000.0);
+    }
+
+    /**
+     * Returns the time taken to load the rows, in milliseconds.
+     *
+     * @return the time taken to load the rows, in milliseconds
+     */
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Loaded %d rows in %d ms (%.0f rows/s)",
+                rows, getElapsedMillis(), getRowsPerSecond());
+    }
+}
@@ -0,0 +1,203 @@
+package model;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Metrics records how often each command and SQL operation is performed,
+ * how long it takes and how many rows it touches, in a LatencyHistogram per
+ * command or operation. Recording is lock-free.
+ *
+ * Components that keep statistics of their own, such as the group commit
+ * writer, may add them by name, so that they are read along with the
+ * commands and SQL operations while the program runs.
+ *
+ * @author Liam Tripp
+ */
+public class Metrics implements MetricsMXBean {
+
+    /** the name under which the Metrics of the application are registered with JMX */
+    public final static String OBJECT_NAME = "crudapp:type=Metrics";
+
+    private final ConcurrentMap<String, LatencyHistogram> commands;
+    private final ConcurrentMap<String, LatencyHistogram> sqlOperations;
+    private final ConcurrentMap<String, Supplier<?>> componentStatistics;
+
+    /**
+     * Constructor for Metrics.
+     */
+    public Metrics() {
+        commands = new ConcurrentHashMap<>();
+        sqlOperations = new ConcurrentHashMap<>();
+        componentStatistics = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Records a command performed by a user.
+     *
+     * @param commandName the name of the command
+     * @param nanos the time taken by the command, in nanoseconds
+     */
+    public void recordCommand(String commandName, long nanos) {
+        getHistogram(commands, commandName).record(nanos, 0);
+    }
+
+    /**
+     * Records an SQL operation performed by the Database.
+     *
+     * @param operationName the name of the operation
+     * @param nanos the time taken by the operation, in nanoseconds
+     * @param rows the number of rows read or changed by the operation
+     */
+    public void recordSQLOperation(String operationName, long nanos, long rows) {
+        getHistogram(sqlOperations, operationName).record(nanos, rows);
+    }
+
+    /**
+     * Adds the statistics of a component, which are read each time the
+     * Metrics are, replacing any added before under the same name.
+     *
+     * @param componentName the name of the component
+     * @param statistics supplies the component's current statistics
+     */
+    public void addComponentStatistics(String componentName, Supplier<?> statistics) {
+        componentStatistics.put(componentName, statistics);
+    }
+
+    /**
+     * Returns the histogram of a name, creating it the first time it is used.
+     *
+     * @param histograms the histograms keyed by name
+     * @param name the name of the command or operation
+     * @return the histogram of the name
+     */
+    private static LatencyHistogram getHistogram(ConcurrentMap<String, LatencyHistogram> histograms, String name) {
+        LatencyHistogram histogram = histograms.get(name);
+        if (histogram == null) {
+            histogram = histograms.computeIfAbsent(name, key -> new LatencyHistogram());
+        }
+        return histogram;
+    }
+
+    /**
+     * Returns the statistics of each command recorded, sorted by name.
+     *
+     * @return the statistics of each command
+     */
+    public Map<String, LatencyHistogram.Statistics> getCommands() {
+        return getStatistics(commands);
+    }
+
+    /**
+     * Returns the statistics of each SQL operation recorded, sorted by name.
+     *
+     * @return the statistics of each SQL operation
+     */
+    public Map<String, LatencyHistogram.Statistics> getSQLOperations() {
+        return getStatistics(sqlOperations);
+    }
+
+    /**
+     * Returns the current statistics of each component added, sorted by name.
+     *
+     * @return the statistics of each component
+     */
+    public Map<String, Object> getComponents() {
+        Map<String, Object> statistics = new TreeMap<>();
+        componentStatistics.forEach((name, supplier) -> statistics.put(name, supplier.get()));
+        return statistics;
+    }
+
+    /**
+     * Returns the statistics of each histogram that has recorded something,
+     * sorted by name.
+     *
+     * @param histograms the histograms keyed by name
+     * @return the statistics of each histogram
+     */
+    private static Map<String, LatencyHistogram.Statistics> getStatistics(Map<String, LatencyHistogram> histograms) {
+        Map<String, LatencyHistogram.Statistics> statistics = new TreeMap<>();
+        histograms.forEach((name, histogram) -> {
+            LatencyHistogram.Statistics histogramStatistics = histogram.getStatistics();
+            if (histogramStatistics.count() > 0) {
+                statistics.put(name, histogramStatistics);
+            }
+        });
+        return statistics;
+    }
+
+    @Override
+    public Map<String, String> getCommandStatistics() {
+        return toStrings(getCommands());
+    }
+
+    @Override
+    public Map<String, String> getSQLOperationStatistics() {
+        return toStrings(getSQLOperations());
+    }
+
+    @Override
+    public Map<String, String> getComponentStatistics() {
+        Map<String, String> strings = new TreeMap<>();
+        getComponents().forEach((name, statistics) -> strings.put(name, String.valueOf(statistics)));
+        return strings;
+    }
+
+    /**
+     * Returns a copy of a map of statistics with each one as a String.
+     *
+     * @param statistics the statistics keyed by name
+     * @return the statistics as Strings keyed by name
+     */
+    private static Map<String, String> toStrings(Map<String, LatencyHistogram.Statistics> statistics) {
+        Map<String, String> strings = new TreeMap<>();
+        statistics.forEach((name, histogramStatistics) -> strings.put(name, histogramStatistics.toString()));
+        return strings;
+    }
+
+    @Override
+    public void reset() {
+        commands.values().forEach(LatencyHistogram::reset);
+        sqlOperations.values().forEach(LatencyHistogram::reset);
+    }
+
+    /**
+     * Registers the Metrics with the platform MBean server under OBJECT_NAME,
+     * replacing any Metrics registered before them.
+     */
+    public void registerMBean() {
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(OBJECT_NAME);
+            if (mBeanServer.isRegistered(objectName)) {
+                mBeanServer.unregisterMBean(objectName);
+            }
+            mBeanServer.registerMBean(this, objectName);
+        } catch (JMException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Unregisters the Metrics from the platform MBean server if they are
+     * registered under OBJECT_NAME.
+     */
+    public void unregisterMBean() {
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(OBJECT_NAME);
+            if (mBeanServer.isRegistered(objectName)) {
+                mBeanServer.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
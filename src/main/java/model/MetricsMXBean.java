@@ -0,0 +1,39 @@
+package model;
+
+import java.util.Map;
+
+/**
+ * MetricsMXBean is the management interface through which Metrics are read
+ * and reset with JMX tools such as JConsole.
+ *
+ * @author Liam Tripp
+ */
+public interface MetricsMXBean {
+
+    /**
+     * Returns the statistics of each command, keyed by the command's name.
+     *
+     * @return the statistics of each command as Strings
+     */
+    Map<String, String> getCommandStatistics();
+
+    /**
+     * Returns the statistics of each SQL operation, keyed by the operation's name.
+     *
+     * @return the statistics of each SQL operation as Strings
+     */
+    Map<String, String> getSQLOperationStatistics();
+
+    /**
+     * Returns the current statistics of each component, such as the group
+     * commit writer, keyed by the component's name.
+     *
+     * @return the statistics of each component as Strings
+     */
+    Map<String, String> getComponentStatistics();
+
+    /**
+     * Discards every statistic recorded so far.
+     */
+    void reset();
+}
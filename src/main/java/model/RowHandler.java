@@ -0,0 +1,23 @@
+package model;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * RowHandler reads the current row of a ResultSet of Items without creating
+ * an Item from it, such as to write the row elsewhere.
+ *
+ * @author Liam Tripp
+ */
+@FunctionalInterface
+public interface RowHandler {
+
+    /**
+     * Handles the current row of a ResultSet.
+     *
+     * @param resultSet the ResultSet positioned on the row
+     * @param rowMapper the positions of the row's columns
+     * @throws SQLException if the row cannot be read
+     */
+    void handleRow(ResultSet resultSet, ItemRowMapper rowMapper) throws SQLException;
+}
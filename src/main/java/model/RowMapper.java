@@ -0,0 +1,23 @@
+package model;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * RowMapper converts the current row of a ResultSet into an object.
+ *
+ * @param <T> the type of object created from each row
+ * @author Liam Tripp
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    /**
+     * Creates an object from the current row of a ResultSet.
+     *
+     * @param resultSet the ResultSet positioned on the row
+     * @return the object created from the row
+     * @throws SQLException if the row cannot be read
+     */
+    T mapRow(ResultSet resultSet) throws SQLException;
+}
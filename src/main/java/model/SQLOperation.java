@@ -0,0 +1,72 @@
+package model;
+
+import java.util.Collections;
+
+/**
+ * SQLOperation contains the parameterized SQL statements used by the
+ * Database. Each statement is formatted for a Table and prepared once per
+ * connection by the StatementCache.
+ *
+ * @author Liam Tripp
+ */
+public enum SQLOperation {
+    INSERT_NEW,
+    INSERT,
+    SELECT_ALL,
+    SELECT_ALL_ORDERED,
+    SELECT_BY_ID,
+    SELECT_PAGE,
+    SELECT_ID_AT_OFFSET,
+    COUNT,
+    MOVE_BY_ID,
+    DELETE_BY_ID,
+    FIND;
+
+    /**
+     * Returns the SQL statement of the operation for the given table. Values
+     * are left as '?' parameters to be bound by the caller.
+     *
+     * @param table the table the statement operates on
+     * @return the SQL statement for the table
+     */
+    public String getSQL(Table table) {
+        String tableName = table.getName();
+        return switch (this) {
+            case INSERT_NEW -> "INSERT INTO " + tableName + "(" +
+                    Item.getAttributeNamesExceptId() + ") VALUES (?, ?, ?)";
+            case INSERT -> {
+                String[] columns = table.getColumnNames();
+                String parameters = String.join(", ", Collections.nCopies(columns.length, "?"));
+                yield "INSERT INTO " + tableName + "(" + String.join(", ", columns) +
+                        ") VALUES (" + parameters + ")";
+            }
+            case SELECT_ALL -> "SELECT * FROM " + tableName;
+            case SELECT_ALL_ORDERED -> "SELECT * FROM " + tableName + " ORDER BY id";
+            case SELECT_BY_ID -> "SELECT * FROM " + tableName + " WHERE id = ?";
+            case SELECT_PAGE -> "SELECT * FROM " + tableName + " WHERE id > ? ORDER BY id LIMIT ?";
+            case SELECT_ID_AT_OFFSET -> "SELECT id FROM " + tableName + " ORDER BY id LIMIT 1 OFFSET ?";
+            case COUNT -> "SELECT COUNT(*) FROM " + tableName;
+            case MOVE_BY_ID -> {
+                // copies a row into this table from the other table
+                String[] columns = table.getColumnNames();
+                String selectedColumns = String.join(", ", Item.getAttributeNamesAsArray());
+                Table sourceTable = Table.ITEMS;
+                if (table == Table.ITEMS) {
+                    sourceTable = Table.DELETED_ITEMS;
+                } else {
+                    selectedColumns += ", ?"; // comment
+                }
+                yield "INSERT INTO " + tableName + "(" + String.join(", ", columns) + ") SELECT " +
+                        selectedColumns + " FROM " + sourceTable.getName() + " WHERE id = ? RETURNING *";
+            }
+            case DELETE_BY_ID -> "DELETE FROM " + tableName + " WHERE id = ?";
+            case FIND -> {
+                // the table's full-text index is created by FTS.sql and is ranked by bm25
+                String indexName = tableName + "_fts";
+                yield "SELECT " + tableName + ".* FROM " + indexName + " JOIN " + tableName +
+                        " ON " + tableName + ".id = " + indexName + ".rowid WHERE " + indexName +
+                        " MATCH ? ORDER BY bm25(" + indexName + ") LIMIT ?";
+            }
+        };
+    }
+}
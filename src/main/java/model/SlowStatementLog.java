@@ -0,0 +1,210 @@
+package model;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SlowStatementLog keeps the SQL statements that took at least a threshold
+ * to execute, along with the query plan SQLite chose for them. The most
+ * recent statements are kept in a ring buffer of fixed capacity and may
+ * also be appended to a file, which is rolled over to "[file].1" once it
+ * reaches its maximum size.
+ *
+ * Checking whether a statement is slow only reads the threshold, so fast
+ * statements are not slowed down by the log.
+ *
+ * @author Liam Tripp
+ */
+public class SlowStatementLog {
+
+    public final static long DEFAULT_THRESHOLD_MILLIS = 100;
+    public final static int DEFAULT_CAPACITY = 128;
+    public final static long DEFAULT_MAX_FILE_BYTES = 10 * 1024 * 1024;
+
+    private volatile long thresholdNanos;
+    private final SlowStatement[] ringBuffer;
+    /** the number of statements ever added; the next one is stored at added % capacity */
+    private long added;
+    private Path file;
+    private long maxFileBytes;
+
+    /**
+     * SlowStatement is a statement that took at least the threshold to execute.
+     *
+     * @param time the time at which the statement completed
+     * @param sql the SQL of the statement, with '?' for its parameters
+     * @param nanos the time taken by the statement, in nanoseconds
+     * @param rows the number of rows read or changed by the statement
+     * @param queryPlan the output of EXPLAIN QUERY PLAN for the statement
+     */
+    public record SlowStatement(Instant time, String sql, long nanos, long rows, String queryPlan) {
+
+        @Override
+        public String toString() {
+            return String.format("%s %.1f ms, %d rows: %s%n%s",
+                    time, nanos / 1_000_000.0, rows, sql, queryPlan);
+        }
+    }
+
+    /**
+     * Constructor for SlowStatementLog.
+     *
+     * @param thresholdMillis the time a statement must take to be logged, in milliseconds
+     * @param capacity the number of statements kept in memory
+     */
+    public SlowStatementLog(long thresholdMillis, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive.");
+        }
+        setThresholdMillis(thresholdMillis);
+        ringBuffer = new SlowStatement[capacity];
+    }
+
+    /**
+     * Sets the time a statement must take to be logged.
+     *
+     * @param thresholdMillis the threshold in milliseconds. If it is 0, every
+     *                        statement is logged
+     */
+    public void setThresholdMillis(long thresholdMillis) {
+        if (thresholdMillis < 0) {
+            throw new IllegalArgumentException("Threshold cannot be negative.");
+        }
+        thresholdNanos = thresholdMillis * 1_000_000;
+    }
+
+    /**
+     * Returns the time a statement must take to be logged.
+     *
+     * @return the threshold in milliseconds
+     */
+    public long getThresholdMillis() {
+        return thresholdNanos / 1_000_000;
+    }
+
+    /**
+     * Indicates whether a statement took long enough to be logged.
+     *
+     * @param nanos the time taken by the statement, in nanoseconds
+     * @return true if the statement should be logged, false otherwise
+     */
+    public boolean isSlow(long nanos) {
+        return nanos >= thresholdNanos;
+    }
+
+    /**
+     * Appends every statement logged from now on to a file as well.
+     *
+     * @param file the file the statements are appended to
+     * @param maxFileBytes the size at which the file is rolled over
+     */
+    public synchronized void setFile(Path file, long maxFileBytes) {
+        this.file = file;
+        this.maxFileBytes = maxFileBytes;
+    }
+
+    /**
+     * Logs a slow statement, replacing the oldest statement in memory if the
+     * ring buffer is full.
+     *
+     * @param sql the SQL of the statement
+     * @param nanos the time taken by the statement, in nanoseconds
+     * @param rows the number of rows read or changed by the statement
+     * @param queryPlan the output of EXPLAIN QUERY PLAN for the statement
+     */
+    public synchronized void add(String sql, long nanos, long rows, String queryPlan) {
+        SlowStatement slowStatement = new SlowStatement(Instant.now(), sql, nanos, rows, queryPlan);
+        ringBuffer[(int) (added % ringBuffer.length)] = slowStatement;
+        added++;
+        if (file != null) {
+            appendToFile(slowStatement);
+        }
+    }
+
+    /**
+     * Appends a statement to the file, first rolling the file over if it has
+     * reached its maximum size. Failures are reported without interrupting
+     * the statement being logged.
+     *
+     * @param slowStatement the statement being logged
+     */
+    private void appendToFile(SlowStatement slowStatement) {
+        try {
+            if (Files.exists(file) && Files.size(file) >= maxFileBytes) {
+                Files.move(file, file.resolveSibling(file.getFileName() + ".1"),
+                        StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.writeString(file, slowStatement + System.lineSeparator(), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("Slow statement could not be written to " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the statements kept in memory, from oldest to newest.
+     *
+     * @return the statements kept in memory
+     */
+    public synchronized List<SlowStatement> getSlowStatements() {
+        int size = (int) Math.min(added, ringBuffer.length);
+        List<SlowStatement> slowStatements = new ArrayList<>(size);
+        for (long i = added - size; i < added; i++) {
+            slowStatements.add(ringBuffer[(int) (i % ringBuffer.length)]);
+        }
+        return slowStatements;
+    }
+
+    /**
+     * Returns the number of statements logged, including those no longer in memory.
+     *
+     * @return the number of statements logged
+     */
+    public synchronized long getNumberOfStatementsLogged() {
+        return added;
+    }
+
+    /**
+     * Returns the query plan SQLite chooses for a statement, as an indented
+     * tree of the plan's steps. The statement's parameters are bound to NULL,
+     * which does not change the plan.
+     *
+     * @param connection the connection the statement was executed on
+     * @param sql the SQL of the statement
+     * @return the query plan, or the reason it is unavailable
+     */
+    public static String explainQueryPlan(Connection connection, String sql) {
+        try (PreparedStatement preparedStatement = connection.prepareStatement("EXPLAIN QUERY PLAN " + sql)) {
+            int numberOfParameters = preparedStatement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= numberOfParameters; i++) {
+                preparedStatement.setObject(i, null);
+            }
+            StringBuilder queryPlan = new StringBuilder("QUERY PLAN");
+            Map<Integer, Integer> depthById = new HashMap<>();
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    // each step has an id, the id of its parent step and a description
+                    int depth = depthById.getOrDefault(resultSet.getInt("parent"), 0) + 1;
+                    depthById.put(resultSet.getInt("id"), depth);
+                    queryPlan.append('\n').append("  ".repeat(depth)).append(resultSet.getString("detail"));
+                }
+            }
+            return queryPlan.toString();
+        } catch (SQLException e) {
+            return "QUERY PLAN unavailable: " + e.getMessage();
+        }
+    }
+}
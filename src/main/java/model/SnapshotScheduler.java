@@ -0,0 +1,140 @@
+package model;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SnapshotScheduler periodically copies a Database to a snapshot file with
+ * SQLite's online backup, so that an in-memory Database can be restored
+ * after a restart. Each snapshot is written to a temporary file that then
+ * replaces the previous snapshot, so an interrupted snapshot never damages
+ * the last complete one. The snapshots are timed so that their cost can be
+ * weighed against the snapshot interval.
+ *
+ * @author Liam Tripp
+ */
+public class SnapshotScheduler {
+
+    private final Database database;
+    private final Path snapshotPath;
+    private final Path temporaryPath;
+    private final ScheduledExecutorService executor;
+    private long snapshots;
+    private long failures;
+    private long lastNanos;
+    private long maxNanos;
+    private long totalNanos;
+
+    /**
+     * Statistics describes the snapshots taken by a SnapshotScheduler.
+     *
+     * @param snapshots the number of snapshots taken
+     * @param failures the number of snapshots that failed
+     * @param lastNanos the time taken by the latest snapshot, in nanoseconds
+     * @param maxNanos the time taken by the longest snapshot, in nanoseconds
+     * @param totalNanos the time taken by all snapshots, in nanoseconds
+     */
+    public record Statistics(long snapshots, long failures, long lastNanos, long maxNanos, long totalNanos) {
+
+        /**
+         * Returns the average time taken by a snapshot, in milliseconds.
+         *
+         * @return the average time taken by a snapshot, 0 if none were taken
+         */
+        public double getAverageMillis() {
+            return snapshots == 0 ? 0 : totalNanos / 1_000_000.0 / snapshots;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d snapshots (%d failed), last %.1f ms, average %.1f ms, max %.1f ms",
+                    snapshots, failures, lastNanos / 1_000_000.0, getAverageMillis(), maxNanos / 1_000_000.0);
+        }
+    }
+
+    /**
+     * Constructor for SnapshotScheduler. Snapshots are only taken
+     * periodically once start is called.
+     *
+     * @param database the database to be copied
+     * @param snapshotFileName the name of the snapshot file
+     */
+    public SnapshotScheduler(Database database, String snapshotFileName) {
+        this.database = database;
+        snapshotPath = Path.of(snapshotFileName);
+        temporaryPath = Path.of(snapshotFileName + ".tmp");
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "database-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Takes a snapshot every interval until stop is called.
+     *
+     * @param intervalMillis the time between snapshots, in milliseconds
+     */
+    public void start(long intervalMillis) {
+        if (intervalMillis < 1) {
+            throw new IllegalArgumentException("Snapshot interval must be positive.");
+        }
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                snapshot();
+            } catch (RuntimeException e) {
+                // the next snapshot is attempted regardless
+                System.err.println("Snapshot to " + snapshotPath + " failed: " + e.getMessage());
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Copies the database to the snapshot file.
+     *
+     * @return the time taken by the snapshot, in nanoseconds
+     */
+    public synchronized long snapshot() {
+        long startTime = System.nanoTime();
+        try {
+            database.backupTo(temporaryPath.toString());
+            Files.move(temporaryPath, snapshotPath,
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            failures++;
+            throw e instanceof RuntimeException runtimeException ? runtimeException : new RuntimeException(e);
+        }
+        long elapsedNanos = System.nanoTime() - startTime;
+        snapshots++;
+        lastNanos = elapsedNanos;
+        maxNanos = Math.max(maxNanos, elapsedNanos);
+        totalNanos += elapsedNanos;
+        return elapsedNanos;
+    }
+
+    /**
+     * Stops taking periodic snapshots, waiting for one in progress to finish.
+     */
+    public void stop() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns statistics about the snapshots taken.
+     *
+     * @return statistics about the snapshots taken
+     */
+    public synchronized Statistics getStatistics() {
+        return new Statistics(snapshots, failures, lastNanos, maxNanos, totalNanos);
+    }
+}
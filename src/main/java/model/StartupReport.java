@@ -0,0 +1,37 @@
+package model;
+
+/**
+ * StartupReport describes how long the Database took to start and whether
+ * its schema and seed data were rebuilt.
+ *
+ * @param rebuilt true if the schema was created and the seed data loaded,
+ *                false if the existing database file was reused
+ * @param checksumNanos the time taken to checksum the seed data, in nanoseconds
+ * @param schemaNanos the time taken to check or create the schema, in nanoseconds
+ * @param seedReport the report of the seed data load, null if it was skipped
+ * @param elapsedNanos the total time taken to start, in nanoseconds
+ * @author Liam Tripp
+ */
+public record StartupReport(boolean rebuilt, long checksumNanos, long schemaNanos,
+                            LoadReport seedReport, long elapsedNanos) {
+
+    /**
+     * Returns the total time taken to start, in milliseconds.
+     *
+     * @return the total time taken to start, in milliseconds
+     */
+    public double getElapsedMillis() {
+        return elapsedNanos / 1_000_000.0;
+    }
+
+    @Override
+    public String toString() {
+        String breakdown = String.format("checksum %.1f ms, schema %.1f ms",
+                checksumNanos / 1_000_000.0, schemaNanos / 1_000_000.0);
+        if (!rebuilt) {
+            return String.format("Reused existing database in %.1f ms (%s)", getElapsedMillis(), breakdown);
+        }
+        return String.format("Rebuilt database in %.1f ms (%s, seed %.1f ms: %s)", getElapsedMillis(),
+                breakdown, seedReport.elapsedNanos() / 1_000_000.0, seedReport);
+    }
+}
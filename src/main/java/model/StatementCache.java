@@ -0,0 +1,84 @@
+package model;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * StatementCache holds the PreparedStatements of a single connection so that
+ * SQLite parses and plans each statement only once. Statements are keyed by
+ * their SQLOperation and Table.
+ *
+ * @author Liam Tripp
+ */
+public class StatementCache {
+
+    private final Connection connection;
+    private final Map<Table, Map<SQLOperation, PreparedStatement>> statements;
+
+    /**
+     * Constructor for StatementCache.
+     *
+     * @param connection the connection the statements are prepared on
+     */
+    public StatementCache(Connection connection) {
+        this.connection = connection;
+        statements = new EnumMap<>(Table.class);
+    }
+
+    /**
+     * Returns the connection the statements are prepared on.
+     *
+     * @return the connection the statements are prepared on
+     */
+    public Connection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Returns the PreparedStatement for an operation on a table, preparing it
+     * if it has not been used before.
+     *
+     * @param operation the operation to be performed
+     * @param table the table the operation is performed on
+     * @return the prepared statement for the operation and table
+     */
+    public PreparedStatement get(SQLOperation operation, Table table) {
+        Map<SQLOperation, PreparedStatement> tableStatements =
+                statements.computeIfAbsent(table, key -> new EnumMap<>(SQLOperation.class));
+        PreparedStatement preparedStatement = tableStatements.get(operation);
+        if (preparedStatement == null) {
+            try {
+                if (operation == SQLOperation.INSERT_NEW) {
+                    preparedStatement = connection.prepareStatement(operation.getSQL(table),
+                            Statement.RETURN_GENERATED_KEYS);
+                } else {
+                    preparedStatement = connection.prepareStatement(operation.getSQL(table));
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+            tableStatements.put(operation, preparedStatement);
+        }
+        return preparedStatement;
+    }
+
+    /**
+     * Closes every statement in the cache.
+     */
+    public void close() {
+        try {
+            for (Map<SQLOperation, PreparedStatement> tableStatements : statements.values()) {
+                for (PreparedStatement preparedStatement : tableStatements.values()) {
+                    preparedStatement.close();
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+        statements.clear();
+    }
+}
@@ -17,4 +17,31 @@ public enum Table {
     public String getName() {
         return name().toLowerCase();
     }
+
+    /**
+     * Returns the names of the table's columns.
+     *
+     * @return the names of the table's columns
+     */
+    public String[] getColumnNames() {
+        if (this == DELETED_ITEMS) {
+            return DeletedItem.getAttributeNamesAsArray();
+        }
+        return Item.getAttributeNamesAsArray();
+    }
+
+    /**
+     * Matches and returns a Table given its name.
+     *
+     * @param tableName the name of the table
+     * @return the Table if the tableName is valid, null otherwise
+     */
+    public static Table getTable(String tableName) {
+        for (Table table : values()) {
+            if (table.getName().equals(tableName)) {
+                return table;
+            }
+        }
+        return null;
+    }
 }
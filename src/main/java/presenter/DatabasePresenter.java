@@ -1,27 +1,63 @@
 package presenter;
 
 import model.Database;
-import model.DeletedItem;
+import model.ExportReport;
+import model.IdSet;
+import model.ImportReport;
 import model.Item;
+import model.ItemExporter;
+import model.ItemImporter;
+import model.ItemSearch;
+import model.Metrics;
+import model.SlowStatementLog;
 import model.Table;
 
+import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * DatabasePresenter allows the DatabaseCLI to interact with the Database and
  * receive a response.
  *
+ * DatabasePresenter is safe to use from multiple threads. A write's change
+ * to the item cache is made once the write is committed, while still
+ * holding the Database's writer lock, so the cache is changed in the same
+ * order as the database. If group commit is enabled, writes are queued to a
+ * GroupCommitWriter and committed together with other threads' writes, and
+ * their changes to the cache are made by its writer thread in the order of
+ * the writes.
+ *
  * @author Liam Tripp
  */
 public class DatabasePresenter {
 
     private Database database;
+    private final ItemCache itemCache;
+    private GroupCommitWriter groupCommitWriter;
+    public final static int DEFAULT_CACHE_SIZE = 1024;
+    /** the name under which the group commit writer's statistics are added to the Metrics */
+    public final static String GROUP_COMMIT_STATISTICS = "Group commit";
 
     /**
      * Constructor for DatabasePresenter.
      */
     public DatabasePresenter() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Constructor for DatabasePresenter.
+     *
+     * @param cacheSize the maximum number of items cached by id. If it is 0,
+     *                  items are not cached
+     */
+    public DatabasePresenter(int cacheSize) {
         database = null;
+        itemCache = new ItemCache(cacheSize);
     }
 
     /**
@@ -33,14 +69,125 @@ public class DatabasePresenter {
         this.database = database;
     }
 
+    /**
+     * Queues the presenter's writes to be committed in groups by a single
+     * writer thread instead of committing each write on its own.
+     *
+     * @param maxBatchSize the maximum number of writes committed together
+     * @param maxDelayMillis the maximum time a write waits for others to be
+     *                       grouped with it, in milliseconds
+     */
+    public void enableGroupCommit(int maxBatchSize, long maxDelayMillis) {
+        if (groupCommitWriter != null) {
+            throw new IllegalStateException("Group commit is already enabled.");
+        }
+        groupCommitWriter = new GroupCommitWriter(database, maxBatchSize, maxDelayMillis, itemCache::clear);
+        getMetrics().addComponentStatistics(GROUP_COMMIT_STATISTICS, groupCommitWriter::getStatistics);
+    }
+
+    /**
+     * Returns statistics about the groups of writes committed.
+     *
+     * @return statistics about the groups of writes committed, null if
+     *         group commit is not enabled
+     */
+    public GroupCommitWriter.Statistics getGroupCommitStatistics() {
+        return groupCommitWriter == null ? null : groupCommitWriter.getStatistics();
+    }
+
+    /**
+     * Performs a write, then applies its change to the item cache before the
+     * writer lock is released. The write is queued for group commit if it is
+     * enabled, unless the calling thread has its own transaction open.
+     *
+     * The cache is only changed once the write is committed. Were it changed
+     * before, a reader missing the cache could read the row as last
+     * committed and cache it after the write's change, where it would stay
+     * once the write committed. It is changed before the lock is released so
+     * that the changes of two writes to the same row are applied in the
+     * order the writes were committed.
+     *
+     * @param write the write to be performed
+     * @param updateCache applies the write's result to the item cache
+     * @param <T> the type of the write's result
+     * @return a future completed with the write's result once it is
+     *         committed and the cache is updated
+     */
+    private <T> CompletableFuture<T> submitWrite(Supplier<T> write, Consumer<T> updateCache) {
+        if (groupCommitWriter == null || database.isWriterHeldByCurrentThread()) {
+            try {
+                return CompletableFuture.completedFuture(database.withWriterLock(() -> {
+                    T result = write.get();
+                    updateCache.accept(result);
+                    return result;
+                }));
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        return groupCommitWriter.submit(write, updateCache);
+    }
+
+    /**
+     * Waits for a write to be committed and returns its result.
+     *
+     * @param future the future of the write
+     * @param <T> the type of the write's result
+     * @return the result of the write
+     */
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
     /**
      * Inserts an item into the items table.
      *
      * @param item the item being inserted into the table
+     * @return the item as inserted, with its new id
+     */
+    public Item createItem(Item item) {
+        return await(createItemAsync(item));
+    }
+
+    /**
+     * Inserts an item into the items table without waiting for it to be
+     * committed.
+     *
+     * @param item the item being inserted into the table
+     * @return a future of the item as inserted, with its new id
      */
-    public void createItem(Item item) {
-        database.insert(Table.ITEMS.getName(), Item.getAttributeNamesExceptId(),
-                item.getValuesInSQLFormatExceptId());
+    public CompletableFuture<Item> createItemAsync(Item item) {
+        return submitWrite(() -> {
+            int itemId = database.insertItem(item);
+            return new Item(itemId, item.getName(), item.getPriceInCents(), item.getStock());
+        }, itemCache::put);
+    }
+
+    /**
+     * Returns the item with the provided id from the items table, using the
+     * cache when possible.
+     *
+     * @param itemId the id of the item
+     * @return the item, null if it does not exist
+     */
+    public Item getItem(int itemId) {
+        Item item = itemCache.get(itemId);
+        if (item == null) {
+            // a write made during the read may have made the item stale
+            long cacheVersion = itemCache.getVersion();
+            item = database.selectById(Table.ITEMS, itemId);
+            if (item != null) {
+                itemCache.putIfUnchanged(item, cacheVersion);
+            }
+        }
+        return item;
     }
 
     /**
@@ -51,7 +198,129 @@ public class DatabasePresenter {
                 !(tableName.equals(Table.DELETED_ITEMS.getName()))) {
             return null;
         }
-        return database.selectFromTable(tableName, "*");
+        return database.selectAll(Table.getTable(tableName));
+    }
+
+    /**
+     * Returns the items matching a search's name prefix, price range and
+     * stock range. Each filter is served by an index rather than a scan of
+     * the whole table.
+     *
+     * @param search the filters the items must match
+     * @param limit the maximum number of items returned
+     * @return list of at most limit matching items
+     */
+    public List<Item> searchItems(ItemSearch search, int limit) {
+        return database.searchItems(search, limit);
+    }
+
+    /**
+     * Returns the items of the selected table containing every word of a
+     * text, most relevant first. Item names are searched in the items
+     * table, and names and deletion comments in the deleted_items table.
+     *
+     * @param tableName the name of the table
+     * @param text the words to be found
+     * @param limit the maximum number of items returned
+     * @return list of at most limit items ranked by relevance, null if the
+     *         table does not exist
+     */
+    public List<Item> findItems(String tableName, String text, int limit) {
+        Table table = Table.getTable(tableName);
+        if (table == null) {
+            return null;
+        }
+        return database.findItems(table, text, limit);
+    }
+
+    /**
+     * Inserts the items of a JSON or CSV file into the items table in
+     * batches of ItemImporter.DEFAULT_BATCH_SIZE, each in its own
+     * transaction. Imported items are given new ids, so none of them can be
+     * stale in the cache.
+     *
+     * @param path the path of the file
+     * @param progress receives a line describing the progress of the import
+     * @return a summary of the import, including the rows that were rejected
+     * @throws IllegalArgumentException if the file is neither JSON nor CSV
+     */
+    public ImportReport importItems(Path path, Consumer<String> progress) {
+        return new ItemImporter(database, ItemImporter.DEFAULT_BATCH_SIZE, progress).importFile(path);
+    }
+
+    /**
+     * Writes every row of the selected table to a CSV or JSON file, streaming
+     * the rows from the database to the file.
+     *
+     * @param tableName the name of the table
+     * @param path the path of the file, which is replaced if it exists
+     * @param format the format of the file
+     * @return a summary of the export, null if the table does not exist
+     */
+    public ExportReport exportTable(String tableName, Path path, ItemExporter.Format format) {
+        Table table = Table.getTable(tableName);
+        if (table == null) {
+            return null;
+        }
+        return new ItemExporter(database, ItemExporter.DEFAULT_BUFFER_SIZE).exportTable(table, path, format);
+    }
+
+    /**
+     * Passes every item in the selected table to an action, one page at a
+     * time, without loading the whole table.
+     *
+     * @param tableName the name of the table
+     * @param action the action performed on each item
+     * @return true if the table exists, false otherwise
+     */
+    public boolean readFromTable(String tableName, Consumer<Item> action) {
+        Table table = Table.getTable(tableName);
+        if (table == null) {
+            return false;
+        }
+        database.forEachItem(table, action);
+        return true;
+    }
+
+    /**
+     * Returns a numbered page of items from the selected table.
+     *
+     * @param tableName the name of the table
+     * @param pageNumber the number of the page, starting from 1
+     * @param pageSize the number of items per page
+     * @return the items in the page, null if the table does not exist
+     */
+    public List<Item> readPage(String tableName, int pageNumber, int pageSize) {
+        Table table = Table.getTable(tableName);
+        if (table == null) {
+            return null;
+        }
+        if (pageNumber <= 1) {
+            return database.selectPage(table, Database.FIRST_PAGE_ID, pageSize);
+        }
+
+        // find the last id of the previous page, then read by key from there
+        Integer previousId = database.selectIdAtOffset(table, (long) (pageNumber - 1) * pageSize - 1);
+        if (previousId == null) {
+            return List.of();
+        }
+        return database.selectPage(table, previousId, pageSize);
+    }
+
+    /**
+     * Returns the page of items following an item in the selected table.
+     *
+     * @param tableName the name of the table
+     * @param afterId the id of the last item of the previous page
+     * @param pageSize the number of items per page
+     * @return the items in the page, null if the table does not exist
+     */
+    public List<Item> readNextPage(String tableName, int afterId, int pageSize) {
+        Table table = Table.getTable(tableName);
+        if (table == null) {
+            return null;
+        }
+        return database.selectPage(table, afterId, pageSize);
     }
 
     /**
@@ -61,8 +330,25 @@ public class DatabasePresenter {
      * @param columnValuePair the name-value pair of the attribute to be updated
      */
     public Item updateItem(String itemId, String columnValuePair) {
-        Item updatedItem = database.updateItem(itemId, columnValuePair);
-        return updatedItem;
+        return await(updateItemAsync(itemId, columnValuePair));
+    }
+
+    /**
+     * Updates an Item in the items table without waiting for it to be
+     * committed.
+     *
+     * @param itemId the id of the item
+     * @param columnValuePair the name-value pair of the attribute to be updated
+     * @return a future of the updated item, completed with null if it does not exist
+     */
+    public CompletableFuture<Item> updateItemAsync(String itemId, String columnValuePair) {
+        return submitWrite(() -> database.updateItem(itemId, columnValuePair), updatedItem -> {
+            if (updatedItem == null) {
+                itemCache.evict(Integer.parseInt(itemId));
+            } else {
+                itemCache.put(updatedItem);
+            }
+        });
     }
 
     /**
@@ -73,25 +359,20 @@ public class DatabasePresenter {
      * @param comment (optional) the user's comment for the item's deletion
      */
     public Item deleteItem(String itemId, String comment) {
-        List<Item> items = database.selectFromTable(Table.ITEMS.getName(), "*", itemId);
-        if (items.isEmpty()) {
-            return null;
-        }
-
-        Item item = items.get(0);
-        String columns;
-        String values = item.getValuesInSQLFormat();
-        if (!comment.isBlank()) {
-            item = new DeletedItem(item, comment);
-            columns = String.join(", ", DeletedItem.getAttributeNamesAsArray());
-            values = ((DeletedItem) item).getDeletedItemValuesInSQLFormat();
-        } else {
-            columns = String.join(", ", Item.getAttributeNamesAsArray());
-        }
+        return await(deleteItemAsync(itemId, comment));
+    }
 
-        database.deleteFromTable(Table.ITEMS.getName(), itemId);
-        database.insert(Table.DELETED_ITEMS.getName(), columns, values);
-        return item;
+    /**
+     * Deletes an item from the Items table and inserts it into the
+     * Deleted_Items table without waiting for it to be committed.
+     *
+     * @param itemId the id of the item to be deleted
+     * @param comment (optional) the user's comment for the item's deletion
+     * @return a future of the deleted item, completed with null if it does not exist
+     */
+    public CompletableFuture<Item> deleteItemAsync(String itemId, String comment) {
+        int id = Integer.parseInt(itemId);
+        return submitWrite(() -> database.moveToDeletedItems(id, comment), deletedItem -> itemCache.evict(id));
     }
 
     /**
@@ -101,23 +382,110 @@ public class DatabasePresenter {
      * @return the item that was restored
      */
     public Item restoreItem(String itemId) {
-        List<Item> items = database.selectFromTable(Table.DELETED_ITEMS.getName(), "*", itemId);
-        if (items.isEmpty()) {
-            return null;
-        }
-        database.deleteFromTable(Table.DELETED_ITEMS.getName(), itemId);
+        return await(restoreItemAsync(itemId));
+    }
 
-        Item item = items.get(0);
-        String values = item.getValuesInSQLFormat(); // exclude comment
-        String columns = String.join(", ", Item.getAttributeNamesAsArray());
-        database.insert(Table.ITEMS.getName(), columns, values);
-        return item;
+    /**
+     * Restores an item from the table of deleted_items without waiting for
+     * it to be committed.
+     *
+     * @param itemId the id of the item being restored
+     * @return a future of the restored item, completed with null if it does not exist
+     */
+    public CompletableFuture<Item> restoreItemAsync(String itemId) {
+        int id = Integer.parseInt(itemId);
+        return submitWrite(() -> database.restoreFromDeletedItems(id), item -> itemCache.evict(id));
+    }
+
+    /**
+     * Updates every item in the items table whose id is in a set, in a single
+     * statement, and removes them from the cache.
+     *
+     * @param ids the ids of the items
+     * @param columnValuePairs the new values, formatted as "column = value, ..."
+     * @return the number of items updated
+     */
+    public int updateItems(IdSet ids, String columnValuePairs) {
+        return await(submitWrite(() -> database.updateItems(ids, columnValuePairs),
+                updatedRows -> itemCache.evictIf(ids::contains)));
+    }
+
+    /**
+     * Moves every item in the items table whose id is in a set to the
+     * deleted_items table, in a single transaction, and removes them from
+     * the cache.
+     *
+     * @param ids the ids of the items
+     * @param comment the deletion comment for every item, may be blank
+     * @return the number of items deleted
+     */
+    public int deleteItems(IdSet ids, String comment) {
+        return await(submitWrite(() -> database.moveToDeletedItems(ids, comment),
+                deletedRows -> itemCache.evictIf(ids::contains)));
+    }
+
+    /**
+     * Moves every item in the deleted_items table whose id is in a set back
+     * to the items table, in a single transaction.
+     *
+     * @param ids the ids of the items
+     * @return the number of items restored
+     */
+    public int restoreItems(IdSet ids) {
+        return await(submitWrite(() -> database.restoreFromDeletedItems(ids),
+                restoredRows -> itemCache.evictIf(ids::contains)));
+    }
+
+    /**
+     * Returns the usage statistics of the item cache.
+     *
+     * @return the usage statistics of the item cache
+     */
+    public ItemCache.Statistics getCacheStatistics() {
+        return itemCache.getStatistics();
+    }
+
+    /**
+     * Returns the Metrics in which the Database's commands and SQL
+     * operations are recorded.
+     *
+     * @return the Database's Metrics
+     */
+    public Metrics getMetrics() {
+        return database.getMetrics();
+    }
+
+    /**
+     * Returns the log of the Database's slow SQL statements.
+     *
+     * @return the Database's slow statement log
+     */
+    public SlowStatementLog getSlowStatementLog() {
+        return database.getSlowStatementLog();
+    }
+
+    /**
+     * Opens a transaction grouping the following writes until
+     * commitTransaction is called.
+     */
+    public void beginTransaction() {
+        database.beginTransaction();
+    }
+
+    /**
+     * Commits the transaction opened by beginTransaction.
+     */
+    public void commitTransaction() {
+        database.commitTransaction();
     }
 
     /**
      * Shuts down the Database.
      */
     public void terminateDatabase() {
+        if (groupCommitWriter != null) {
+            groupCommitWriter.close();
+        }
         database.shutdown();
     }
 }
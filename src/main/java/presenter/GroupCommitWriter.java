@@ -0,0 +1,316 @@
+package presenter;
+
+import model.Database;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * GroupCommitWriter performs writes to the Database on a single thread,
+ * committing them in groups so that many writes share the cost of one
+ * commit. Callers submit a write and receive a future that is completed
+ * once the write has been committed. A group is committed when it reaches
+ * the maximum batch size, or when the oldest write in it has waited for the
+ * maximum delay, whichever comes first.
+ *
+ * A write may be submitted with an action applying its result elsewhere,
+ * such as to a cache. The actions of a group are run on the writer thread
+ * once the group is committed, in the order of its writes and while still
+ * holding the Database's writer lock, before any future is completed.
+ *
+ * @author Liam Tripp
+ */
+public class GroupCommitWriter {
+
+    private final Database database;
+    private final Runnable onCommitFailure;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final BlockingQueue<PendingWrite<?>> queue;
+    private final Thread writerThread;
+    /** guards running and the queueing of writes, so that no write is queued once the writer stops */
+    private final Object queueLock = new Object();
+    private volatile boolean running;
+    private long batches;
+    private long writes;
+    private int lastBatchSize;
+    private int largestBatchSize;
+    private long lastCommitNanos;
+    private long maxCommitNanos;
+    public final static int DEFAULT_MAX_BATCH_SIZE = 256;
+    /** writes that arrive while a group is being committed form the next group, so waiting is rarely needed */
+    public final static long DEFAULT_MAX_DELAY_MILLIS = 0;
+
+    /**
+     * Statistics describes the groups committed by a GroupCommitWriter.
+     *
+     * @param batches the number of groups committed
+     * @param writes the number of writes committed
+     * @param lastBatchSize the number of writes in the latest group
+     * @param largestBatchSize the number of writes in the largest group
+     * @param lastCommitNanos the time taken by the latest commit, in nanoseconds
+     * @param maxCommitNanos the time taken by the longest commit, in nanoseconds
+     * @param queueDepth the number of writes waiting to be performed
+     */
+    public record Statistics(long batches, long writes, int lastBatchSize, int largestBatchSize,
+                             long lastCommitNanos, long maxCommitNanos, int queueDepth) {
+
+        /**
+         * Returns the average number of writes per group.
+         *
+         * @return the average number of writes per group, 0 if none were committed
+         */
+        public double getAverageBatchSize() {
+            return batches == 0 ? 0 : (double) writes / batches;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d writes in %d groups (average %.1f, largest %d), " +
+                            "last commit %.2f ms, max commit %.2f ms, queue depth %d",
+                    writes, batches, getAverageBatchSize(), largestBatchSize,
+                    lastCommitNanos / 1_000_000.0, maxCommitNanos / 1_000_000.0, queueDepth);
+        }
+    }
+
+    /**
+     * PendingWrite is a write waiting to be performed, the action applying
+     * its result once it is committed and the future completed after that.
+     *
+     * @param write the write to be performed
+     * @param afterCommit applies the write's result once it is committed
+     * @param future the future of the write's result
+     * @param <T> the type of the write's result
+     */
+    private record PendingWrite<T>(Supplier<T> write, Consumer<T> afterCommit, CompletableFuture<T> future) {
+    }
+
+    /**
+     * Constructor for GroupCommitWriter. Starts the writer thread.
+     *
+     * @param database the database written to
+     * @param maxBatchSize the maximum number of writes committed together
+     * @param maxDelayMillis the maximum time a write waits for others to be
+     *                       grouped with it, in milliseconds
+     * @param onCommitFailure run if a group fails to commit, such as to
+     *                        discard state derived from its writes
+     */
+    public GroupCommitWriter(Database database, int maxBatchSize, long maxDelayMillis, Runnable onCommitFailure) {
+        if (maxBatchSize < 1 || maxDelayMillis < 0) {
+            throw new IllegalArgumentException("Batch size must be positive and delay cannot be negative.");
+        }
+        this.database = database;
+        this.onCommitFailure = onCommitFailure;
+        this.maxBatchSize = maxBatchSize;
+        maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        queue = new LinkedBlockingQueue<>();
+        running = true;
+        writerThread = new Thread(this::writeBatches, "group-commit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Queues a write to be performed on the writer thread.
+     *
+     * @param write the write to be performed
+     * @param <T> the type of the write's result
+     * @return a future completed with the write's result once it is
+     *         committed, or exceptionally if it fails
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> write) {
+        return submit(write, result -> { });
+    }
+
+    /**
+     * Queues a write to be performed on the writer thread, and an action
+     * applying its result to be run on the writer thread once it is
+     * committed.
+     *
+     * @param write the write to be performed
+     * @param afterCommit applies the write's result once it is committed
+     * @param <T> the type of the write's result
+     * @return a future completed with the write's result once it is
+     *         committed and its action has run, or exceptionally if it fails
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> write, Consumer<T> afterCommit) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        synchronized (queueLock) {
+            if (running) {
+                queue.add(new PendingWrite<>(write, afterCommit, future));
+                return future;
+            }
+        }
+        future.completeExceptionally(new IllegalStateException("The writer has been closed."));
+        return future;
+    }
+
+    /**
+     * Stops accepting writes. Writes already queued are still performed.
+     */
+    private void stopAccepting() {
+        synchronized (queueLock) {
+            running = false;
+        }
+    }
+
+    /**
+     * Performs queued writes in groups until the writer is closed and the
+     * queue is empty.
+     */
+    private void writeBatches() {
+        List<PendingWrite<?>> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite<?> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxBatchSize) {
+                    long remainingNanos = deadline - System.nanoTime();
+                    PendingWrite<?> next = remainingNanos > 0
+                            ? queue.poll(remainingNanos, TimeUnit.NANOSECONDS)
+                            : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // finish the writes already taken from the queue
+                stopAccepting();
+            }
+            if (!batch.isEmpty()) {
+                commit(batch);
+                batch.clear();
+            }
+        }
+        PendingWrite<?> lateWrite;
+        while ((lateWrite = queue.poll()) != null) {
+            lateWrite.future().completeExceptionally(new IllegalStateException("The writer has been closed."));
+        }
+    }
+
+    /**
+     * Performs a group of writes in one transaction, then runs the actions of
+     * the writes that succeeded and completes their futures. A write that
+     * fails is rolled back alone and its future is completed exceptionally;
+     * if the commit fails, every future is.
+     *
+     * @param batch the writes to be performed
+     */
+    private void commit(List<PendingWrite<?>> batch) {
+        long startTime = System.nanoTime();
+        List<Object> results = new ArrayList<>(batch.size());
+        List<RuntimeException> failures = new ArrayList<>(batch.size());
+        try {
+            database.beginTransaction();
+        } catch (RuntimeException e) {
+            batch.forEach(pendingWrite -> pendingWrite.future().completeExceptionally(e));
+            return;
+        }
+        for (PendingWrite<?> pendingWrite : batch) {
+            try {
+                results.add(pendingWrite.write().get());
+                failures.add(null);
+            } catch (RuntimeException e) {
+                results.add(null);
+                failures.add(e);
+            }
+        }
+        try {
+            // the lock is held past the commit so that no other write is made before the actions run
+            database.withWriterLock(() -> {
+                database.commitTransaction();
+                for (int i = 0; i < batch.size(); i++) {
+                    if (failures.get(i) == null) {
+                        failures.set(i, runAfterCommit(batch.get(i), results.get(i)));
+                    }
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            onCommitFailure.run();
+            batch.forEach(pendingWrite -> pendingWrite.future().completeExceptionally(e));
+            return;
+        }
+        long commitNanos = System.nanoTime() - startTime;
+        synchronized (this) {
+            batches++;
+            writes += batch.size();
+            lastBatchSize = batch.size();
+            largestBatchSize = Math.max(largestBatchSize, batch.size());
+            lastCommitNanos = commitNanos;
+            maxCommitNanos = Math.max(maxCommitNanos, commitNanos);
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            complete(batch.get(i), results.get(i), failures.get(i));
+        }
+    }
+
+    /**
+     * Runs the action applying a committed write's result.
+     *
+     * @param pendingWrite the write
+     * @param result the result of the write
+     * @param <T> the type of the write's result
+     * @return the failure of the action, null if it succeeded
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> RuntimeException runAfterCommit(PendingWrite<T> pendingWrite, Object result) {
+        try {
+            pendingWrite.afterCommit().accept((T) result);
+            return null;
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    /**
+     * Completes the future of a write with its result or failure.
+     *
+     * @param pendingWrite the write
+     * @param result the result of the write
+     * @param failure the failure of the write, null if it succeeded
+     * @param <T> the type of the write's result
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> void complete(PendingWrite<T> pendingWrite, Object result, RuntimeException failure) {
+        if (failure != null) {
+            pendingWrite.future().completeExceptionally(failure);
+        } else {
+            pendingWrite.future().complete((T) result);
+        }
+    }
+
+    /**
+     * Returns statistics about the groups committed and the writes waiting.
+     *
+     * @return statistics about the groups committed and the writes waiting
+     */
+    public synchronized Statistics getStatistics() {
+        return new Statistics(batches, writes, lastBatchSize, largestBatchSize,
+                lastCommitNanos, maxCommitNanos, queue.size());
+    }
+
+    /**
+     * Stops accepting writes, then waits for the queued writes to be committed.
+     */
+    public void close() {
+        stopAccepting();
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
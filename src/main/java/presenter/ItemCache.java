@@ -0,0 +1,209 @@
+package presenter;
+
+import model.Item;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntPredicate;
+
+/**
+ * ItemCache is a bounded, least-recently-used cache of the rows of the items
+ * table, keyed by id. It is safe to use from multiple threads and counts its
+ * hits, misses and evictions so that its capacity can be sized.
+ *
+ * Every change to the cache increments its version. An item read from the
+ * database can be cached with putIfUnchanged, which discards it if the
+ * cache changed after the read began, since the item may then be stale.
+ *
+ * @author Liam Tripp
+ */
+public class ItemCache {
+
+    private final int capacity;
+    private final LinkedHashMap<Integer, Item> items;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+    /** incremented by every put, evict, eviction to respect the capacity and clear; guarded by items */
+    private long version;
+
+    /**
+     * Statistics describes the usage of an ItemCache.
+     *
+     * @param hits the number of lookups that found an item
+     * @param misses the number of lookups that did not find an item
+     * @param evictions the number of items removed to respect the capacity
+     * @param size the number of items in the cache
+     * @param capacity the maximum number of items in the cache
+     */
+    public record Statistics(long hits, long misses, long evictions, int size, int capacity) {
+
+        /**
+         * Returns the fraction of lookups that found an item.
+         *
+         * @return the fraction of lookups that found an item, 0 if there were none
+         */
+        public double getHitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("size %d/%d, hits %d, misses %d, evictions %d, hit rate %.1f%%",
+                    size, capacity, hits, misses, evictions, getHitRate() * 100);
+        }
+    }
+
+    /**
+     * Constructor for ItemCache.
+     *
+     * @param capacity the maximum number of items in the cache. If it is 0,
+     *                 nothing is cached
+     */
+    public ItemCache(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Cache capacity cannot be negative.");
+        }
+        this.capacity = capacity;
+        hits = new LongAdder();
+        misses = new LongAdder();
+        evictions = new LongAdder();
+        // access order makes the eldest entry the least recently used one
+        items = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Item> eldest) {
+                if (size() > ItemCache.this.capacity) {
+                    evictions.increment();
+                    // called from put and putIfUnchanged, which hold the lock on items
+                    version++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached item with the provided id. The item is shared with
+     * the cache and should not be modified.
+     *
+     * @param itemId the id of the item
+     * @return the item, null if it is not cached
+     */
+    public Item get(int itemId) {
+        Item item;
+        synchronized (items) {
+            item = items.get(itemId);
+        }
+        if (item == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return item;
+    }
+
+    /**
+     * Adds or replaces an item in the cache. A copy of the item is cached so
+     * that later changes to the provided item do not affect the cache.
+     *
+     * @param item the item to cache
+     */
+    public void put(Item item) {
+        if (capacity == 0) {
+            return;
+        }
+        Item copy = new Item(item.getId(), item.getName(), item.getPriceInCents(), item.getStock());
+        synchronized (items) {
+            items.put(copy.getId(), copy);
+            version++;
+        }
+    }
+
+    /**
+     * Adds an item to the cache unless the cache has changed since it was at
+     * the provided version.
+     *
+     * @param item the item to cache
+     * @param expectedVersion the version returned by getVersion before the
+     *                        item was read
+     * @return true if the item was cached, false otherwise
+     */
+    public boolean putIfUnchanged(Item item, long expectedVersion) {
+        if (capacity == 0) {
+            return false;
+        }
+        Item copy = new Item(item.getId(), item.getName(), item.getPriceInCents(), item.getStock());
+        synchronized (items) {
+            if (version != expectedVersion) {
+                return false;
+            }
+            items.put(copy.getId(), copy);
+            return true;
+        }
+    }
+
+    /**
+     * Returns the version of the cache, which changes whenever an item is
+     * put or evicted, including to respect the capacity, or the cache is
+     * cleared.
+     *
+     * @return the version of the cache
+     */
+    public long getVersion() {
+        synchronized (items) {
+            return version;
+        }
+    }
+
+    /**
+     * Removes the item with the provided id from the cache.
+     *
+     * @param itemId the id of the item
+     */
+    public void evict(int itemId) {
+        synchronized (items) {
+            items.remove(itemId);
+            version++;
+        }
+    }
+
+    /**
+     * Removes every item whose id matches a predicate from the cache. Only
+     * the cached items are checked, so this takes the same time however
+     * many ids the predicate matches.
+     *
+     * @param itemIdPredicate the predicate matching the ids of the items removed
+     */
+    public void evictIf(IntPredicate itemIdPredicate) {
+        synchronized (items) {
+            items.keySet().removeIf(itemId -> itemIdPredicate.test(itemId));
+            version++;
+        }
+    }
+
+    /**
+     * Removes every item from the cache.
+     */
+    public void clear() {
+        synchronized (items) {
+            items.clear();
+            version++;
+        }
+    }
+
+    /**
+     * Returns the usage statistics of the cache.
+     *
+     * @return the usage statistics of the cache
+     */
+    public Statistics getStatistics() {
+        int size;
+        synchronized (items) {
+            size = items.size();
+        }
+        return new Statistics(hits.sum(), misses.sum(), evictions.sum(), size, capacity);
+    }
+}
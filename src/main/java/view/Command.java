@@ -2,6 +2,10 @@ package view;
 
 import model.Table;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
 /**
  * Command contains the commands used for the DatabaseCLI.
  *
@@ -9,17 +13,33 @@ import model.Table;
  */
 public enum Command {
     CREATE("(CREATE) (\\w+) (\\d+(?:\\.\\d+)?) (\\d+)"), // name price stock
+    IMPORT("(IMPORT) (\\S.*)"), // path of a .json or .csv file
+    EXPORT("(EXPORT) (" + String.join("|",
+            Table.ITEMS.getName(),
+            Table.DELETED_ITEMS.getName()) + ") (\\S.*?)(?: (CSV|JSON))?"), // path format
     READ("(READ) (" + String.join("|",
             Table.ITEMS.getName(),
-            Table.DELETED_ITEMS.getName()) + ")"),
-    UPDATE("(UPDATE) (\\d+) (name = '\\w+'|price = \\d+\\.\\d+|stock = \\d+)"),
-    DELETE("(DELETE) (\\d+) ?(.+)?"),
-    RESTORE("(RESTORE) (\\d+)"),
+            Table.DELETED_ITEMS.getName()) + ")(?: PAGE (\\d{1,9})(?: SIZE (\\d{1,9}))?)?(?: (ALIGNED))?"), // page size aligned
+    NEXT("(NEXT)"),
+    SEARCH("(SEARCH)(?= )(?: (?!PRICE |STOCK )(\\w+))?" + // name prefix
+            "(?: PRICE (\\d{1,13}(?:\\.\\d+)?)?-(\\d{1,13}(?:\\.\\d+)?)?)?" + // min-max price
+            "(?: STOCK (\\d{1,9})?-(\\d{1,9})?)?"), // min-max stock
+    FIND("(FIND) (.*\\w.*)"), // words
+    UPDATE("(UPDATE) (" + Command.ID_SET + ") (" + Command.COLUMN_VALUE_PAIR + "(?:, " + Command.COLUMN_VALUE_PAIR + ")*)"),
+    DELETE("(DELETE) (" + Command.ID_SET + ") ?(.+)?"), // ids comment
+    RESTORE("(RESTORE) (" + Command.ID_SET + ")"), // ids
     HELP("(help)"),
     TABLES("(tables)"),
+    METRICS("(METRICS)(?: (RESET))?"),
+    SLOWLOG("(SLOWLOG)"),
     QUIT("(quit)");
 
     private final String regex;
+    private final Pattern pattern;
+    /** the ids used by UPDATE, DELETE and RESTORE: an id, or a comma-separated list of ids and ranges like 1-100 */
+    private static final String ID_SET = "\\d{1,9}(?:-\\d{1,9})?(?:,\\d{1,9}(?:-\\d{1,9})?)*";
+    /** a column and value used by UPDATE; columns are separated by ", " */
+    private static final String COLUMN_VALUE_PAIR = "(?:name = '\\w+'|price = \\d+\\.\\d+|stock = \\d+)";
 
     /**
      * Constructor for Command.
@@ -28,6 +48,38 @@ public enum Command {
      */
     Command(String regex) {
         this.regex = regex;
+        pattern = Pattern.compile(regex, Pattern.CASE_INSENSITIVE);
+    }
+
+    /** the Commands keyed by their name, which is the first token of their input */
+    private static final Map<String, Command> COMMANDS_BY_NAME = new HashMap<>();
+
+    static {
+        for (Command command : values()) {
+            COMMANDS_BY_NAME.put(command.getName(), command);
+        }
+    }
+
+    /**
+     * Indicates whether the Command changes the contents of the database.
+     *
+     * @return true if the Command writes to the database, false otherwise
+     */
+    public boolean isWrite() {
+        return switch (this) {
+            case CREATE, UPDATE, DELETE, RESTORE -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * Indicates whether the Command's arguments include the path of a file,
+     * which may be case-sensitive.
+     *
+     * @return true if the Command's arguments include a path, false otherwise
+     */
+    public boolean hasPathArgument() {
+        return this == IMPORT || this == EXPORT;
     }
 
     /**
@@ -39,6 +91,16 @@ public enum Command {
         return regex;
     }
 
+    /**
+     * Returns the compiled, case-insensitive Regular Expression associated
+     * with the Command.
+     *
+     * @return the compiled Regular Expression associated with the Command
+     */
+    public Pattern getPattern() {
+        return pattern;
+    }
+
     /**
      * Returns the Command as a String.
      *
@@ -55,11 +117,44 @@ public enum Command {
      * @return the Command if the commandName is valid, null otherwise
      */
     public static Command getCommand(String commandName) {
-        try {
-            return valueOf(commandName.trim().toUpperCase());
-        } catch (IllegalArgumentException iae) {
+        Command command = COMMANDS_BY_NAME.get(commandName.trim().toLowerCase());
+        if (command == null) {
             System.err.println("Command does not exist");
-            return null;
         }
+        return command;
+    }
+
+    /**
+     * Returns the Command whose name is the first token of an input, without
+     * matching the rest of the input.
+     *
+     * @param userInput the user's input
+     * @return the Command named by the input's first token, null otherwise
+     */
+    public static Command getCommandForInput(String userInput) {
+        int endOfFirstToken = userInput.indexOf(' ');
+        if (endOfFirstToken < 0) {
+            endOfFirstToken = userInput.length();
+        }
+        String firstToken = userInput.substring(0, endOfFirstToken);
+        return COMMANDS_BY_NAME.get(firstToken.toLowerCase());
+    }
+
+    /**
+     * Prepares an input to be matched by removing its surrounding whitespace
+     * and converting it to lower case. The arguments of a Command with a path
+     * argument keep their case, since file names may be case-sensitive.
+     *
+     * @param userInput the user's input
+     * @return the input to be matched
+     */
+    public static String normalizeInput(String userInput) {
+        String input = userInput.trim();
+        Command command = getCommandForInput(input);
+        if (command != null && command.hasPathArgument()) {
+            String commandName = command.getName();
+            return commandName + input.substring(commandName.length());
+        }
+        return input.toLowerCase();
     }
 }
@@ -1,11 +1,29 @@
 package view;
 
 import model.DeletedItem;
+import model.ExportReport;
+import model.IdSet;
+import model.ImportReport;
 import model.Item;
+import model.ItemExporter;
+import model.ItemImporter;
+import model.ItemSearch;
+import model.LatencyHistogram;
+import model.Metrics;
+import model.SlowStatementLog;
 import model.Table;
 import presenter.DatabasePresenter;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.function.IntSupplier;
 import java.util.regex.Matcher;
 
 /**
@@ -21,6 +39,16 @@ public class DatabaseCLI {
     private final InputMatcher inputMatcher;
     private final Scanner scanner;
     private boolean userWantsToQuit;
+    /** the table, page and last id of the most recently read page, used by NEXT */
+    private String pagedTableName;
+    private int pageNumber;
+    private int pageSize;
+    private int lastPageId;
+    private boolean pageAligned;
+    public final static int DEFAULT_PAGE_SIZE = 20;
+    public final static int MAX_PAGE_SIZE = 1000;
+    /** the number of characters of output held before they are written to the console */
+    public final static int OUTPUT_BUFFER_SIZE = 64 * 1024;
 
     /**
      * Constructor for Database CLI.
@@ -66,15 +94,18 @@ public class DatabaseCLI {
 
     /**
      * Asks user for input and delegates to methods, printing output statement.
+     * The output is written through a large buffer as it is produced, so the
+     * rows of a large table are printed while the rest are still being read.
      */
     public void promptUserForInput() {
         System.out.print("Enter command: ");
-        String initialInput = scanner.nextLine().toLowerCase().trim();
+        String initialInput = Command.normalizeInput(scanner.nextLine());
         System.out.println();
-        String consoleOutput = processInput(initialInput);
+        Writer consoleWriter = new BufferedWriter(new OutputStreamWriter(System.out), OUTPUT_BUFFER_SIZE);
+        processInput(initialInput, consoleWriter);
 
-        System.out.println(consoleOutput);
-        System.out.println();
+        write(consoleWriter, "\n\n");
+        flush(consoleWriter);
     }
 
     /**
@@ -84,13 +115,65 @@ public class DatabaseCLI {
      * @return output message if input is valid, error message otherwise
      */
     public String processInput(String userInput) {
+        StringWriter consoleOutput = new StringWriter();
+        processInput(userInput, consoleOutput);
+        return consoleOutput.toString();
+    }
+
+    /**
+     * Processes an input, matching and executing it, and writes its output
+     * to a Writer as it is produced.
+     *
+     * @param userInput the user's input
+     * @param writer the Writer to which the output message, or the error
+     *               message if the input is invalid, is written
+     */
+    public void processInput(String userInput, Writer writer) {
         Matcher matcher = inputMatcher.matchInputToCommandRegex(userInput);
-        String matcherError = inputMatcher.validateMatcher(matcher);
-        if (!matcherError.equals("")) {
-            return matcherError + "\nError text: " + userInput;
+        if (matcher == null) {
+            write(writer, inputMatcher.getFormattingError() + "\nError text: " + userInput);
+            return;
+        }
+        executeInput(matcher, writer);
+    }
+
+    /**
+     * Writes text to a Writer.
+     *
+     * @param writer the Writer
+     * @param text the text to be written
+     */
+    private static void write(Writer writer, String text) {
+        try {
+            writer.write(text);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Flushes a Writer, so that what was written is shown before the rest of
+     * the output is produced.
+     *
+     * @param writer the Writer
+     */
+    private static void flush(Writer writer) {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        String consoleOutput = executeInput(matcher);
-        return consoleOutput;
+    }
+
+    /**
+     * Indicates whether an output of processInput is an error message.
+     *
+     * @param consoleOutput the output of processInput
+     * @return true if the output is an error message, false otherwise
+     */
+    public boolean isError(String consoleOutput) {
+        return consoleOutput.startsWith("ERROR") ||
+                consoleOutput.startsWith(inputMatcher.getFormattingError());
     }
 
     /**
@@ -100,27 +183,53 @@ public class DatabaseCLI {
      * @return a statement indicating the operation and its level of success
      */
     String executeInput(Matcher commandMatcher) {
+        StringWriter consoleOutput = new StringWriter();
+        executeInput(commandMatcher, consoleOutput);
+        return consoleOutput.toString();
+    }
+
+    /**
+     * Executes a Command given its associated SQL information, writing its
+     * output to a Writer.
+     *
+     * @param commandMatcher contains the Command and the user's input
+     * @param writer the Writer to which a statement indicating the operation
+     *               and its level of success is written
+     */
+    void executeInput(Matcher commandMatcher, Writer writer) {
         String commandAsString = commandMatcher.group(1);
         Command command = Command.getCommand(commandAsString);
         if (command == null) {
             String errorMessage = "ERROR: Please enter a valid command. Enter '" +
                     Command.HELP.getName() + "' for a list of them.";
-            return errorMessage;
+            write(writer, errorMessage);
+            return;
         }
 
-        String consoleOutput;
+        long startTime = System.nanoTime();
+        String consoleOutput = null;
         switch (command) {
             case CREATE -> consoleOutput = createItem(commandMatcher);
-            case READ -> consoleOutput = read(commandMatcher);
+            case IMPORT -> consoleOutput = importItems(commandMatcher, writer);
+            case EXPORT -> consoleOutput = export(commandMatcher);
+            case READ -> read(commandMatcher, writer);
+            case NEXT -> consoleOutput = next();
+            case SEARCH -> consoleOutput = search(commandMatcher);
+            case FIND -> consoleOutput = find(commandMatcher);
             case UPDATE -> consoleOutput = updateItem(commandMatcher);
             case DELETE -> consoleOutput = delete(commandMatcher);
             case RESTORE -> consoleOutput = restore(commandMatcher);
             case HELP -> consoleOutput = help();
             case TABLES -> consoleOutput = tables();
+            case METRICS -> consoleOutput = metrics(commandMatcher);
+            case SLOWLOG -> consoleOutput = slowLog();
             case QUIT -> consoleOutput = quit();
             default -> consoleOutput = "ERROR: unhandled command."; // shouldn't be seen in normal program execution
         }
-        return consoleOutput;
+        if (consoleOutput != null) {
+            write(writer, consoleOutput);
+        }
+        databasePresenter.getMetrics().recordCommand(command.getName(), System.nanoTime() - startTime);
     }
 
     /**
@@ -140,6 +249,78 @@ public class DatabaseCLI {
         return "Created item: " + values;
     }
 
+    /**
+     * Imports the items of a JSON or CSV file into the items table, writing
+     * its progress while the file is read, and returns the rows that were
+     * rejected followed by a summary of the import. A file that stops being
+     * readable part way, such as one that is not UTF-8, stops the import
+     * with the rows read before it kept and counted in the summary.
+     *
+     * @param matcher contains the IMPORT command and the path of the file
+     * @param writer the Writer to which the progress is written
+     * @return a String containing the rejected rows and a summary of the import
+     */
+    public String importItems(Matcher matcher, Writer writer) {
+        // matcher.group(1) is "import"
+        ImportReport importReport;
+        try {
+            Path path = Path.of(matcher.group(2));
+            if (!Files.isRegularFile(path)) {
+                return "ERROR: " + path + " is not a file.";
+            }
+            importReport = databasePresenter.importItems(path, line -> {
+                write(writer, line + "\n");
+                flush(writer);
+            });
+        } catch (IllegalArgumentException e) {
+            return "ERROR: " + e.getMessage() + ".";
+        } catch (RuntimeException e) {
+            return "ERROR: " + matcher.group(2) + " could not be imported: " + e.getMessage();
+        }
+
+        StringBuilder consoleOutput = new StringBuilder();
+        if (importReport.rowsImported() == 0 && !importReport.errors().isEmpty()) {
+            consoleOutput.append("ERROR: No items were imported.\n");
+        }
+        for (String error : importReport.errors()) {
+            consoleOutput.append(error).append("\n");
+        }
+        if (importReport.errors().size() == ItemImporter.MAX_REPORTED_ERRORS) {
+            consoleOutput.append("Only the first ").append(ItemImporter.MAX_REPORTED_ERRORS)
+                    .append(" errors are shown.\n");
+        }
+        consoleOutput.append(importReport);
+        return consoleOutput.toString();
+    }
+
+    /**
+     * Writes every row of a table to a CSV or JSON file and returns a summary
+     * of the export. The format is CSV unless JSON is given or the file's
+     * name ends with .json.
+     *
+     * @param matcher contains the EXPORT command, the table name, the path of
+     *                the file and an optional format
+     * @return a String containing a summary of the export
+     */
+    public String export(Matcher matcher) {
+        // matcher.group(1) is "export"; the arguments keep their case for the path
+        String tableName = matcher.group(2).toLowerCase();
+        try {
+            Path path = Path.of(matcher.group(3));
+            ItemExporter.Format format = matcher.group(4) == null ? ItemExporter.Format.forPath(path) :
+                    ItemExporter.Format.valueOf(matcher.group(4).toUpperCase());
+            ExportReport exportReport = databasePresenter.exportTable(tableName, path, format);
+            if (exportReport == null) {
+                return "ERROR: " + tableName + " is not a table.";
+            }
+            return exportReport + " to " + path;
+        } catch (IllegalArgumentException e) {
+            return "ERROR: " + e.getMessage() + ".";
+        } catch (RuntimeException e) {
+            return "ERROR: " + matcher.group(3) + " could not be written: " + e.getMessage();
+        }
+    }
+
     /**
      * Returns the contents of the specified table as a String.
      *
@@ -147,30 +328,179 @@ public class DatabaseCLI {
      * @return a String containing the contents of the table
      */
     public String read(Matcher matcher) {
+        StringWriter consoleOutput = new StringWriter();
+        read(matcher, consoleOutput);
+        return consoleOutput.toString();
+    }
+
+    /**
+     * Writes the contents of the specified table to a Writer one row at a
+     * time, as they are read, so that the table is never held in memory as
+     * a whole.
+     *
+     * @param matcher contains the READ command, the tableName to be read, and
+     *                optionally a page number, page size and ALIGNED
+     * @param writer the Writer to which the contents are written
+     */
+    public void read(Matcher matcher, Writer writer) {
         // matcher.group(1) is "read"
         String tableName = matcher.group(2);
-        List<Item> items = databasePresenter.readFromTable(tableName);
+        boolean aligned = matcher.groupCount() > 4 && matcher.group(5) != null;
+        if (matcher.groupCount() > 2 && matcher.group(3) != null) {
+            int size = DEFAULT_PAGE_SIZE;
+            if (matcher.group(4) != null) {
+                size = Integer.parseInt(matcher.group(4));
+            }
+            write(writer, readPage(tableName, Integer.parseInt(matcher.group(3)), size, aligned));
+            return;
+        }
+
+        TableRenderer tableRenderer = new TableRenderer(writer, "Table " + tableName + " contains:",
+                Table.getTable(tableName), aligned, TableRenderer.DEFAULT_SAMPLE_SIZE);
+        databasePresenter.readFromTable(tableName, tableRenderer::writeRow);
+        tableRenderer.finish();
+        if (tableRenderer.getRows() == 0) {
+            write(writer, "ERROR: " + tableName + " is empty.");
+        }
+    }
+
+    /**
+     * Returns a numbered page of the specified table as a String. The page is
+     * remembered so that the following one can be read with NEXT.
+     *
+     * @param tableName the name of the table to be read
+     * @param pageNumber the number of the page, starting from 1
+     * @param size the number of items per page
+     * @return a String containing the contents of the page
+     */
+    public String readPage(String tableName, int pageNumber, int size) {
+        return readPage(tableName, pageNumber, size, false);
+    }
+
+    /**
+     * Returns a numbered page of the specified table as a String. The page is
+     * remembered so that the following one can be read with NEXT.
+     *
+     * @param tableName the name of the table to be read
+     * @param pageNumber the number of the page, starting from 1
+     * @param size the number of items per page
+     * @param aligned whether the columns of the page are aligned
+     * @return a String containing the contents of the page
+     */
+    public String readPage(String tableName, int pageNumber, int size, boolean aligned) {
+        if (pageNumber < 1 || size < 1 || size > MAX_PAGE_SIZE) {
+            return "ERROR: page numbers start at 1 and page sizes must be between 1 and " +
+                    MAX_PAGE_SIZE + ".";
+        }
+        List<Item> items = databasePresenter.readPage(tableName, pageNumber, size);
+        return formatPage(tableName, pageNumber, size, aligned, items);
+    }
+
+    /**
+     * Returns the page following the most recently read page as a String.
+     *
+     * @return a String containing the contents of the next page
+     */
+    public String next() {
+        if (pagedTableName == null) {
+            return "ERROR: no page has been read. Enter `READ [tableName] PAGE [number] SIZE [size]` first.";
+        }
+        List<Item> items = databasePresenter.readNextPage(pagedTableName, lastPageId, pageSize);
+        return formatPage(pagedTableName, pageNumber + 1, pageSize, pageAligned, items);
+    }
+
+    /**
+     * Formats a page of a table as a String and remembers its position for NEXT.
+     *
+     * @param tableName the name of the table the page was read from
+     * @param number the number of the page
+     * @param size the number of items per page
+     * @param aligned whether the columns of the page are aligned
+     * @param items the items in the page
+     * @return a String containing the contents of the page
+     */
+    private String formatPage(String tableName, int number, int size, boolean aligned, List<Item> items) {
         if (items.isEmpty()) {
-            return "ERROR: " + tableName + " is empty.";
+            pagedTableName = null;
+            return "ERROR: page " + number + " of " + tableName + " is empty.";
         }
+        pagedTableName = tableName;
+        pageNumber = number;
+        pageSize = size;
+        pageAligned = aligned;
+        lastPageId = items.get(items.size() - 1).getId();
 
-        StringBuilder consoleOutput = new StringBuilder();
-        consoleOutput.append("Table ").append(tableName).append(" contains:\n");
+        StringWriter consoleOutput = new StringWriter();
+        // the whole page is the sample, so every row is aligned
+        TableRenderer tableRenderer = new TableRenderer(consoleOutput,
+                "Table " + tableName + " page " + number + " contains:", Table.getTable(tableName),
+                aligned, size);
+        items.forEach(tableRenderer::writeRow);
+        tableRenderer.finish();
+        if (items.size() == size) {
+            consoleOutput.append("Enter '").append(Command.NEXT.getName()).append("' for the next page.\n");
+        }
+        return consoleOutput.toString();
+    }
 
-        String[] attributeNames;
-        if (tableName.equals(Table.ITEMS.getName())) {
-            attributeNames = Item.getAttributeNamesAsArray();
-        } else {
-            attributeNames = DeletedItem.getAttributeNamesAsArray();
+    /**
+     * Returns the items whose name starts with a prefix and whose price and
+     * stock are within ranges, as a String. At most MAX_PAGE_SIZE items are
+     * shown.
+     *
+     * @param matcher contains the SEARCH command, the name prefix, the
+     *                minimum and maximum price, and the minimum and maximum
+     *                stock, each of which may be null
+     * @return a String containing the matching items
+     */
+    public String search(Matcher matcher) {
+        ItemSearch search = new ItemSearch(matcher.group(2),
+                matcher.group(3) == null ? null : Item.parseCents(matcher.group(3)),
+                matcher.group(4) == null ? null : Item.parseCents(matcher.group(4)),
+                matcher.group(5) == null ? null : Integer.valueOf(matcher.group(5)),
+                matcher.group(6) == null ? null : Integer.valueOf(matcher.group(6)));
+        if (search.isEmpty()) {
+            return "ERROR: Please enter a name prefix, a PRICE range or a STOCK range to search for.";
         }
 
-        String bar = " | ";
-        String attributeNamesBarSeparated = String.join(bar, attributeNames);
-        consoleOutput.append(attributeNamesBarSeparated).append("\n");
-        for (Item item : items) {
-            String[] values = item.getValuesAsArray();
-            String valuesBarSeparated = String.join(bar, values);
-            consoleOutput.append(valuesBarSeparated).append("\n");
+        // one more item than is shown indicates that there are more
+        List<Item> items = databasePresenter.searchItems(search, MAX_PAGE_SIZE + 1);
+        if (items.isEmpty()) {
+            return "ERROR: No items match the search.";
+        }
+        StringWriter consoleOutput = new StringWriter();
+        TableRenderer tableRenderer = new TableRenderer(consoleOutput,
+                "Items in " + Table.ITEMS.getName() + " matching the search:", Table.ITEMS);
+        items.subList(0, Math.min(items.size(), MAX_PAGE_SIZE)).forEach(tableRenderer::writeRow);
+        tableRenderer.finish();
+        if (items.size() > MAX_PAGE_SIZE) {
+            consoleOutput.append("Only the first " + MAX_PAGE_SIZE +
+                    " matching items are shown. Narrow the search to see the rest.\n");
+        }
+        return consoleOutput.toString();
+    }
+
+    /**
+     * Returns the items of both tables whose text contains every word of the
+     * input, most relevant first, as a String. Names are searched in both
+     * tables and deletion comments in deleted_items. At most DEFAULT_PAGE_SIZE
+     * items of each table are shown.
+     *
+     * @param matcher contains the FIND command and the words to be found
+     * @return a String containing the matching items of each table
+     */
+    public String find(Matcher matcher) {
+        String text = matcher.group(2);
+        StringWriter consoleOutput = new StringWriter();
+        for (Table table : Table.values()) {
+            String tableName = table.getName();
+            List<Item> items = databasePresenter.findItems(tableName, text, DEFAULT_PAGE_SIZE);
+            TableRenderer tableRenderer = new TableRenderer(consoleOutput, "Best matches in " + tableName + ":", table);
+            items.forEach(tableRenderer::writeRow);
+            tableRenderer.finish();
+        }
+        if (consoleOutput.getBuffer().isEmpty()) {
+            return "ERROR: No items match '" + text + "'.";
         }
         return consoleOutput.toString();
     }
@@ -184,8 +514,20 @@ public class DatabaseCLI {
     public String updateItem(Matcher matcher) {
         // matcher.group(1) is "update"
         String itemId = matcher.group(2);
-        String columnValuePair = matcher.group(3);
-        Item item = databasePresenter.updateItem(itemId, columnValuePair);
+        String columnValuePairs = formatColumnValuePairs(matcher.group(3));
+        IdSet ids;
+        try {
+            ids = IdSet.parse(itemId);
+        } catch (IllegalArgumentException e) {
+            return "ERROR: " + e.getMessage() + ".";
+        }
+        if (!ids.isSingleId()) {
+            return writeItems("Updated", ids, Table.ITEMS,
+                    () -> databasePresenter.updateItems(ids, columnValuePairs));
+        }
+        // a range of one id, such as 5-5, is written as that id
+        itemId = ids.toString();
+        Item item = databasePresenter.updateItem(itemId, columnValuePairs);
         if (item == null) {
             return "ERROR: Item " + itemId + " was not able to be updated.";
         }
@@ -193,6 +535,25 @@ public class DatabaseCLI {
         return "Update item " + itemId + " to have values: " + values;
     }
 
+    /**
+     * Formats the column-value pairs of an UPDATE command for SQL. Prices are
+     * entered as dollars.cents and stored in cents.
+     *
+     * @param columnValuePairs the comma-separated pairs entered by the user
+     * @return the pairs in the format stored by the items table
+     */
+    String formatColumnValuePairs(String columnValuePairs) {
+        String[] pairs = columnValuePairs.split(", ");
+        String pricePrefix = "price = ";
+        for (int i = 0; i < pairs.length; i++) {
+            if (pairs[i].regionMatches(true, 0, pricePrefix, 0, pricePrefix.length())) {
+                long priceInCents = Item.parseCents(pairs[i].substring(pricePrefix.length()));
+                pairs[i] = pricePrefix + priceInCents;
+            }
+        }
+        return String.join(", ", pairs);
+    }
+
     /**
      * Deletes an Item from a specified table.
      *
@@ -202,10 +563,18 @@ public class DatabaseCLI {
     public String delete(Matcher matcher) {
         // matcher.group(1) is "delete"
         String itemId = matcher.group(2);
-        String comment = "";
-        if (matcher.groupCount() > 2) {
-            comment = Objects.requireNonNullElse(matcher.group(3), "");
+        String comment = matcher.groupCount() > 2 ? Objects.requireNonNullElse(matcher.group(3), "") : "";
+
+        IdSet ids;
+        try {
+            ids = IdSet.parse(itemId);
+        } catch (IllegalArgumentException e) {
+            return "ERROR: " + e.getMessage() + ".";
+        }
+        if (!ids.isSingleId()) {
+            return writeItems("Deleted", ids, Table.ITEMS, () -> databasePresenter.deleteItems(ids, comment));
         }
+        itemId = ids.toString();
 
         Item item = databasePresenter.deleteItem(itemId, comment);
         if (item == null) {
@@ -225,6 +594,16 @@ public class DatabaseCLI {
     public String restore(Matcher matcher) {
         // matcher.group(1) is "restore"
         String itemId = matcher.group(2);
+        IdSet ids;
+        try {
+            ids = IdSet.parse(itemId);
+        } catch (IllegalArgumentException e) {
+            return "ERROR: " + e.getMessage() + ".";
+        }
+        if (!ids.isSingleId()) {
+            return writeItems("Restored", ids, Table.DELETED_ITEMS, () -> databasePresenter.restoreItems(ids));
+        }
+        itemId = ids.toString();
         Item restoredItem = databasePresenter.restoreItem(itemId);
 
         if (restoredItem == null) {
@@ -233,6 +612,34 @@ public class DatabaseCLI {
         return "Restored item: " + restoredItem;
     }
 
+    /**
+     * Performs a write on a set of ids and summarizes it in one line instead
+     * of listing every item.
+     *
+     * @param action the past tense of the write, such as "Deleted"
+     * @param ids the ids of the items written
+     * @param table the table the items are read from
+     * @param write the write, returning the number of items written
+     * @return a String indicating the number of items written
+     */
+    private String writeItems(String action, IdSet ids, Table table, IntSupplier write) {
+        int rows;
+        try {
+            rows = write.getAsInt();
+        } catch (RuntimeException e) {
+            return "ERROR: No items were " + action.toLowerCase() + ": " + e.getMessage();
+        }
+        if (rows == 0) {
+            return "ERROR: No items with ids " + ids + " exist in the table " + table.getName() + ".";
+        }
+        String summary = action + " " + rows + " items with ids " + ids;
+        long missingIds = ids.size() - rows;
+        if (missingIds > 0) {
+            summary += " (" + missingIds + " of the ids are not in the table " + table.getName() + ")";
+        }
+        return summary + ".";
+    }
+
     /**
      * Returns a list of valid user commands.
      *
@@ -244,16 +651,87 @@ public class DatabaseCLI {
         String itemsEnding = " the table " + Table.ITEMS.getName();
 
         stringBuilder.append("`CREATE [name] [dollar.cents] [stock]` - insert a row into").append(itemsEnding).append("\n");
+        stringBuilder.append("`IMPORT [path]` - insert the rows of a .json or .csv file into").append(itemsEnding).append(", reporting the rows that are invalid. A CSV file must start with a header naming the columns name, price and stock\n");
+        stringBuilder.append("`EXPORT [tableName] [path] [format]` - write every row of a table to a file. The format is CSV or JSON and is optional; files ending in .json are written as JSON and others as CSV\n");
         stringBuilder.append("`READ [tableName]` - view the rows from one of the following ").append(tables()).append("\n");
-        stringBuilder.append("`UPDATE [id] [columnName] = [value]` - update a value corresponding to a column name in").append(itemsEnding).append(". Text values must be quoted like 'this'\n");
+        stringBuilder.append("`READ [tableName] PAGE [number] SIZE [size]` - view one page of rows from a table. SIZE is optional\n");
+        stringBuilder.append("`READ [tableName] ALIGNED` - add ALIGNED to the end of either READ command to line up the columns of the rows\n");
+        stringBuilder.append("`NEXT` - view the page after the most recently viewed page\n");
+        stringBuilder.append("`SEARCH [namePrefix] PRICE [min]-[max] STOCK [min]-[max]` - view the rows of").append(itemsEnding).append(" whose name starts with the prefix and whose price and stock are in the ranges. Each part is optional, as is either end of a range\n");
+        stringBuilder.append("`FIND [words]` - view the rows whose name, or deletion comment, contains every word, most relevant first. End a word with * to find words starting with it\n");
+        stringBuilder.append("`UPDATE [id] [columnName] = [value]` - update a value corresponding to a column name in").append(itemsEnding).append(". Text values must be quoted like 'this'. Separate multiple columns with ', '\n");
         stringBuilder.append("`DELETE [id] [optionalComment]` - delete a row in").append(itemsEnding).append(" while providing an optional comment\n");
         stringBuilder.append("`RESTORE [id]` - restores a row with the provided id to its corresponding table\n");
+        stringBuilder.append("UPDATE, DELETE and RESTORE also accept a comma-separated list of ids and ranges of ids instead of an id (ex: `DELETE 10-500,600 recall`), changing every row in one transaction\n");
         stringBuilder.append("`HELP` - view the list of valid commands\n");
         stringBuilder.append("`TABLES` - view the list of tables\n");
+        stringBuilder.append("`SLOWLOG` - view the most recent slow SQL statements with their query plans\n");
+        stringBuilder.append("`METRICS [RESET]` - view the count and latency percentiles of each command and SQL operation. RESET discards them afterwards\n");
         stringBuilder.append("`QUIT` - exit the command-line interface");
         return stringBuilder.toString();
     }
 
+    /**
+     * Returns the count, rows and latency percentiles of each command and SQL
+     * operation recorded so far, the statistics of components such as the
+     * group commit writer, and the item cache's statistics.
+     *
+     * @param matcher contains the METRICS command and an optional RESET
+     * @return a String containing the metrics
+     */
+    public String metrics(Matcher matcher) {
+        Metrics metrics = databasePresenter.getMetrics();
+        StringBuilder consoleOutput = new StringBuilder("Commands:\n");
+        appendStatistics(consoleOutput, metrics.getCommands());
+        consoleOutput.append("SQL operations:\n");
+        appendStatistics(consoleOutput, metrics.getSQLOperations());
+        metrics.getComponents().forEach((name, statistics) ->
+                consoleOutput.append(name).append(": ").append(statistics).append('\n'));
+        consoleOutput.append("Item cache: ").append(databasePresenter.getCacheStatistics());
+        if (matcher.group(2) != null) {
+            metrics.reset();
+            consoleOutput.append("\nMetrics have been reset.");
+        }
+        return consoleOutput.toString();
+    }
+
+    /**
+     * Appends a line for each of the statistics to a StringBuilder.
+     *
+     * @param stringBuilder the StringBuilder being appended to
+     * @param statistics the statistics keyed by the name of a command or SQL operation
+     */
+    private void appendStatistics(StringBuilder stringBuilder, Map<String, LatencyHistogram.Statistics> statistics) {
+        if (statistics.isEmpty()) {
+            stringBuilder.append("  none recorded\n");
+        }
+        statistics.forEach((name, histogramStatistics) ->
+                stringBuilder.append("  ").append(name).append(": ").append(histogramStatistics).append('\n'));
+    }
+
+    /**
+     * Returns the most recent SQL statements that took at least the slow
+     * statement log's threshold, oldest first, each with its query plan.
+     *
+     * @return a String containing the slow statements
+     */
+    public String slowLog() {
+        SlowStatementLog slowStatementLog = databasePresenter.getSlowStatementLog();
+        List<SlowStatementLog.SlowStatement> slowStatements = slowStatementLog.getSlowStatements();
+        if (slowStatements.isEmpty()) {
+            return "No statements have taken " + slowStatementLog.getThresholdMillis() + " ms or longer.";
+        }
+        StringBuilder consoleOutput = new StringBuilder();
+        consoleOutput.append(slowStatements.size()).append(" most recent of ")
+                .append(slowStatementLog.getNumberOfStatementsLogged())
+                .append(" statements that took ").append(slowStatementLog.getThresholdMillis())
+                .append(" ms or longer:");
+        for (SlowStatementLog.SlowStatement slowStatement : slowStatements) {
+            consoleOutput.append("\n\n").append(slowStatement);
+        }
+        return consoleOutput.toString();
+    }
+
     /**
      * Returns a list of the tables in the Database.
      *
@@ -0,0 +1,413 @@
+package view;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import model.Item;
+import model.Table;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+import presenter.DatabasePresenter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * DatabaseHTTPServer is an HTTP interface that allows clients to interact
+ * with the Database through JSON requests. It serves the same operations as
+ * the DatabaseCLI through the DatabasePresenter:
+ *
+ * <ul>
+ *     <li>POST /items - create an item from {"name", "price", "stock"}</li>
+ *     <li>GET /[tableName] - read a table, or one page of it with ?page=[number]&amp;size=[size]</li>
+ *     <li>GET /items/[id] - read an item</li>
+ *     <li>PATCH /items/[id] - update an item's "name", "price" and/or "stock"</li>
+ *     <li>DELETE /items/[id] - delete an item with an optional {"comment"}</li>
+ *     <li>POST /deleted_items/[id]/restore - restore a deleted item</li>
+ * </ul>
+ *
+ * Each request is handled on its own virtual thread when the JDK provides
+ * them, and on a cached thread pool otherwise. Connections are kept alive
+ * between requests.
+ *
+ * @author Liam Tripp
+ */
+public class DatabaseHTTPServer {
+
+    private final DatabasePresenter databasePresenter;
+    private final HttpServer httpServer;
+    private final ExecutorService executor;
+    public final static int DEFAULT_PORT = 8080;
+    /** the number of connections waiting to be accepted before new ones are refused */
+    private final static int BACKLOG = 1024;
+    private final static String JSON_CONTENT_TYPE = "application/json; charset=utf-8";
+    private final static String RESTORE = "restore";
+    /** the methods routed to an operation; requests with any other method are recorded together */
+    private final static Set<String> SUPPORTED_METHODS = Set.of("GET", "POST", "PATCH", "DELETE");
+    private final static String UNSUPPORTED_METHOD = "other";
+    /**
+     * The system property that makes the JDK's HTTP server set TCP_NODELAY.
+     * Without it, each small response on a kept-alive connection waits for
+     * the client's delayed acknowledgement (about 40 ms). The server reads it
+     * once, when the first server is created, so it must be set before then,
+     * such as on the command line with -Dsun.net.httpserver.nodelay=true.
+     */
+    public final static String NODELAY_PROPERTY = "sun.net.httpserver.nodelay";
+    /** names follow the same rule as the CREATE and UPDATE commands */
+    private final static Pattern NAME_PATTERN = Pattern.compile("\\w+");
+
+    /**
+     * Constructor for DatabaseHTTPServer. The server only accepts requests
+     * once start is called.
+     *
+     * @param databasePresenter the presenter through which the database is accessed
+     * @param port the port to listen on, or 0 to use any free port
+     */
+    public DatabaseHTTPServer(DatabasePresenter databasePresenter, int port) {
+        this.databasePresenter = databasePresenter;
+        executor = createRequestExecutor();
+        try {
+            httpServer = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        httpServer.setExecutor(executor);
+        httpServer.createContext("/", this::handle);
+    }
+
+    /**
+     * Returns an executor that runs each task on a new virtual thread if the
+     * JDK supports them, or a cached pool of platform threads otherwise.
+     *
+     * @return the executor for requests
+     */
+    public static ExecutorService createRequestExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            // virtual threads are unavailable before JDK 21
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "http-request");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Starts accepting requests.
+     */
+    public void start() {
+        httpServer.start();
+    }
+
+    /**
+     * Stops accepting requests and waits briefly for those in progress to finish.
+     */
+    public void stop() {
+        httpServer.stop(1);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns the port the server listens on.
+     *
+     * @return the port the server listens on
+     */
+    public int getPort() {
+        return httpServer.getAddress().getPort();
+    }
+
+    /**
+     * Routes a request to the operation for its method and path, then sends
+     * the operation's response.
+     *
+     * @param exchange the request and its response
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        long startTime = System.nanoTime();
+        Response response;
+        try {
+            response = route(exchange);
+        } catch (NumberFormatException | ArithmeticException | ClassCastException | ParseException e) {
+            response = Response.error(400, "Bad request formatting: " + e.getMessage());
+        } catch (RuntimeException e) {
+            // the message may contain SQL and other internal details, so it is only logged
+            System.err.println(exchange.getRequestMethod() + " " + exchange.getRequestURI() + " failed: " + e);
+            response = Response.error(500, "The request could not be completed.");
+        }
+        send(exchange, response);
+        // the method is chosen by the client, so recording every one would let it add histograms without end
+        String method = exchange.getRequestMethod();
+        databasePresenter.getMetrics().recordCommand("HTTP " +
+                (SUPPORTED_METHODS.contains(method) ? method : UNSUPPORTED_METHOD), System.nanoTime() - startTime);
+    }
+
+    /**
+     * Performs the operation for a request's method and path.
+     *
+     * @param exchange the request
+     * @return the response to the request
+     */
+    private Response route(HttpExchange exchange) throws IOException, ParseException {
+        URI uri = exchange.getRequestURI();
+        String[] path = uri.getPath().substring(1).split("/");
+        String method = exchange.getRequestMethod();
+        Table table = Table.getTable(path[0]);
+        if (table == null) {
+            return Response.error(404, "Tables are: " + Table.ITEMS.getName() + ", " +
+                    Table.DELETED_ITEMS.getName());
+        }
+
+        if (path.length == 1) {
+            if (method.equals("GET")) {
+                return read(table, getQueryParameters(uri));
+            } else if (method.equals("POST") && table == Table.ITEMS) {
+                return create(readJSONObject(exchange));
+            }
+        } else if (path.length == 2 && table == Table.ITEMS) {
+            int itemId = Integer.parseInt(path[1]);
+            switch (method) {
+                case "GET" -> {
+                    return respondWithItem(databasePresenter.getItem(itemId), itemId);
+                }
+                case "PATCH" -> {
+                    return update(itemId, readJSONObject(exchange));
+                }
+                case "DELETE" -> {
+                    JSONObject body = readJSONObject(exchange);
+                    String comment = Objects.requireNonNullElse((String) body.get("comment"), "");
+                    return respondWithItem(databasePresenter.deleteItem(String.valueOf(itemId), comment), itemId);
+                }
+            }
+        } else if (path.length == 3 && table == Table.DELETED_ITEMS && path[2].equals(RESTORE) &&
+                method.equals("POST")) {
+            int itemId = Integer.parseInt(path[1]);
+            return respondWithItem(databasePresenter.restoreItem(String.valueOf(itemId)), itemId);
+        }
+        return Response.error(405, method + " is not supported for " + uri.getPath());
+    }
+
+    /**
+     * Creates an item from a JSONObject with a name, price and stock.
+     *
+     * @param body the item as a JSONObject
+     * @return the created item with its id
+     */
+    private Response create(JSONObject body) {
+        String name = (String) body.get("name");
+        if (name == null || !NAME_PATTERN.matcher(name).matches()) {
+            return Response.error(400, "The name must be one word with alphanumeric characters.");
+        }
+        long priceInCents = Item.parseCents(String.valueOf(body.get("price")));
+        if (priceInCents < 0) {
+            return Response.error(400, "The price must not be negative.");
+        }
+        Object stock = body.containsKey("stock") ? body.get("stock") : Long.valueOf(0);
+        if (!isValidStock(stock)) {
+            return Response.error(400, "The stock must be a non-negative integer.");
+        }
+        Item item = new Item(-1, name, priceInCents, ((Long) stock).intValue());
+        return new Response(201, databasePresenter.createItem(item).toJSONObject().toJSONString());
+    }
+
+    /**
+     * Indicates whether a value of a JSON request is a valid stock, which is
+     * an integer that is neither negative nor too large for the items table.
+     *
+     * @param stock the value, which JSON parses as a Long if it is an integer
+     * @return true if the value is a valid stock, false otherwise
+     */
+    private static boolean isValidStock(Object stock) {
+        return stock instanceof Long value && value >= 0 && value <= Integer.MAX_VALUE;
+    }
+
+    /**
+     * Returns the items of a table as a JSON array, or one page of them if
+     * the "page" query parameter is given.
+     *
+     * @param table the table to be read
+     * @param queryParameters the request's query parameters
+     * @return the items as a JSON array
+     */
+    private Response read(Table table, Map<String, String> queryParameters) {
+        StringBuilder items = new StringBuilder("[");
+        if (queryParameters.containsKey("page")) {
+            int pageNumber = Integer.parseInt(queryParameters.get("page"));
+            int pageSize = Integer.parseInt(queryParameters.getOrDefault("size",
+                    String.valueOf(DatabaseCLI.DEFAULT_PAGE_SIZE)));
+            if (pageNumber < 1 || pageSize < 1 || pageSize > DatabaseCLI.MAX_PAGE_SIZE) {
+                return Response.error(400, "Page numbers start at 1 and page sizes must be between 1 and " +
+                        DatabaseCLI.MAX_PAGE_SIZE + ".");
+            }
+            for (Item item : databasePresenter.readPage(table.getName(), pageNumber, pageSize)) {
+                appendItem(items, item);
+            }
+        } else {
+            databasePresenter.readFromTable(table.getName(), item -> appendItem(items, item));
+        }
+        return new Response(200, items.append(']').toString());
+    }
+
+    /**
+     * Appends an item to a JSON array being built.
+     *
+     * @param items the JSON array being built
+     * @param item the item to be appended
+     */
+    private static void appendItem(StringBuilder items, Item item) {
+        if (items.length() > 1) {
+            items.append(',');
+        }
+        items.append(item.toJSONObject().toJSONString());
+    }
+
+    /**
+     * Updates the name, price and/or stock of an item.
+     *
+     * @param itemId the id of the item
+     * @param body the new values of the item as a JSONObject
+     * @return the updated item
+     */
+    private Response update(int itemId, JSONObject body) {
+        List<String> columnValuePairs = new ArrayList<>();
+        if (body.containsKey("name")) {
+            String name = (String) body.get("name");
+            if (name == null || !NAME_PATTERN.matcher(name).matches()) {
+                return Response.error(400, "The name must be one word with alphanumeric characters.");
+            }
+            columnValuePairs.add("name = '" + name + "'");
+        }
+        if (body.containsKey("price")) {
+            long priceInCents = Item.parseCents(String.valueOf(body.get("price")));
+            if (priceInCents < 0) {
+                return Response.error(400, "The price must not be negative.");
+            }
+            columnValuePairs.add("price = " + priceInCents);
+        }
+        if (body.containsKey("stock")) {
+            Object stock = body.get("stock");
+            if (!isValidStock(stock)) {
+                return Response.error(400, "The stock must be a non-negative integer.");
+            }
+            columnValuePairs.add("stock = " + stock);
+        }
+        if (columnValuePairs.isEmpty()) {
+            return Response.error(400, "Provide a name, price and/or stock to update.");
+        }
+        Item item = databasePresenter.updateItem(String.valueOf(itemId), String.join(", ", columnValuePairs));
+        return respondWithItem(item, itemId);
+    }
+
+    /**
+     * Returns a response containing an item, or an error if it does not exist.
+     *
+     * @param item the item, may be null
+     * @param itemId the id of the item
+     * @return the item as JSON, or a 404 error if it is null
+     */
+    private static Response respondWithItem(Item item, int itemId) {
+        if (item == null) {
+            return Response.error(404, "Item " + itemId + " does not exist.");
+        }
+        return new Response(200, item.toJSONObject().toJSONString());
+    }
+
+    /**
+     * Returns the body of a request as a JSONObject.
+     *
+     * @param exchange the request
+     * @return the body as a JSONObject, which is empty if there is no body
+     */
+    private static JSONObject readJSONObject(HttpExchange exchange) throws IOException, ParseException {
+        byte[] body = exchange.getRequestBody().readAllBytes();
+        if (body.length == 0) {
+            return new JSONObject();
+        }
+        Object json = new JSONParser().parse(new InputStreamReader(
+                new ByteArrayInputStream(body), StandardCharsets.UTF_8));
+        return (JSONObject) json;
+    }
+
+    /**
+     * Returns the query parameters of a URI.
+     *
+     * @param uri the URI
+     * @return the query parameters keyed by name
+     */
+    private static Map<String, String> getQueryParameters(URI uri) {
+        Map<String, String> queryParameters = new HashMap<>();
+        String query = uri.getQuery();
+        if (query == null) {
+            return queryParameters;
+        }
+        for (String parameter : query.split("&")) {
+            int separator = parameter.indexOf('=');
+            if (separator > 0) {
+                queryParameters.put(parameter.substring(0, separator), parameter.substring(separator + 1));
+            }
+        }
+        return queryParameters;
+    }
+
+    /**
+     * Sends a response with a content length so that the connection can be
+     * reused by the client.
+     *
+     * @param exchange the request being responded to
+     * @param response the response to be sent
+     */
+    private static void send(HttpExchange exchange, Response response) throws IOException {
+        byte[] body = response.body().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", JSON_CONTENT_TYPE);
+        exchange.sendResponseHeaders(response.status(), body.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(body);
+        }
+    }
+
+    /**
+     * Response is the status and JSON body of a response.
+     *
+     * @param status the HTTP status code
+     * @param body the JSON body
+     */
+    private record Response(int status, String body) {
+
+        /**
+         * Returns a response containing an error message.
+         *
+         * @param status the HTTP status code
+         * @param message the error message
+         * @return the error response
+         */
+        @SuppressWarnings("unchecked")
+        static Response error(int status, String message) {
+            JSONObject error = new JSONObject();
+            error.put("error", message);
+            return new Response(status, error.toJSONString());
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package view;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -11,33 +13,37 @@ import java.util.regex.Pattern;
  */
 public class InputMatcher {
 
+    /** Regular Expressions compiled by getMatcher, keyed by their source */
+    private static final Map<String, Pattern> COMPILED_PATTERNS = new ConcurrentHashMap<>();
+
     /**
-     * Matches an input to one of the Command's Regexes.
+     * Matches an input to the Regex of the Command named by its first token.
+     * The input is matched once; the returned matcher's groups can be read
+     * directly.
      *
      * @param userInput the user's input
      * @return a matcher matching the user's input, null otherwise
      */
     public Matcher matchInputToCommandRegex(String userInput) {
-        Matcher matcher = null;
-        for (Command command : Command.values()) {
-            matcher = getMatcher(command.getRegex(), userInput);
-            if (matcher.matches()) {
-                matcher.reset();
-                return matcher;
-            }
+        Command command = Command.getCommandForInput(userInput);
+        if (command == null) {
+            return null;
         }
-        return matcher;
+        Matcher matcher = command.getPattern().matcher(userInput);
+        return matcher.matches() ? matcher : null;
     }
 
     /**
-     * Returns a Matcher matching input to a given Regular Expression.
+     * Returns a Matcher matching input to a given Regular Expression. Each
+     * Regular Expression is only compiled once.
      *
      * @param regex a Regular Expression to capture
      * @param userInput the input to the matcher
      * @return the matcher after matching the userInput to the regex
      */
     public Matcher getMatcher(String regex, String userInput) {
-        Pattern createPattern = Pattern.compile(regex, Pattern.CASE_INSENSITIVE);
+        Pattern createPattern = COMPILED_PATTERNS.computeIfAbsent(regex,
+                key -> Pattern.compile(key, Pattern.CASE_INSENSITIVE));
         return createPattern.matcher(userInput);
     }
 
@@ -45,18 +51,23 @@ public class InputMatcher {
      * Returns a String indicating whether the Matcher has an error.
      * Also prepares the matcher to be used.
      *
-     * @param matcher the matcher being examined
+     * @param matcher the matcher being examined, may be null
      * @return a String with an error statement if there is an error, "" otherwise
      */
     public String validateMatcher(Matcher matcher) {
-        if (!matcher.matches()) {
-            return "Bad input formatting. Enter '" + Command.HELP.getName() +
-                    "' for options.";
-        }
-        matcher.reset();
-        if (!matcher.find()) {
-            return "Matcher.find() fail.";
+        if (matcher == null || !matcher.matches()) {
+            return getFormattingError();
         }
         return "";
     }
+
+    /**
+     * Returns the error for an input that does not match any Command.
+     *
+     * @return the error for an input that does not match any Command
+     */
+    public String getFormattingError() {
+        return "Bad input formatting. Enter '" + Command.HELP.getName() +
+                "' for options.";
+    }
 }
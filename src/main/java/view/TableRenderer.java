@@ -0,0 +1,241 @@
+package view;
+
+import model.DeletedItem;
+import model.Item;
+import model.Table;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TableRenderer writes the rows of a table to a Writer as they are read, so
+ * that the first rows can be shown before the last ones are read and no
+ * more than a row is held in memory. Values are separated by bars.
+ *
+ * Columns may be aligned. As the widths of the columns are not known until
+ * every row has been read, they are computed from a sample of the first
+ * rows, which are held until the sample is complete. Later values wider
+ * than their column are written in full, pushing the rest of their row to
+ * the right.
+ *
+ * The title and the column names are only written along with the first
+ * row, so nothing is written for an empty table.
+ *
+ * @author Liam Tripp
+ */
+public class TableRenderer {
+
+    public final static int DEFAULT_SAMPLE_SIZE = 100;
+    /** the widest an aligned column is made, so that one long name does not widen every row */
+    public final static int MAX_COLUMN_WIDTH = 40;
+    private final static String BAR = " | ";
+    private final static String SPACES = " ".repeat(MAX_COLUMN_WIDTH);
+
+    private final Writer writer;
+    private final String title;
+    private final String[] columnNames;
+    private final boolean hasComment;
+    private final int sampleSize;
+    /** the values of the rows held until the widths are known, null once they are */
+    private List<String[]> sample;
+    private int[] columnWidths;
+    private int rows;
+
+    /**
+     * Constructor for TableRenderer.
+     *
+     * @param writer the Writer the table is written to
+     * @param title the line written before the column names, without a line break
+     * @param table the table being rendered
+     * @param aligned whether the columns are aligned
+     * @param sampleSize the number of rows from which the widths of aligned
+     *                   columns are computed
+     */
+    public TableRenderer(Writer writer, String title, Table table, boolean aligned, int sampleSize) {
+        if (sampleSize < 1) {
+            throw new IllegalArgumentException("Sample size must be at least 1.");
+        }
+        this.writer = writer;
+        this.title = title;
+        hasComment = table == Table.DELETED_ITEMS;
+        columnNames = hasComment ? DeletedItem.getAttributeNamesAsArray() : Item.getAttributeNamesAsArray();
+        this.sampleSize = sampleSize;
+        sample = aligned ? new ArrayList<>() : null;
+    }
+
+    /**
+     * Constructor for TableRenderer with unaligned columns.
+     *
+     * @param writer the Writer the table is written to
+     * @param title the line written before the column names, without a line break
+     * @param table the table being rendered
+     */
+    public TableRenderer(Writer writer, String title, Table table) {
+        this(writer, title, table, false, DEFAULT_SAMPLE_SIZE);
+    }
+
+    /**
+     * Returns the number of rows rendered so far.
+     *
+     * @return the number of rows rendered
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Writes a row, or holds it until the sample of an aligned table is
+     * complete.
+     *
+     * @param item the item in the row
+     */
+    public void writeRow(Item item) {
+        rows++;
+        if (sample != null) {
+            sample.add(getValues(item));
+            if (sample.size() == sampleSize) {
+                writeSample();
+            }
+            return;
+        }
+        if (rows == 1) {
+            writeHeader();
+        }
+        String comment = getComment(item);
+        writeCell(0, String.valueOf(item.getId()), false);
+        writeCell(1, item.getName(), false);
+        writeCell(2, Item.formatCents(item.getPriceInCents()), false);
+        writeCell(3, String.valueOf(item.getStock()), comment == null);
+        if (comment != null) {
+            writeCell(4, comment, true);
+        }
+    }
+
+    /**
+     * Writes the rows still held in the sample and flushes the Writer. The
+     * renderer must not be used afterwards.
+     */
+    public void finish() {
+        if (sample != null && !sample.isEmpty()) {
+            writeSample();
+        }
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the values shown for an item, like getValuesAsArray.
+     *
+     * @param item the item
+     * @return the values of the item's columns
+     */
+    private String[] getValues(Item item) {
+        String[] values = {String.valueOf(item.getId()), item.getName(),
+                Item.formatCents(item.getPriceInCents()), String.valueOf(item.getStock())};
+        String comment = getComment(item);
+        return comment == null ? values : new String[]{values[0], values[1], values[2], values[3], comment};
+    }
+
+    /**
+     * Returns the comment shown for an item, like getValuesAsArray.
+     *
+     * @param item the item
+     * @return the item's deletion comment, null if it has none or it is blank
+     */
+    private String getComment(Item item) {
+        if (hasComment && item instanceof DeletedItem deletedItem && !deletedItem.getComment().isBlank()) {
+            return deletedItem.getComment();
+        }
+        return null;
+    }
+
+    /**
+     * Computes the widths of the columns from the sample, then writes the
+     * header and the sampled rows.
+     */
+    private void writeSample() {
+        columnWidths = new int[columnNames.length];
+        for (int column = 0; column < columnNames.length; column++) {
+            columnWidths[column] = columnNames[column].length();
+        }
+        for (String[] values : sample) {
+            for (int column = 0; column < values.length; column++) {
+                columnWidths[column] = Math.max(columnWidths[column], values[column].length());
+            }
+        }
+        for (int column = 0; column < columnWidths.length; column++) {
+            columnWidths[column] = Math.min(columnWidths[column], MAX_COLUMN_WIDTH);
+        }
+
+        writeHeader();
+        for (String[] values : sample) {
+            writeValues(values);
+        }
+        sample = null;
+    }
+
+    /**
+     * Writes the title and the column names.
+     */
+    private void writeHeader() {
+        write(title);
+        write("\n");
+        writeValues(columnNames);
+    }
+
+    /**
+     * Writes the values of a row.
+     *
+     * @param values the values of the row
+     */
+    private void writeValues(String[] values) {
+        for (int column = 0; column < values.length; column++) {
+            writeCell(column, values[column], column == values.length - 1);
+        }
+    }
+
+    /**
+     * Writes a value, preceded by a bar unless it is in the first column.
+     * The value is padded to the width of its column unless it is the last
+     * of its row, so that no line ends with spaces.
+     *
+     * @param column the index of the value's column
+     * @param value the value
+     * @param last whether the value is the last of its row
+     */
+    private void writeCell(int column, String value, boolean last) {
+        if (column > 0) {
+            write(BAR);
+        }
+        write(value);
+        if (last) {
+            write("\n");
+        } else if (columnWidths != null && value.length() < columnWidths[column]) {
+            write(SPACES, columnWidths[column] - value.length());
+        }
+    }
+
+    private void write(String text) {
+        write(text, text.length());
+    }
+
+    /**
+     * Writes the start of a text.
+     *
+     * @param text the text
+     * @param length the number of characters written
+     */
+    private void write(String text, int length) {
+        try {
+            writer.write(text, 0, length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
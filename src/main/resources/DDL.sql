@@ -1,5 +1,6 @@
 DROP TABLE IF EXISTS items;
 DROP TABLE IF EXISTS deleted_items;
+DROP TABLE IF EXISTS metadata;
 
 CREATE TABLE IF NOT EXISTS items (
   id INTEGER PRIMARY KEY,
@@ -10,8 +11,14 @@ CREATE TABLE IF NOT EXISTS items (
     price >= 0 AND
     stock >= 0));
 
+-- used by SEARCH; name is indexed without case so that prefixes can be found in any case
+CREATE INDEX IF NOT EXISTS items_name ON items(name COLLATE NOCASE);
+CREATE INDEX IF NOT EXISTS items_price ON items(price);
+CREATE INDEX IF NOT EXISTS items_stock ON items(stock);
+
+-- id is the rowid, as deleted_items_fts in FTS.sql indexes rows by it
 CREATE TABLE IF NOT EXISTS deleted_items (
-  id INTEGER UNIQUE,
+  id INTEGER PRIMARY KEY,
   name VARCHAR(50) NOT NULL,
   price NUMERIC(15,2),
   stock INTEGER,
@@ -19,3 +26,7 @@ CREATE TABLE IF NOT EXISTS deleted_items (
   CHECK (length(name) > 0 AND
     price >= 0 AND
     stock >= 0));
+
+CREATE TABLE IF NOT EXISTS metadata (
+  key TEXT PRIMARY KEY,
+  value TEXT NOT NULL);
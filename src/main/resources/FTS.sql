@@ -0,0 +1,44 @@
+DROP TABLE IF EXISTS items_fts;
+DROP TABLE IF EXISTS deleted_items_fts;
+
+-- full-text indexes used by FIND. They store no text of their own, only the
+-- index of the text in items and deleted_items, and are kept in sync with
+-- them by the triggers below
+CREATE VIRTUAL TABLE IF NOT EXISTS items_fts USING fts5(
+  name,
+  content = 'items',
+  content_rowid = 'id');
+
+CREATE VIRTUAL TABLE IF NOT EXISTS deleted_items_fts USING fts5(
+  name,
+  comment,
+  content = 'deleted_items',
+  content_rowid = 'id');
+
+CREATE TRIGGER IF NOT EXISTS items_fts_insert AFTER INSERT ON items BEGIN
+  INSERT INTO items_fts(rowid, name) VALUES (new.id, new.name);
+END;
+
+CREATE TRIGGER IF NOT EXISTS items_fts_delete AFTER DELETE ON items BEGIN
+  INSERT INTO items_fts(items_fts, rowid, name) VALUES ('delete', old.id, old.name);
+END;
+
+CREATE TRIGGER IF NOT EXISTS items_fts_update AFTER UPDATE OF id, name ON items BEGIN
+  INSERT INTO items_fts(items_fts, rowid, name) VALUES ('delete', old.id, old.name);
+  INSERT INTO items_fts(rowid, name) VALUES (new.id, new.name);
+END;
+
+CREATE TRIGGER IF NOT EXISTS deleted_items_fts_insert AFTER INSERT ON deleted_items BEGIN
+  INSERT INTO deleted_items_fts(rowid, name, comment) VALUES (new.id, new.name, new.comment);
+END;
+
+CREATE TRIGGER IF NOT EXISTS deleted_items_fts_delete AFTER DELETE ON deleted_items BEGIN
+  INSERT INTO deleted_items_fts(deleted_items_fts, rowid, name, comment)
+    VALUES ('delete', old.id, old.name, old.comment);
+END;
+
+CREATE TRIGGER IF NOT EXISTS deleted_items_fts_update AFTER UPDATE OF id, name, comment ON deleted_items BEGIN
+  INSERT INTO deleted_items_fts(deleted_items_fts, rowid, name, comment)
+    VALUES ('delete', old.id, old.name, old.comment);
+  INSERT INTO deleted_items_fts(rowid, name, comment) VALUES (new.id, new.name, new.comment);
+END;
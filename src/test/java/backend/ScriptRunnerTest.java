@@ -0,0 +1,122 @@
+package backend;
+
+import model.Database;
+import model.Table;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import presenter.DatabasePresenter;
+import view.DatabaseCLI;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ScriptRunnerTest ensures that scripts are executed through the DatabaseCLI
+ * with their writes grouped into transactions.
+ *
+ * @author Liam Tripp
+ */
+public class ScriptRunnerTest {
+
+    private Database database;
+    private DatabasePresenter databasePresenter;
+    private DatabaseCLI databaseCLI;
+    private ByteArrayOutputStream output;
+
+    @BeforeEach
+    void setup() {
+        database = new Database();
+        database.initializeDatabase();
+        databasePresenter = new DatabasePresenter();
+        databasePresenter.addDatabase(database);
+        databaseCLI = new DatabaseCLI();
+        databaseCLI.addPresenter(databasePresenter);
+        output = new ByteArrayOutputStream();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (!databaseCLI.userWantsToQuit()) {
+            databaseCLI.quit();
+        }
+    }
+
+    /**
+     * Runs a script with the provided transaction size.
+     *
+     * @param script the lines of the script
+     * @param transactionSize the maximum number of writes per transaction
+     * @return a summary of the run
+     */
+    ScriptReport runScript(String script, int transactionSize) {
+        ScriptRunner scriptRunner = new ScriptRunner(databaseCLI, databasePresenter, transactionSize,
+                new PrintStream(output, true, StandardCharsets.UTF_8));
+        return scriptRunner.run(new BufferedReader(new StringReader(script)));
+    }
+
+    @Test
+    void testWritesGroupedIntoTransactions() {
+        StringBuilder script = new StringBuilder("# restock\n\n");
+        for (int i = 0; i < 10; i++) {
+            script.append("CREATE item").append(i).append(" 1.50 ").append(i).append('\n');
+        }
+        script.append("READ items PAGE 1\n");
+
+        ScriptReport scriptReport = runScript(script.toString(), 4);
+        assertEquals(11, scriptReport.commands());
+        assertEquals(10, scriptReport.writes());
+        assertEquals(0, scriptReport.errors());
+        assertEquals(3, scriptReport.transactions());
+        assertEquals(10, database.getSizeOfTable(Table.ITEMS.getName()));
+        assertTrue(scriptReport.medianLatencyNanos() <= scriptReport.p99LatencyNanos());
+        assertTrue(scriptReport.p99LatencyNanos() <= scriptReport.maxLatencyNanos());
+    }
+
+    @Test
+    void testErrorsDoNotStopScript() {
+        String script = """
+                CREATE first 1.00 1
+                CREATE
+                DELETE 50
+                CREATE second 2.00 2
+                """;
+
+        ScriptReport scriptReport = runScript(script, 100);
+        assertEquals(4, scriptReport.commands());
+        assertEquals(2, scriptReport.errors());
+        assertEquals(1, scriptReport.transactions());
+        assertEquals(2, database.getSizeOfTable(Table.ITEMS.getName()));
+        String consoleOutput = output.toString(StandardCharsets.UTF_8);
+        assertTrue(consoleOutput.contains("Line 2: "));
+        assertTrue(consoleOutput.contains("Line 3: ERROR"));
+    }
+
+    @Test
+    void testQuitCommitsAndStopsScript() {
+        String script = """
+                CREATE first 1.00 1
+                QUIT
+                CREATE second 2.00 2
+                """;
+
+        ScriptReport scriptReport = runScript(script, 100);
+        assertEquals(2, scriptReport.commands());
+        assertEquals(1, scriptReport.transactions());
+        assertTrue(databaseCLI.userWantsToQuit());
+
+        Database reopenedDatabase = new Database();
+        assertEquals(1, reopenedDatabase.getSizeOfTable(Table.ITEMS.getName()));
+        reopenedDatabase.shutdown();
+    }
+
+    @Test
+    void testInvalidTransactionSize() {
+        assertThrows(IllegalArgumentException.class, () -> runScript("", 0));
+    }
+}
@@ -0,0 +1,103 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ConnectionPoolTest ensures that the Database's reader connections can be
+ * used by multiple threads while another thread writes.
+ *
+ * @author Liam Tripp
+ */
+public class ConnectionPoolTest {
+
+    private final static int NUMBER_OF_ROWS = 1000;
+    private final static int NUMBER_OF_READ_THREADS = 4;
+    private final static long DURATION_MILLIS = 500;
+
+    /**
+     * Runs reader threads against the database while one thread inserts
+     * items, checking that every read and write is correct. Their
+     * throughput is measured by ConcurrencyBenchmark in the benchmarks.
+     *
+     * @param numberOfReaders the number of reader connections in the pool
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {0, NUMBER_OF_READ_THREADS})
+    void testConcurrentReadsWithWriter(int numberOfReaders) throws InterruptedException {
+        Database database = new Database(Database.DEFAULT_FILE_NAME, numberOfReaders);
+        database.initializeDatabase();
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < NUMBER_OF_ROWS; i++) {
+            items.add(new Item(-1, "item" + i, "1.99", i));
+        }
+        database.bulkInsert(items);
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong reads = new AtomicLong();
+        List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> threads = new ArrayList<>();
+        List<Integer> insertedIds = Collections.synchronizedList(new ArrayList<>());
+
+        for (int i = 0; i < NUMBER_OF_READ_THREADS; i++) {
+            threads.add(new Thread(() -> {
+                try {
+                    while (running.get()) {
+                        int itemId = ThreadLocalRandom.current().nextInt(1, NUMBER_OF_ROWS + 1);
+                        Item item = database.selectById(Table.ITEMS, itemId);
+                        assertEquals("item" + (itemId - 1), item.getName());
+                        reads.incrementAndGet();
+                    }
+                } catch (Throwable t) {
+                    errors.add(t);
+                }
+            }));
+        }
+        threads.add(new Thread(() -> {
+            try {
+                while (running.get()) {
+                    insertedIds.add(database.insertItem(new Item(-1, "written", "2.50", 1)));
+                }
+            } catch (Throwable t) {
+                errors.add(t);
+            }
+        }));
+
+        threads.forEach(Thread::start);
+        Thread.sleep(DURATION_MILLIS);
+        running.set(false);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertTrue(errors.isEmpty(), errors.toString());
+        assertTrue(reads.get() > 0);
+        assertFalse(insertedIds.isEmpty());
+        for (int itemId : insertedIds) {
+            assertNotNull(database.selectById(Table.ITEMS, itemId));
+        }
+        assertEquals(NUMBER_OF_ROWS + insertedIds.size(), database.getSizeOfTable(Table.ITEMS.getName()));
+        database.shutdown();
+    }
+
+    @Test
+    void testReaderSeesWritesOfWriter() {
+        Database database = new Database(Database.DEFAULT_FILE_NAME, 2);
+        database.initializeDatabase();
+        int itemId = database.insertItem(new Item(-1, "testItem", "1.00", 1));
+        assertNotNull(database.selectById(Table.ITEMS, itemId));
+        database.deleteById(Table.ITEMS, itemId);
+        assertNull(database.selectById(Table.ITEMS, itemId));
+        database.shutdown();
+    }
+}
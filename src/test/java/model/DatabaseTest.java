@@ -7,6 +7,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -73,6 +77,18 @@ public class DatabaseTest {
         assertEquals(itemsJSONArray.size(), database.getSizeOfTable(Table.ITEMS.getName()));
     }
 
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3, 1000})
+    void testBulkInsertWithBatchSizes(int batchSize) {
+        List<Item> items = List.of(testItem, testItem, testItem, testItem, testItem);
+        database.setBatchSize(batchSize);
+        LoadReport loadReport = database.bulkInsert(items);
+
+        assertEquals(items.size(), loadReport.rows());
+        assertEquals(items.size(), database.getSizeOfTable(Table.ITEMS.getName()));
+        assertEquals(testItem, database.selectById(Table.ITEMS, 1));
+    }
+
     @ParameterizedTest
     @ValueSource(strings = {"1", "-1"})
         // empty table, invalid id
@@ -144,4 +160,340 @@ public class DatabaseTest {
         database.deleteFromTable(Table.ITEMS.getName(), String.valueOf(invalidId));
         assertEquals(1, database.getSizeOfTable(Table.ITEMS.getName()));
     }
+
+    @Test
+    void testInsertItemReturnsGeneratedId() {
+        int firstId = database.insertItem(testItem);
+        int secondId = database.insertItem(testItem);
+        assertEquals(1, firstId);
+        assertEquals(2, secondId);
+        assertEquals(testItem, database.selectById(Table.ITEMS, firstId));
+    }
+
+    @Test
+    void testSelectByIdWithInvalidIdProducesNull() {
+        database.insertItem(testItem);
+        assertNull(database.selectById(Table.ITEMS, 2));
+    }
+
+    @Test
+    void testInsertDeletedItemWithComment() {
+        DeletedItem deletedItem = new DeletedItem(testItem, "comment");
+        database.insert(Table.DELETED_ITEMS, deletedItem);
+        assertEquals(deletedItem, database.selectById(Table.DELETED_ITEMS, testItem.getId()));
+    }
+
+    @Test
+    void testDeleteByIdReturnsNumberOfRowsDeleted() {
+        database.insertItem(testItem);
+        assertEquals(0, database.deleteById(Table.ITEMS, 2));
+        assertEquals(1, database.deleteById(Table.ITEMS, testItem.getId()));
+        assertTrue(database.selectAll(Table.ITEMS).isEmpty());
+    }
+
+    @Test
+    void testForEachItemReadsEveryPage() {
+        int numberOfItems = Database.DEFAULT_PAGE_SIZE * 2 + 1;
+        database.bulkInsert(Collections.nCopies(numberOfItems, testItem));
+
+        List<Integer> itemIds = new ArrayList<>();
+        database.forEachItem(Table.ITEMS, item -> itemIds.add(item.getId()));
+        assertEquals(numberOfItems, itemIds.size());
+        for (int i = 0; i < numberOfItems; i++) {
+            assertEquals(i + 1, itemIds.get(i));
+        }
+    }
+
+    @Test
+    void testRowMapperResolvesColumnsInAnyOrder() throws SQLException {
+        Item item = new Item(1, "testItem", "3.05", 2);
+        database.insertItem(item);
+
+        ResultSet resultSet = database.getResultSet(Table.ITEMS.getName(), "stock, price, name, id", "");
+        ItemRowMapper rowMapper = ItemRowMapper.forTable(resultSet, Table.ITEMS);
+        assertTrue(resultSet.next());
+        assertEquals(item, rowMapper.mapRow(resultSet));
+        resultSet.close();
+    }
+
+    @Test
+    void testRowMapperCreatesDeletedItems() throws SQLException {
+        DeletedItem deletedItem = new DeletedItem(testItem, "comment");
+        database.insert(Table.DELETED_ITEMS, deletedItem);
+
+        ResultSet resultSet = database.getResultSet(Table.DELETED_ITEMS.getName(), "*", "");
+        ItemRowMapper rowMapper = ItemRowMapper.forTable(resultSet, Table.DELETED_ITEMS);
+        assertTrue(resultSet.next());
+        assertEquals(deletedItem, rowMapper.mapRow(resultSet));
+        resultSet.close();
+    }
+
+    @Test
+    void testMoveToDeletedItemsAndRestore() {
+        database.insertItem(testItem);
+        DeletedItem deletedItem = database.moveToDeletedItems(testItem.getId(), "comment");
+        assertEquals(new DeletedItem(testItem, "comment"), deletedItem);
+        assertEquals(0, database.getSizeOfTable(Table.ITEMS.getName()));
+
+        Item restoredItem = database.restoreFromDeletedItems(testItem.getId());
+        assertEquals(testItem, restoredItem);
+        assertEquals(0, database.getSizeOfTable(Table.DELETED_ITEMS.getName()));
+        assertNull(database.restoreFromDeletedItems(testItem.getId()));
+    }
+
+    @Test
+    void testFailedMoveIsRolledBack() {
+        database.insertItem(testItem);
+        // the id is unique in deleted_items, so the move fails
+        database.insert(Table.DELETED_ITEMS, testItem);
+
+        assertThrows(RuntimeException.class, () -> database.moveToDeletedItems(testItem.getId(), ""));
+        assertEquals(testItem, database.selectById(Table.ITEMS, testItem.getId()));
+        assertEquals(1, database.getSizeOfTable(Table.DELETED_ITEMS.getName()));
+
+        // the writer is usable after the rollback
+        database.deleteById(Table.DELETED_ITEMS, testItem.getId());
+        assertNotNull(database.moveToDeletedItems(testItem.getId(), ""));
+    }
+
+    @Test
+    void testFailedMoveInOpenTransactionKeepsOtherWrites() {
+        database.insertItem(testItem);
+        database.insert(Table.DELETED_ITEMS, testItem);
+
+        database.beginTransaction();
+        Item otherItem = new Item(2, "otherName", "2.00", 2);
+        database.insertItem(otherItem);
+        assertThrows(RuntimeException.class, () -> database.moveToDeletedItems(testItem.getId(), ""));
+        database.commitTransaction();
+
+        assertEquals(otherItem, database.selectById(Table.ITEMS, otherItem.getId()));
+        assertEquals(testItem, database.selectById(Table.ITEMS, testItem.getId()));
+        assertEquals(1, database.getSizeOfTable(Table.DELETED_ITEMS.getName()));
+    }
+
+    @Test
+    void testMoveAndRestoreIdSet() {
+        database.bulkInsert(List.of(new Item(-1, "a", "1.00", 1), new Item(-1, "b", "2.00", 2),
+                new Item(-1, "c", "3.00", 3), new Item(-1, "d", "4.00", 4)));
+        assertEquals(3, database.moveToDeletedItems(IdSet.parse("1-2,4,9"), "recall"));
+        assertEquals(1, database.getSizeOfTable(Table.ITEMS.getName()));
+        assertEquals(new DeletedItem(new Item(4, "d", "4.00", 4), "recall"),
+                database.selectById(Table.DELETED_ITEMS, 4));
+
+        assertEquals(2, database.restoreFromDeletedItems(IdSet.parse("2-4")));
+        assertEquals(3, database.getSizeOfTable(Table.ITEMS.getName()));
+        assertEquals(1, database.getSizeOfTable(Table.DELETED_ITEMS.getName()));
+        assertEquals(0, database.restoreFromDeletedItems(IdSet.parse("2-4")));
+    }
+
+    @Test
+    void testFailedMoveOfIdSetIsRolledBack() {
+        database.bulkInsert(List.of(new Item(-1, "a", "1.00", 1), new Item(-1, "b", "2.00", 2)));
+        // the second id is already in deleted_items, so the whole move fails
+        database.insert(Table.DELETED_ITEMS, new Item(2, "b", "2.00", 2));
+
+        assertThrows(RuntimeException.class, () -> database.moveToDeletedItems(IdSet.parse("1-2"), ""));
+        assertEquals(2, database.getSizeOfTable(Table.ITEMS.getName()));
+        assertEquals(1, database.getSizeOfTable(Table.DELETED_ITEMS.getName()));
+    }
+
+    @Test
+    void testUpdateIdSet() {
+        database.bulkInsert(List.of(new Item(-1, "a", "1.00", 1), new Item(-1, "b", "2.00", 2),
+                new Item(-1, "c", "3.00", 3)));
+        assertEquals(2, database.updateItems(IdSet.parse("1,3,7"), "stock = 0, price = 950"));
+        assertEquals(new Item(1, "a", "9.50", 0), database.selectById(Table.ITEMS, 1));
+        assertEquals(new Item(2, "b", "2.00", 2), database.selectById(Table.ITEMS, 2));
+        assertEquals(new Item(3, "c", "9.50", 0), database.selectById(Table.ITEMS, 3));
+    }
+
+    @Test
+    void testStartDatabaseReusesUpToDateFile() {
+        StartupReport startupReport = database.startDatabase(false);
+        assertTrue(startupReport.rebuilt());
+        int seededRows = startupReport.seedReport().rows();
+        assertEquals(seededRows, database.getSizeOfTable(Table.ITEMS.getName()));
+
+        // the file is now up-to-date, so its contents are kept
+        database.insertItem(testItem);
+        startupReport = database.startDatabase(false);
+        assertFalse(startupReport.rebuilt());
+        assertNull(startupReport.seedReport());
+        assertEquals(seededRows + 1, database.getSizeOfTable(Table.ITEMS.getName()));
+
+        startupReport = database.startDatabase(true);
+        assertTrue(startupReport.rebuilt());
+        assertEquals(seededRows, database.getSizeOfTable(Table.ITEMS.getName()));
+    }
+
+    @Test
+    void testInitializeDatabaseInvalidatesStartup() {
+        database.startDatabase(false);
+        database.initializeDatabase();
+        assertTrue(database.startDatabase(false).rebuilt());
+    }
+
+    @Test
+    void testResultSetsReadConcurrently() throws InterruptedException {
+        int numberOfItems = 200;
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < numberOfItems; i++) {
+            items.add(new Item(-1, "item" + i, "1.00", i));
+        }
+        database.bulkInsert(items);
+
+        List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            threads.add(new Thread(() -> {
+                try {
+                    for (int j = 0; j < 20; j++) {
+                        ResultSet resultSet = database.getResultSet(Table.ITEMS.getName(), "id, stock", "");
+                        int rows = 0;
+                        while (resultSet.next()) {
+                            assertEquals(resultSet.getInt("id") - 1, resultSet.getInt("stock"));
+                            rows++;
+                        }
+                        resultSet.close();
+                        assertEquals(numberOfItems, rows);
+                        assertEquals(numberOfItems, database.selectFromTable(Table.ITEMS.getName(), "stock, price, name, id").size());
+                    }
+                } catch (Throwable t) {
+                    errors.add(t);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(List.of(), errors);
+    }
+
+    /**
+     * Inserts items named apple, Apricot, banana and apples with increasing
+     * prices and stocks.
+     */
+    void insertSearchableItems() {
+        database.bulkInsert(List.of(
+                new Item(-1, "apple", 100L, 1),
+                new Item(-1, "Apricot", 200L, 2),
+                new Item(-1, "banana", 300L, 3),
+                new Item(-1, "apples", 400L, 4)));
+    }
+
+    /**
+     * Returns the names of the items matching a search, sorted.
+     *
+     * @param search the search
+     * @return the sorted names of the matching items
+     */
+    List<String> searchNames(ItemSearch search) {
+        return database.searchItems(search, 100).stream().map(Item::getName).sorted().toList();
+    }
+
+    @Test
+    void testSearchByNamePrefixIgnoresCase() {
+        insertSearchableItems();
+        assertEquals(List.of("Apricot", "apple", "apples"), searchNames(new ItemSearch("AP", null, null, null, null)));
+        assertEquals(List.of("apple", "apples"), searchNames(new ItemSearch("apple", null, null, null, null)));
+        assertEquals(List.of(), searchNames(new ItemSearch("c", null, null, null, null)));
+    }
+
+    @Test
+    void testSearchByNamePrefixOnlyIgnoresCaseOfASCIILetters() {
+        database.bulkInsert(List.of(
+                new Item(-1, "\u00c9clair", 100L, 1),
+                new Item(-1, "\u00e9clair", 200L, 2)));
+        assertEquals(List.of("\u00c9clair"), searchNames(new ItemSearch("\u00c9", null, null, null, null)));
+        assertEquals(List.of("\u00c9clair"), searchNames(new ItemSearch("\u00c9CL", null, null, null, null)));
+        assertEquals(List.of("\u00e9clair"), searchNames(new ItemSearch("\u00e9c", null, null, null, null)));
+    }
+
+    @Test
+    void testSearchByRanges() {
+        insertSearchableItems();
+        assertEquals(List.of("Apricot", "banana"), searchNames(new ItemSearch(null, 200L, 300L, null, null)));
+        assertEquals(List.of("apples", "banana"), searchNames(new ItemSearch(null, null, null, 3, null)));
+        assertEquals(List.of("apple"), searchNames(new ItemSearch("a", null, 300L, null, 1)));
+    }
+
+    @Test
+    void testSearchLimited() {
+        insertSearchableItems();
+        assertEquals(2, database.searchItems(new ItemSearch(null, 0L, null, null, null), 2).size());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"items_name", "items_price", "items_stock"})
+    void testSearchUsesIndex(String indexName) {
+        insertSearchableItems();
+        ItemSearch search = switch (indexName) {
+            case "items_name" -> new ItemSearch("ap", null, null, null, null);
+            case "items_price" -> new ItemSearch(null, 100L, 200L, null, null);
+            default -> new ItemSearch(null, null, null, 1, 2);
+        };
+        database.getSlowStatementLog().setThresholdMillis(0);
+        database.searchItems(search, 100);
+
+        List<SlowStatementLog.SlowStatement> slowStatements = database.getSlowStatementLog().getSlowStatements();
+        String queryPlan = slowStatements.get(slowStatements.size() - 1).queryPlan();
+        assertTrue(queryPlan.contains("SEARCH items USING INDEX " + indexName), queryPlan);
+    }
+
+    @Test
+    void testFindRanksItemsByRelevance() {
+        database.bulkInsert(List.of(
+                new Item(-1, "apple", 100L, 1),
+                new Item(-1, "green apple pie with cream", 200L, 2),
+                new Item(-1, "banana", 300L, 3)));
+        List<String> names = database.findItems(Table.ITEMS, "APPLE", 10).stream().map(Item::getName).toList();
+        assertEquals(List.of("apple", "green apple pie with cream"), names);
+        assertEquals(1, database.findItems(Table.ITEMS, "appl* pie", 10).size());
+        assertTrue(database.findItems(Table.ITEMS, "cherry", 10).isEmpty());
+    }
+
+    @Test
+    void testFindIgnoresSearchSyntax() {
+        database.insertItem(new Item(-1, "apple", 100L, 1));
+        assertEquals(1, database.findItems(Table.ITEMS, "^\"apple\"(", 10).size());
+        // OR is a word to be found rather than an operator
+        assertTrue(database.findItems(Table.ITEMS, "apple OR cherry", 10).isEmpty());
+        assertTrue(database.findItems(Table.ITEMS, "*-*", 10).isEmpty());
+    }
+
+    @Test
+    void testFindKeptInSyncByTriggers() {
+        int itemId = database.insertItem(new Item(-1, "apple", 100L, 1));
+        database.updateItem(String.valueOf(itemId), "name = 'cherry'");
+        assertTrue(database.findItems(Table.ITEMS, "apple", 10).isEmpty());
+        assertEquals(1, database.findItems(Table.ITEMS, "cherry", 10).size());
+
+        database.moveToDeletedItems(itemId, "product recall");
+        assertTrue(database.findItems(Table.ITEMS, "cherry", 10).isEmpty());
+        DeletedItem deletedItem = (DeletedItem) database.findItems(Table.DELETED_ITEMS, "recall", 10).get(0);
+        assertEquals("product recall", deletedItem.getComment());
+        assertEquals(1, database.findItems(Table.DELETED_ITEMS, "cherry", 10).size());
+
+        database.restoreFromDeletedItems(itemId);
+        assertTrue(database.findItems(Table.DELETED_ITEMS, "recall", 10).isEmpty());
+        assertEquals(itemId, database.findItems(Table.ITEMS, "cherry", 10).get(0).getId());
+    }
+
+    @Test
+    void testFindAfterRestoredItemIsDeletedAgain() {
+        int itemId = database.insertItem(new Item(-1, "cherry", 100L, 1));
+        database.insertItem(new Item(-1, "apple", 100L, 1));
+        database.moveToDeletedItems(itemId, "product recall");
+        database.restoreFromDeletedItems(itemId);
+        database.moveToDeletedItems(itemId, "damaged in transit");
+
+        assertTrue(database.findItems(Table.ITEMS, "cherry", 10).isEmpty());
+        assertTrue(database.findItems(Table.DELETED_ITEMS, "recall", 10).isEmpty());
+        List<Item> deletedItems = database.findItems(Table.DELETED_ITEMS, "cherry", 10);
+        assertEquals(1, deletedItems.size());
+        assertEquals(itemId, deletedItems.get(0).getId());
+        assertEquals("damaged in transit", ((DeletedItem) deletedItems.get(0)).getComment());
+    }
 }
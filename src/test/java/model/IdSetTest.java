@@ -0,0 +1,64 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * IdSetTest ensures that lists and ranges of ids are parsed, merged and
+ * turned into SQL conditions properly.
+ *
+ * @author Liam Tripp
+ */
+public class IdSetTest {
+
+    @Test
+    void testRangesAreSortedAndMerged() {
+        IdSet ids = IdSet.parse("20-30,3,1-2,25-40,50");
+        assertEquals("1-3,20-40,50", ids.toString());
+        assertEquals(25, ids.size());
+        assertEquals("(id BETWEEN ? AND ? OR id BETWEEN ? AND ? OR id BETWEEN ? AND ?)", ids.getSQLCondition());
+        assertEquals(List.of(1, 3, 20, 40, 50, 50), ids.getParameters());
+    }
+
+    @Test
+    void testContains() {
+        IdSet ids = IdSet.parse("3,7,10-20");
+        for (int id : new int[]{3, 7, 10, 15, 20}) {
+            assertTrue(ids.contains(id));
+        }
+        for (int id : new int[]{0, 2, 4, 8, 9, 21}) {
+            assertFalse(ids.contains(id));
+        }
+    }
+
+    @Test
+    void testSingleId() {
+        assertTrue(IdSet.parse("5").isSingleId());
+        assertTrue(IdSet.parse("5-5").isSingleId());
+        assertTrue(IdSet.parse("5,5").isSingleId());
+        assertFalse(IdSet.parse("5-6").isSingleId());
+        assertFalse(IdSet.parse("5,7").isSingleId());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"10-5", "1,,2", "1-", "a", ""})
+    void testInvalidIdsAreRejected(String ids) {
+        assertThrows(IllegalArgumentException.class, () -> IdSet.parse(ids));
+    }
+
+    @Test
+    void testTooManyRangesAreRejected() {
+        StringBuilder ids = new StringBuilder("0");
+        for (int i = 1; i <= IdSet.MAX_RANGES; i++) {
+            ids.append(',').append(i * 2);
+        }
+        assertThrows(IllegalArgumentException.class, () -> IdSet.parse(ids.toString()));
+        // adjacent ranges are merged, so only the ranges left afterwards are counted
+        assertEquals("0-1000", IdSet.parse(ids.toString().replace(",", "-" + 1000 + ",")).toString());
+    }
+}
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 /**
@@ -38,4 +39,12 @@ public class InputFileReaderTest {
         InputFileReader inputFileReader = new InputFileReader("DDL", "sql");
         assertNotNull(inputFileReader.getSQLFileAsString());
     }
+
+    @Test
+    void testChecksumOfFile() {
+        InputFileReader itemsFileReader = new InputFileReader(Table.ITEMS.getName(), "json");
+        InputFileReader sqlFileReader = new InputFileReader("DDL", "sql");
+        assertEquals(itemsFileReader.getChecksum(), itemsFileReader.getChecksum());
+        assertNotEquals(itemsFileReader.getChecksum(), sqlFileReader.getChecksum());
+    }
 }
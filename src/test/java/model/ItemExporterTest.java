@@ -0,0 +1,138 @@
+package model;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ItemExporterTest ensures that ItemExporter writes tables to CSV and JSON
+ * files that ItemImporter can read back.
+ *
+ * @author Liam Tripp
+ */
+public class ItemExporterTest {
+
+    private Database database;
+    private ItemExporter itemExporter;
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void setup() {
+        database = new Database(Database.IN_MEMORY, 0);
+        database.initializeDatabase();
+        // a small buffer so that rows are split across writes
+        itemExporter = new ItemExporter(database, 64);
+        database.bulkInsert(List.of(
+                new Item(-1, "Kite", "9.99", 3),
+                new Item(-1, "Yo-yo, \"deluxe\"", "1.05", 20),
+                new Item(-1, "Marble\nbag \\ déjà vu \u0001", "1000000.00", 0)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void testExportCSVWritesEveryRow() throws Exception {
+        Path file = directory.resolve("items.csv");
+        ExportReport exportReport = itemExporter.exportTable(Table.ITEMS, file, ItemExporter.Format.CSV);
+
+        String expected = String.join(",", Item.getAttributeNamesAsArray()) + "\n" +
+                "1,Kite,9.99,3\n" +
+                "2,\"Yo-yo, \"\"deluxe\"\"\",1.05,20\n" +
+                "3,\"Marble\nbag \\ déjà vu \u0001\",1000000.00,0\n";
+        assertEquals(expected, Files.readString(file));
+        assertEquals(3, exportReport.rows());
+        assertEquals(Files.size(file), exportReport.bytes());
+        assertFalse(Files.exists(directory.resolve("items.csv.tmp")));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testExportJSONIsValidJSON() throws Exception {
+        Path file = directory.resolve("items.json");
+        itemExporter.exportTable(Table.ITEMS, file, ItemExporter.Format.JSON);
+
+        JSONObject jsonObject = (JSONObject) new JSONParser().parse(Files.readString(file));
+        JSONArray items = (JSONArray) jsonObject.get(Table.ITEMS.getName());
+        List<Item> exportedItems = new ArrayList<>();
+        for (Object object : items) {
+            JSONObject jsonItem = (JSONObject) object;
+            exportedItems.add(new Item(Math.toIntExact((Long) jsonItem.get("id")), (String) jsonItem.get("name"),
+                    (String) jsonItem.get("price"), Math.toIntExact((Long) jsonItem.get("stock"))));
+        }
+        assertEquals(database.selectAll(Table.ITEMS), exportedItems);
+    }
+
+    @Test
+    void testExportedFilesCanBeImported() {
+        for (ItemExporter.Format format : ItemExporter.Format.values()) {
+            Path file = directory.resolve("items." + format.name().toLowerCase());
+            itemExporter.exportTable(Table.ITEMS, file, format);
+
+            Database copy = new Database(Database.IN_MEMORY, 0);
+            copy.initializeDatabase();
+            ImportReport importReport = new ItemImporter(copy, 2, null).importFile(file);
+            assertEquals(List.of(), importReport.errors());
+            assertEquals(database.selectAll(Table.ITEMS), copy.selectAll(Table.ITEMS));
+            copy.shutdown();
+        }
+    }
+
+    @Test
+    void testExportDeletedItemsIncludesComments() throws Exception {
+        database.moveToDeletedItems(1, "out of stock, \"for now\"");
+        database.moveToDeletedItems(2, "");
+        Path csvFile = directory.resolve("deleted.csv");
+        itemExporter.exportTable(Table.DELETED_ITEMS, csvFile, ItemExporter.Format.CSV);
+        assertEquals(String.join(",", DeletedItem.getAttributeNamesAsArray()) + "\n" +
+                        "1,Kite,9.99,3,\"out of stock, \"\"for now\"\"\"\n" +
+                        "2,\"Yo-yo, \"\"deluxe\"\"\",1.05,20,\n",
+                Files.readString(csvFile));
+
+        Path jsonFile = directory.resolve("deleted.json");
+        itemExporter.exportTable(Table.DELETED_ITEMS, jsonFile, ItemExporter.Format.JSON);
+        JSONObject jsonObject = (JSONObject) new JSONParser().parse(Files.readString(jsonFile));
+        JSONArray deletedItems = (JSONArray) jsonObject.get(Table.DELETED_ITEMS.getName());
+        assertEquals("out of stock, \"for now\"", ((JSONObject) deletedItems.get(0)).get("comment"));
+        assertNull(((JSONObject) deletedItems.get(1)).get("comment"));
+    }
+
+    @Test
+    void testExportEmptyTable() throws Exception {
+        Path file = directory.resolve("deleted.json");
+        ExportReport exportReport = itemExporter.exportTable(Table.DELETED_ITEMS, file, ItemExporter.Format.JSON);
+
+        assertEquals(0, exportReport.rows());
+        JSONObject jsonObject = (JSONObject) new JSONParser().parse(Files.readString(file));
+        assertTrue(((JSONArray) jsonObject.get(Table.DELETED_ITEMS.getName())).isEmpty());
+    }
+
+    @Test
+    void testFailedExportLeavesNoFile() {
+        Path file = directory.resolve("missing").resolve("items.csv");
+        assertThrows(RuntimeException.class, () -> itemExporter.exportTable(Table.ITEMS, file, ItemExporter.Format.CSV));
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void testFormatIsChosenFromFileName() {
+        assertEquals(ItemExporter.Format.JSON, ItemExporter.Format.forPath(Path.of("items.JSON")));
+        assertEquals(ItemExporter.Format.CSV, ItemExporter.Format.forPath(Path.of("items.csv")));
+        assertEquals(ItemExporter.Format.CSV, ItemExporter.Format.forPath(Path.of("items")));
+    }
+}
@@ -0,0 +1,239 @@
+package model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ItemImporterTest ensures that ItemImporter streams JSON and CSV files into
+ * the ITEMS table and reports the rows it rejects.
+ *
+ * @author Liam Tripp
+ */
+public class ItemImporterTest {
+
+    private Database database;
+    private ItemImporter itemImporter;
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void setup() {
+        database = new Database(Database.IN_MEMORY, 0);
+        database.initializeDatabase();
+        itemImporter = new ItemImporter(database, 2, null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void testImportJSONArrayInsertsEveryItem() {
+        String json = "[{\"name\": \"Kite\", \"price\": \"9.99\", \"stock\": 3}," +
+                "{\"name\": \"Yo-yo\", \"price\": 1.5, \"stock\": 20, \"tags\": {\"name\": \"ignored\"}}," +
+                "{\"stock\": 7, \"price\": 2, \"name\": \"Marble\"}]";
+        ImportReport importReport = itemImporter.importJSON(new StringReader(json));
+
+        assertEquals(3, importReport.rowsImported());
+        assertEquals(0, importReport.rowsRejected());
+        assertEquals(2, importReport.batches());
+        List<Item> items = database.selectAll(Table.ITEMS);
+        assertEquals(new Item(1, "Kite", "9.99", 3), items.get(0));
+        assertEquals(new Item(2, "Yo-yo", "1.50", 20), items.get(1));
+        assertEquals(new Item(3, "Marble", "2.00", 7), items.get(2));
+    }
+
+    @Test
+    void testImportJSONReadsItemsFromTheItemsFileFormat() throws IOException {
+        Path file = directory.resolve("catalog.json");
+        Files.writeString(file, "{\"version\": 2, \"items\": [" +
+                "{\"name\": \"Kite\", \"price\": \"9.99\", \"stock\": 3}," +
+                "{\"name\": \"Yo-yo\", \"price\": \"1.50\", \"stock\": 20}]}");
+        ImportReport importReport = itemImporter.importFile(file);
+
+        assertEquals(2, importReport.rowsImported());
+        assertEquals(2, database.getSizeOfTable(Table.ITEMS.getName()));
+    }
+
+    @Test
+    void testImportJSONReportsInvalidItems() {
+        String json = "[{\"name\": \"Kite\", \"price\": \"9.99\", \"stock\": 3}," +
+                "{\"price\": \"1.00\", \"stock\": 1}," +
+                "{\"name\": \"Yo-yo\", \"price\": \"-1.00\", \"stock\": 1}," +
+                "{\"name\": \"Top\", \"price\": \"cheap\", \"stock\": 1}," +
+                "{\"name\": \"Ball\", \"price\": \"1.00\", \"stock\": 2.5}," +
+                "{\"name\": \"Doll\", \"price\": \"4.00\", \"stock\": 4}]";
+        ImportReport importReport = itemImporter.importJSON(new StringReader(json));
+
+        assertEquals(2, importReport.rowsImported());
+        assertEquals(4, importReport.rowsRejected());
+        assertEquals(List.of("Item 2: name is missing", "Item 3: price cannot be negative",
+                "Item 4: price 'cheap' is not a decimal number", "Item 5: stock '2.5' is not a whole number"),
+                importReport.errors());
+        assertEquals(2, database.getSizeOfTable(Table.ITEMS.getName()));
+    }
+
+    @Test
+    void testMalformedJSONKeepsItemsReadBeforeTheError() {
+        String json = "[{\"name\": \"Kite\", \"price\": \"9.99\", \"stock\": 3}," +
+                "{\"name\": \"Yo-yo\", \"price\": \"1.50\", \"stock\": 20}," +
+                "{\"name\": \"Top\", \"price\": ";
+        ImportReport importReport = itemImporter.importJSON(new StringReader(json));
+
+        assertEquals(2, importReport.rowsImported());
+        assertEquals(1, importReport.errors().size());
+        assertTrue(importReport.errors().get(0).startsWith("Item 3: malformed JSON"));
+    }
+
+    @Test
+    void testImportCSVHandlesQuotedFields() throws IOException {
+        Path file = directory.resolve("catalog.CSV");
+        Files.writeString(file, "id,stock,name,price\r\n" +
+                "10,3,Kite,9.99\r\n" +
+                "\r\n" +
+                "11,20,\"Yo-yo, \"\"deluxe\"\"\",1.50\n" +
+                "12,7,\"Marble\nbag\",2\n");
+        ImportReport importReport = itemImporter.importFile(file);
+
+        assertEquals(3, importReport.rowsImported());
+        assertEquals(List.of(), importReport.errors());
+        List<Item> items = database.selectAll(Table.ITEMS);
+        assertEquals(new Item(1, "Kite", "9.99", 3), items.get(0));
+        assertEquals(new Item(2, "Yo-yo, \"deluxe\"", "1.50", 20), items.get(1));
+        assertEquals(new Item(3, "Marble\nbag", "2.00", 7), items.get(2));
+    }
+
+    @Test
+    void testCSVThatIsNotUTF8KeepsRowsReadBeforeTheError() throws IOException {
+        Path file = directory.resolve("catalog.csv");
+        // the accent in ISO-8859-1 is not a valid UTF-8 byte
+        String csv = "name,price,stock\n" + "Kite,9.99,3\n".repeat(10_000) + "Caf\u00e9,2.50,1\n";
+        Files.write(file, csv.getBytes(StandardCharsets.ISO_8859_1));
+        ImportReport importReport = itemImporter.importFile(file);
+
+        assertTrue(importReport.rowsImported() > 0);
+        assertTrue(importReport.rowsImported() < 10_000);
+        assertEquals(importReport.rowsImported(), database.getSizeOfTable(Table.ITEMS.getName()));
+        assertEquals(1, importReport.errors().size());
+        assertTrue(importReport.errors().get(0).endsWith(": the rest of the file is not valid UTF-8, import stopped"));
+    }
+
+    @Test
+    void testImportCSVReportsLineNumbersOfInvalidRows() {
+        String csv = "name,price,stock\n" +
+                "Kite,9.99,3\n" +
+                "\"Yo-yo\nbag\",1.50\n" +
+                "Top,1.00,-4\n" +
+                ",1.00,1\n" +
+                "Doll,4.00,4\n" +
+                "\"Ball,1.00,1\n";
+        ImportReport importReport = itemImporter.importCSV(new StringReader(csv));
+
+        assertEquals(2, importReport.rowsImported());
+        assertEquals(List.of("Line 3: expected at least 3 fields but found 2", "Line 5: stock cannot be negative",
+                "Line 6: name is missing", "Line 8: a quoted field is not closed"), importReport.errors());
+    }
+
+    @Test
+    void testImportCSVWithoutHeaderImportsNothing() {
+        ImportReport importReport = itemImporter.importCSV(new StringReader("Kite,9.99,3\n"));
+
+        assertEquals(0, importReport.rowsImported());
+        assertEquals(List.of("Line 1: the header must name the columns name, price and stock"),
+                importReport.errors());
+    }
+
+    @Test
+    void testRowsRejectedByTheDatabaseDoNotUndoTheirBatch() {
+        // names are not limited in length when validated, so only the database rejects this one
+        database.executeStatement("CREATE TRIGGER items_short_names BEFORE INSERT ON items " +
+                "WHEN length(NEW.name) > 10 BEGIN SELECT RAISE(ABORT, 'name is too long'); END");
+        ItemImporter largeBatchImporter = new ItemImporter(database, 100, null);
+        String csv = "name,price,stock\nKite,1,1\nExtremelyLongName,1,1\nTop,1,1\nDoll,1,1\n";
+        ImportReport importReport = largeBatchImporter.importCSV(new StringReader(csv));
+
+        assertEquals(3, importReport.rowsImported());
+        assertEquals(1, importReport.rowsRejected());
+        assertEquals(1, importReport.errors().size());
+        assertTrue(importReport.errors().get(0).startsWith("Line 3: "));
+        assertTrue(importReport.errors().get(0).contains("name is too long"));
+    }
+
+    @Test
+    void testOtherDatabaseFailuresStopTheImport() {
+        // an integer overflow is an error of the statement rather than a constraint on the row
+        database.executeStatement("CREATE TRIGGER items_overflow BEFORE INSERT ON items " +
+                "WHEN NEW.name = 'Broken' BEGIN SELECT abs(-9223372036854775808); END");
+        String csv = "name,price,stock\nKite,1,1\nTop,1,1\nBroken,1,1\nDoll,1,1\nBall,1,1\n";
+        ImportReport importReport = itemImporter.importCSV(new StringReader(csv));
+
+        assertEquals(2, importReport.rowsImported());
+        assertEquals(0, importReport.rowsRejected());
+        assertEquals(1, importReport.errors().size());
+        assertTrue(importReport.errors().get(0).startsWith("Line 4: "));
+        assertTrue(importReport.errors().get(0).endsWith("import stopped"));
+        assertEquals(2, database.selectAll(Table.ITEMS).size());
+    }
+
+    @Test
+    void testOtherDatabaseFailuresStopTheJSONImport() {
+        database.executeStatement("CREATE TRIGGER items_overflow BEFORE INSERT ON items " +
+                "WHEN NEW.name = 'Broken' BEGIN SELECT abs(-9223372036854775808); END");
+        String json = "[{\"name\": \"Broken\", \"price\": 1, \"stock\": 1}," +
+                "{\"name\": \"Kite\", \"price\": 1, \"stock\": 1}," +
+                "{\"name\": \"Top\", \"price\": 1, \"stock\": 1}]";
+        ImportReport importReport = itemImporter.importJSON(new StringReader(json));
+
+        assertEquals(0, importReport.rowsImported());
+        assertEquals(0, importReport.rowsRejected());
+        assertEquals(1, importReport.errors().size());
+        assertTrue(importReport.errors().get(0).endsWith("import stopped"));
+        assertTrue(database.selectAll(Table.ITEMS).isEmpty());
+    }
+
+    @Test
+    void testOnlyTheFirstErrorsAreKept() {
+        StringBuilder csv = new StringBuilder("name,price,stock\n");
+        for (int i = 0; i < ItemImporter.MAX_REPORTED_ERRORS + 5; i++) {
+            csv.append("item").append(i).append(",free,1\n");
+        }
+        ImportReport importReport = itemImporter.importCSV(new StringReader(csv.toString()));
+
+        assertEquals(ItemImporter.MAX_REPORTED_ERRORS + 5, importReport.rowsRejected());
+        assertEquals(ItemImporter.MAX_REPORTED_ERRORS, importReport.errors().size());
+    }
+
+    @Test
+    void testProgressIsReportedAfterBatches() {
+        List<String> progress = new ArrayList<>();
+        ItemImporter reportingImporter = new ItemImporter(database, 2, progress::add);
+        reportingImporter.setProgressIntervalMillis(0);
+        ImportReport importReport = reportingImporter.importCSV(
+                new StringReader("name,price,stock\nKite,1,1\nTop,1,1\nDoll,1,1\n"));
+
+        assertEquals(2, importReport.batches());
+        assertEquals(2, progress.size());
+        assertTrue(progress.get(0).startsWith("Imported 2 rows (0 rejected), "));
+        assertTrue(progress.get(1).startsWith("Imported 3 rows (0 rejected), "));
+    }
+
+    @Test
+    void testUnknownFileTypeIsRejected() {
+        Path file = directory.resolve("catalog.xml");
+        assertThrows(IllegalArgumentException.class, () -> itemImporter.importFile(file));
+    }
+}
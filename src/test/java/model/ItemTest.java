@@ -3,11 +3,14 @@ package model;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -29,7 +32,8 @@ public class ItemTest {
     void testItemInitialization() {
         assertEquals(1, item.getId());
         assertEquals(testName, item.getName());
-        assertEquals(new BigDecimal("0.0"), item.getPrice());
+        assertEquals(0, new BigDecimal("0.0").compareTo(item.getPrice()));
+        assertEquals(0, item.getPriceInCents());
         assertEquals(0, item.getStock());
     }
 
@@ -55,4 +59,28 @@ public class ItemTest {
         assertTrue(item.getValuesInSQLFormatExceptId().contains(sqlFormattedPrice));
         assertTrue(item.getAttributeNameValueListExceptId().contains(sqlFormattedPrice));
     }
+
+    @ParameterizedTest
+    @CsvSource({"0, 0", "0., 0", ".0, 0", "3.05, 305", "3.5, 350", "100.99, 10099",
+            "10000.999, 1000100", "1.994, 199", "1.995, 200"})
+    void testPriceConvertedToCents(String price, long priceInCents) {
+        item.setPrice(price);
+        assertEquals(priceInCents, item.getPriceInCents());
+        assertEquals(0, new BigDecimal(price).setScale(2, RoundingMode.HALF_UP)
+                .compareTo(item.getPrice()));
+    }
+
+    @ParameterizedTest
+    @CsvSource({"0, 0.00", "5, 0.05", "305, 3.05", "10099, 100.99"})
+    void testPriceFormattedFromCents(long priceInCents, String price) {
+        item.setPriceInCents(priceInCents);
+        assertEquals(price, item.getPriceAsString());
+        assertEquals(price, item.getPrice().toString());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", ".", "1.2.3", "abc", "1,00"})
+    void testInvalidPricesRejected(String price) {
+        assertThrows(NumberFormatException.class, () -> item.setPrice(price));
+    }
 }
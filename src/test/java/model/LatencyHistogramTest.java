@@ -0,0 +1,94 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * LatencyHistogramTest ensures that LatencyHistogram's percentiles are
+ * within its precision and that concurrent recordings are all counted.
+ *
+ * @author Liam Tripp
+ */
+public class LatencyHistogramTest {
+
+    private LatencyHistogram latencyHistogram;
+
+    @BeforeEach
+    void setup() {
+        latencyHistogram = new LatencyHistogram();
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {0, 1, 15, 16, 17, 31, 32, 1_000, 123_456_789, Long.MAX_VALUE})
+    void testBucketContainsLatency(long nanos) {
+        int index = LatencyHistogram.getBucketIndex(nanos);
+        assertTrue(LatencyHistogram.getBucketUpperBound(index) >= nanos);
+        if (index > 0) {
+            assertTrue(LatencyHistogram.getBucketUpperBound(index - 1) < nanos);
+        }
+    }
+
+    @Test
+    void testPercentilesWithinPrecision() {
+        for (long nanos = 1; nanos <= 100_000; nanos++) {
+            latencyHistogram.record(nanos, 1);
+        }
+        LatencyHistogram.Statistics statistics = latencyHistogram.getStatistics();
+        assertEquals(100_000, statistics.count());
+        assertEquals(100_000, statistics.rows());
+        assertEquals(100_000, statistics.maxNanos());
+        assertEquals(50_000, statistics.p50Nanos(), 50_000 / 16.0);
+        assertEquals(90_000, statistics.p90Nanos(), 90_000 / 16.0);
+        assertEquals(99_000, statistics.p99Nanos(), 99_000 / 16.0);
+        assertEquals(50.0005, statistics.getAverageMicros(), 0.0001);
+    }
+
+    @Test
+    void testEmptyHistogram() {
+        LatencyHistogram.Statistics statistics = latencyHistogram.getStatistics();
+        assertEquals(0, statistics.count());
+        assertEquals(0, statistics.p99Nanos());
+        assertEquals(0, statistics.getAverageMicros());
+    }
+
+    @Test
+    void testResetDiscardsRecordings() {
+        latencyHistogram.record(1_000, 5);
+        latencyHistogram.reset();
+        LatencyHistogram.Statistics statistics = latencyHistogram.getStatistics();
+        assertEquals(0, statistics.count());
+        assertEquals(0, statistics.rows());
+        assertEquals(0, statistics.maxNanos());
+    }
+
+    @Test
+    void testConcurrentRecordingsCounted() throws InterruptedException {
+        int numberOfThreads = 8;
+        int recordingsPerThread = 10_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < numberOfThreads; i++) {
+            long nanos = (i + 1) * 1_000L;
+            threads.add(new Thread(() -> {
+                for (int j = 0; j < recordingsPerThread; j++) {
+                    latencyHistogram.record(nanos, 1);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        LatencyHistogram.Statistics statistics = latencyHistogram.getStatistics();
+        assertEquals(numberOfThreads * recordingsPerThread, statistics.count());
+        assertEquals(numberOfThreads * recordingsPerThread, statistics.rows());
+        assertEquals(numberOfThreads * 1_000L, statistics.maxNanos());
+    }
+}
@@ -0,0 +1,87 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MetricsTest ensures that Metrics records commands and SQL operations
+ * separately and can be read and reset through JMX.
+ *
+ * @author Liam Tripp
+ */
+public class MetricsTest {
+
+    private Metrics metrics;
+
+    @BeforeEach
+    void setup() {
+        metrics = new Metrics();
+    }
+
+    @Test
+    void testCommandsAndSQLOperationsRecordedSeparately() {
+        metrics.recordCommand("read", 2_000);
+        metrics.recordSQLOperation("SELECT_ALL", 1_000, 10);
+        metrics.recordSQLOperation("SELECT_ALL", 3_000, 10);
+
+        assertEquals(1, metrics.getCommands().get("read").count());
+        assertNull(metrics.getCommands().get("SELECT_ALL"));
+        LatencyHistogram.Statistics statistics = metrics.getSQLOperations().get("SELECT_ALL");
+        assertEquals(2, statistics.count());
+        assertEquals(20, statistics.rows());
+        assertEquals(3_000, statistics.maxNanos());
+    }
+
+    @Test
+    void testResetHidesUnusedHistograms() {
+        metrics.recordCommand("read", 2_000);
+        metrics.reset();
+        assertTrue(metrics.getCommands().isEmpty());
+        assertTrue(metrics.getCommandStatistics().isEmpty());
+    }
+
+    @Test
+    void testDatabaseRecordsSQLOperations() {
+        Database database = new Database();
+        database.initializeDatabase();
+        database.insertItem(new Item(-1, "testName", 199L, 1));
+        database.selectAll(Table.ITEMS);
+
+        Metrics databaseMetrics = database.getMetrics();
+        assertEquals(1, databaseMetrics.getSQLOperations().get(SQLOperation.INSERT_NEW.name()).count());
+        assertEquals(1, databaseMetrics.getSQLOperations().get(SQLOperation.SELECT_ALL.name()).rows());
+        database.shutdown();
+    }
+
+    @Test
+    void testReadAndResetThroughJMX() throws Exception {
+        metrics.recordCommand("read", 2_000);
+        metrics.registerMBean();
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(Metrics.OBJECT_NAME);
+            TabularData commands = (TabularData) mBeanServer.getAttribute(objectName, "CommandStatistics");
+            assertEquals(1, commands.size());
+
+            int[] queueDepth = {3};
+            metrics.addComponentStatistics("queue", () -> "depth " + queueDepth[0]);
+            queueDepth[0] = 0;
+            // components are read each time, so their current statistics are shown
+            TabularData components = (TabularData) mBeanServer.getAttribute(objectName, "ComponentStatistics");
+            assertEquals("depth 0", components.get(new Object[]{"queue"}).get("value"));
+
+            mBeanServer.invoke(objectName, "reset", null, null);
+            assertTrue(metrics.getCommands().isEmpty());
+        } finally {
+            metrics.unregisterMBean();
+        }
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(new ObjectName(Metrics.OBJECT_NAME)));
+    }
+}
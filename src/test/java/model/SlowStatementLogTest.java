@@ -0,0 +1,96 @@
+package model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SlowStatementLogTest ensures that slow statements are kept in a bounded
+ * ring buffer and a rolling file along with their query plans.
+ *
+ * @author Liam Tripp
+ */
+public class SlowStatementLogTest {
+
+    @TempDir
+    Path temporaryDirectory;
+    private Database database;
+    private SlowStatementLog slowStatementLog;
+
+    @BeforeEach
+    void setup() {
+        database = new Database(Database.IN_MEMORY, 0);
+        database.initializeDatabase();
+        slowStatementLog = database.getSlowStatementLog();
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void testFastStatementsNotLogged() {
+        database.selectAll(Table.ITEMS);
+        assertTrue(slowStatementLog.getSlowStatements().isEmpty());
+    }
+
+    @Test
+    void testSlowStatementLoggedWithQueryPlan() {
+        slowStatementLog.setThresholdMillis(0);
+        database.insertItem(new Item(-1, "testName", 199L, 1));
+        database.getResultSet(Table.ITEMS.getName(), "*", "");
+        database.selectById(Table.ITEMS, 1);
+
+        List<SlowStatementLog.SlowStatement> slowStatements = slowStatementLog.getSlowStatements();
+        assertEquals(3, slowStatements.size());
+        SlowStatementLog.SlowStatement scan = slowStatements.get(1);
+        assertEquals("SELECT * FROM items", scan.sql());
+        assertEquals(1, scan.rows());
+        assertTrue(scan.queryPlan().contains("SCAN items"), scan.queryPlan());
+        SlowStatementLog.SlowStatement search = slowStatements.get(2);
+        assertTrue(search.queryPlan().contains("SEARCH items USING INTEGER PRIMARY KEY"), search.queryPlan());
+    }
+
+    @Test
+    void testRingBufferKeepsMostRecentStatements() {
+        SlowStatementLog smallLog = new SlowStatementLog(0, 2);
+        smallLog.add("first", 1, 0, "");
+        smallLog.add("second", 1, 0, "");
+        smallLog.add("third", 1, 0, "");
+
+        List<SlowStatementLog.SlowStatement> slowStatements = smallLog.getSlowStatements();
+        assertEquals(List.of("second", "third"), slowStatements.stream().map(SlowStatementLog.SlowStatement::sql).toList());
+        assertEquals(3, smallLog.getNumberOfStatementsLogged());
+    }
+
+    @Test
+    void testFileRolledOverAtMaxSize() throws Exception {
+        Path file = temporaryDirectory.resolve("slow.log");
+        SlowStatementLog fileLog = new SlowStatementLog(0, 2);
+        fileLog.setFile(file, 1);
+        fileLog.add("first", 1, 0, "");
+        fileLog.add("second", 1, 0, "");
+
+        assertTrue(Files.readString(file).contains("second"));
+        assertFalse(Files.readString(file).contains("first"));
+        assertTrue(Files.readString(temporaryDirectory.resolve("slow.log.1")).contains("first"));
+    }
+
+    @Test
+    void testUnexplainableStatement() throws Exception {
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite::memory:")) {
+            String queryPlan = SlowStatementLog.explainQueryPlan(connection, "backup to 'file'");
+            assertTrue(queryPlan.startsWith("QUERY PLAN unavailable"));
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SnapshotSchedulerTest ensures that an in-memory Database is copied to its
+ * snapshot file and can be restored from it.
+ *
+ * @author Liam Tripp
+ */
+public class SnapshotSchedulerTest {
+
+    @TempDir
+    Path temporaryDirectory;
+    private String snapshotFileName;
+    private Database database;
+    private Item testItem;
+
+    @BeforeEach
+    void setup() {
+        snapshotFileName = temporaryDirectory.resolve("snapshot.db").toString();
+        database = new Database(Database.IN_MEMORY, Database.DEFAULT_NUMBER_OF_READERS);
+        database.initializeDatabase();
+        testItem = new Item(1, "testName", "100.99", 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (database != null) {
+            database.shutdown();
+        }
+    }
+
+    /**
+     * Shuts down the database and returns a new in-memory database restored
+     * from the snapshot file.
+     *
+     * @return the restored database
+     */
+    Database restartDatabase() {
+        database.shutdown();
+        database = null;
+        Database restoredDatabase = new Database(Database.IN_MEMORY, 0);
+        assertTrue(restoredDatabase.restoreFrom(snapshotFileName));
+        return restoredDatabase;
+    }
+
+    @Test
+    void testSnapshotRestored() {
+        database.insertItem(testItem);
+        SnapshotScheduler snapshotScheduler = new SnapshotScheduler(database, snapshotFileName);
+        assertTrue(snapshotScheduler.snapshot() > 0);
+        assertEquals(1, snapshotScheduler.getStatistics().snapshots());
+
+        database = restartDatabase();
+        assertEquals(testItem, database.selectById(Table.ITEMS, testItem.getId()));
+    }
+
+    @Test
+    void testPeriodicSnapshots() throws InterruptedException {
+        SnapshotScheduler snapshotScheduler = database.scheduleSnapshots(snapshotFileName, 10);
+        for (int i = 0; i < 100 && snapshotScheduler.getStatistics().snapshots() < 2; i++) {
+            Thread.sleep(10);
+        }
+        SnapshotScheduler.Statistics statistics = snapshotScheduler.getStatistics();
+        assertTrue(statistics.snapshots() >= 2);
+        assertEquals(0, statistics.failures());
+        assertTrue(statistics.maxNanos() >= statistics.lastNanos());
+        assertTrue(Files.exists(Path.of(snapshotFileName)));
+        assertFalse(Files.exists(Path.of(snapshotFileName + ".tmp")));
+    }
+
+    @Test
+    void testSnapshotTakenAtShutdown() {
+        SnapshotScheduler snapshotScheduler = database.scheduleSnapshots(snapshotFileName, 60_000);
+        database.insertItem(testItem);
+
+        database = restartDatabase();
+        assertEquals(1, snapshotScheduler.getStatistics().snapshots());
+        assertEquals(testItem, database.selectById(Table.ITEMS, testItem.getId()));
+    }
+
+    @Test
+    void testRestoreFromMissingFile() {
+        assertFalse(database.restoreFrom(snapshotFileName));
+    }
+}
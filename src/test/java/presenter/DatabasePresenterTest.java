@@ -2,6 +2,7 @@ package presenter;
 
 import model.Database;
 import model.DeletedItem;
+import model.IdSet;
 import model.Item;
 import model.Table;
 import org.junit.jupiter.api.AfterEach;
@@ -10,7 +11,12 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -78,6 +84,22 @@ public class DatabasePresenterTest {
         assertNull(items);
     }
 
+    @Test
+    void testReadPages() {
+        for (int i = 0; i < 5; i++) {
+            databasePresenter.createItem(testItem);
+        }
+        List<Item> secondPage = databasePresenter.readPage(Table.ITEMS.getName(), 2, 2);
+        assertEquals(2, secondPage.size());
+        assertEquals(3, secondPage.get(0).getId());
+
+        List<Item> nextPage = databasePresenter.readNextPage(Table.ITEMS.getName(),
+                secondPage.get(1).getId(), 2);
+        assertEquals(1, nextPage.size());
+        assertEquals(5, nextPage.get(0).getId());
+        assertTrue(databasePresenter.readPage(Table.ITEMS.getName(), 4, 2).isEmpty());
+    }
+
     @Test
     void testUpdateOneItemOneAttribute() {
         databasePresenter.createItem(testItem);
@@ -108,9 +130,42 @@ public class DatabasePresenterTest {
         assertNull(item);
     }
 
+    @Test
+    void testCacheKeptCoherentByWrites() {
+        databasePresenter.createItem(testItem);
+        String itemId = String.valueOf(testItem.getId());
+        assertEquals(testItem, databasePresenter.getItem(testItem.getId()));
+        assertEquals(1, databasePresenter.getCacheStatistics().hits());
+
+        Item updatedItem = databasePresenter.updateItem(itemId, "stock = 5");
+        assertEquals(updatedItem, databasePresenter.getItem(testItem.getId()));
+        assertEquals(2, databasePresenter.getCacheStatistics().hits());
+
+        databasePresenter.deleteItem(itemId, "");
+        assertNull(databasePresenter.getItem(testItem.getId()));
+
+        databasePresenter.restoreItem(itemId);
+        assertEquals(updatedItem, databasePresenter.getItem(testItem.getId()));
+    }
+
     @Test
     void testDeleteMultipleItems() {
-        // TODO?
+        for (int i = 0; i < 4; i++) {
+            databasePresenter.createItem(testItem);
+        }
+        assertNotNull(databasePresenter.getItem(2));
+        IdSet ids = IdSet.parse("1-2,4");
+
+        assertEquals(3, databasePresenter.deleteItems(ids, "recall"));
+        assertEquals(1, database.getSizeOfTable(Table.ITEMS.getName()));
+        assertEquals(3, database.getSizeOfTable(Table.DELETED_ITEMS.getName()));
+        // the cached item was evicted with the others
+        assertNull(databasePresenter.getItem(2));
+
+        assertEquals(1, databasePresenter.updateItems(IdSet.parse("1-3"), "stock = 0"));
+        assertEquals(3, databasePresenter.restoreItems(ids));
+        assertEquals(4, database.getSizeOfTable(Table.ITEMS.getName()));
+        assertEquals(0, databasePresenter.getItem(3).getStock());
     }
 
     @ParameterizedTest
@@ -185,4 +240,82 @@ public class DatabasePresenterTest {
         Item item = databasePresenter.restoreItem(itemId);
         assertNull(item);
     }
+
+    /**
+     * Runs reader threads against the presenter while writer threads update,
+     * delete and restore items, then checks that the cache agrees with the
+     * database. Every write keeps each item's price equal to 100 times its
+     * stock, so a reader seeing anything else has read a corrupted item.
+     * Their throughput is measured by ConcurrencyBenchmark in the benchmarks.
+     *
+     * @param numberOfReadThreads the number of threads reading items
+     * @param numberOfWriteThreads the number of threads writing items
+     */
+    void runStress(int numberOfReadThreads, int numberOfWriteThreads) throws InterruptedException {
+        int numberOfItems = 100;
+        for (int i = 0; i < numberOfItems; i++) {
+            databasePresenter.createItem(new Item(-1, "item" + i, (long) i * 100, i));
+        }
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong reads = new AtomicLong();
+        List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < numberOfReadThreads; i++) {
+            threads.add(new Thread(() -> {
+                try {
+                    while (running.get()) {
+                        int itemId = ThreadLocalRandom.current().nextInt(1, numberOfItems + 1);
+                        Item item = databasePresenter.getItem(itemId);
+                        if (item != null) {
+                            assertEquals("item" + (itemId - 1), item.getName());
+                            assertEquals(item.getStock() * 100L, item.getPriceInCents());
+                        }
+                        reads.incrementAndGet();
+                    }
+                } catch (Throwable t) {
+                    errors.add(t);
+                }
+            }));
+        }
+        for (int i = 0; i < numberOfWriteThreads; i++) {
+            threads.add(new Thread(() -> {
+                try {
+                    while (running.get()) {
+                        ThreadLocalRandom random = ThreadLocalRandom.current();
+                        String itemId = String.valueOf(random.nextInt(1, numberOfItems + 1));
+                        if (random.nextInt(5) == 0) {
+                            if (databasePresenter.deleteItem(itemId, "") != null) {
+                                assertNotNull(databasePresenter.restoreItem(itemId));
+                            }
+                        } else {
+                            int stock = random.nextInt(1000);
+                            databasePresenter.updateItem(itemId, "price = " + stock * 100 + ", stock = " + stock);
+                        }
+                    }
+                } catch (Throwable t) {
+                    errors.add(t);
+                }
+            }));
+        }
+
+        threads.forEach(Thread::start);
+        Thread.sleep(300);
+        running.set(false);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(List.of(), errors);
+        assertTrue(reads.get() > 0);
+
+        for (int itemId = 1; itemId <= numberOfItems; itemId++) {
+            assertEquals(database.selectById(Table.ITEMS, itemId), databasePresenter.getItem(itemId));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 4})
+    void testConcurrentReadsAndWrites(int numberOfReadThreads) throws InterruptedException {
+        runStress(numberOfReadThreads, 2);
+    }
 }
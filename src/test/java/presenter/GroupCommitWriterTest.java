@@ -0,0 +1,136 @@
+package presenter;
+
+import model.Database;
+import model.Item;
+import model.Table;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * GroupCommitWriterTest ensures that GroupCommitWriter commits writes in
+ * groups and completes their futures with their results.
+ *
+ * @author Liam Tripp
+ */
+public class GroupCommitWriterTest {
+
+    private Database database;
+    private DatabasePresenter databasePresenter;
+
+    @BeforeEach
+    void setup() {
+        database = new Database();
+        database.initializeDatabase();
+        databasePresenter = new DatabasePresenter();
+        databasePresenter.addDatabase(database);
+    }
+
+    @AfterEach
+    void tearDown() {
+        databasePresenter.terminateDatabase();
+    }
+
+    @Test
+    void testWritesCommittedInGroups() {
+        databasePresenter.enableGroupCommit(16, 50);
+        List<CompletableFuture<Item>> futures = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            futures.add(databasePresenter.createItemAsync(new Item(-1, "item" + i, "1.00", i)));
+        }
+        for (CompletableFuture<Item> future : futures) {
+            assertNotNull(future.join());
+        }
+
+        GroupCommitWriter.Statistics statistics = databasePresenter.getGroupCommitStatistics();
+        assertEquals(40, statistics.writes());
+        assertTrue(statistics.batches() < 40);
+        assertTrue(statistics.largestBatchSize() <= 16);
+        assertEquals(0, statistics.queueDepth());
+        assertEquals(40, database.getSizeOfTable(Table.ITEMS.getName()));
+        // the statistics are current whenever the Metrics are read
+        GroupCommitWriter.Statistics metricsStatistics = (GroupCommitWriter.Statistics) databasePresenter.getMetrics()
+                .getComponents().get(DatabasePresenter.GROUP_COMMIT_STATISTICS);
+        assertEquals(40, metricsStatistics.writes());
+    }
+
+    @Test
+    void testFailedWriteDoesNotAffectGroup() {
+        databasePresenter.enableGroupCommit(16, 50);
+        Item item = databasePresenter.createItem(new Item(-1, "item", "1.00", 1));
+        String itemId = String.valueOf(item.getId());
+
+        CompletableFuture<Item> failedUpdate = databasePresenter.updateItemAsync(itemId, "stock = -1");
+        CompletableFuture<Item> update = databasePresenter.updateItemAsync(itemId, "stock = 5");
+        CompletableFuture<Item> missingDelete = databasePresenter.deleteItemAsync("1000", "");
+
+        assertThrows(CompletionException.class, failedUpdate::join);
+        assertEquals(5, update.join().getStock());
+        assertNull(missingDelete.join());
+        assertEquals(5, database.selectById(Table.ITEMS, item.getId()).getStock());
+        assertThrows(RuntimeException.class, () -> databasePresenter.updateItem(itemId, "stock = -1"));
+    }
+
+    @Test
+    void testFutureCompletedAfterCommit() {
+        GroupCommitWriter groupCommitWriter = new GroupCommitWriter(database, 4, 0, () -> {});
+        CompletableFuture<Boolean> future = groupCommitWriter.submit(() -> {
+            database.insertItem(new Item(-1, "item", "1.00", 1));
+            // the write is made within the group's transaction
+            return database.isWriterHeldByCurrentThread();
+        });
+        assertTrue(future.join());
+        assertEquals(1, database.getSizeOfTable(Table.ITEMS.getName()));
+
+        groupCommitWriter.close();
+        assertThrows(CompletionException.class, () -> groupCommitWriter.submit(() -> 1).join());
+    }
+
+    @Test
+    void testActionsRunAfterCommitInOrderOfWrites() {
+        GroupCommitWriter groupCommitWriter = new GroupCommitWriter(database, 16, 50, () -> {});
+        List<Integer> appliedIds = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(groupCommitWriter.submit(() -> database.insertItem(new Item(-1, "item", "1.00", 1)),
+                    itemId -> {
+                        // the write is committed and no other write is made until the action is complete
+                        assertTrue(database.isWriterHeldByCurrentThread());
+                        assertNotNull(database.selectById(Table.ITEMS, itemId));
+                        appliedIds.add(itemId);
+                    }));
+        }
+        for (int i = 0; i < futures.size(); i++) {
+            // each future is completed after its action has run
+            assertEquals(futures.get(i).join(), appliedIds.get(i));
+        }
+        assertEquals(List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10), appliedIds);
+        groupCommitWriter.close();
+    }
+
+    @Test
+    void testNoWriteIsLeftWaitingWhenClosedConcurrently() throws InterruptedException {
+        GroupCommitWriter groupCommitWriter = new GroupCommitWriter(database, 16, 0, () -> {});
+        List<CompletableFuture<Integer>> futures = Collections.synchronizedList(new ArrayList<>());
+        Thread submitter = new Thread(() -> {
+            for (int i = 0; i < 1000; i++) {
+                futures.add(groupCommitWriter.submit(() -> 1));
+            }
+        });
+        submitter.start();
+        groupCommitWriter.close();
+        submitter.join();
+        for (CompletableFuture<Integer> future : futures) {
+            // every write is either performed or rejected, none is left waiting
+            assertTrue(future.isDone());
+        }
+    }
+}
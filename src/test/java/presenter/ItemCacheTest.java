@@ -0,0 +1,115 @@
+package presenter;
+
+import model.Item;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ItemCacheTest ensures that ItemCache evicts its least recently used items
+ * and counts its hits, misses and evictions.
+ *
+ * @author Liam Tripp
+ */
+public class ItemCacheTest {
+
+    private ItemCache itemCache;
+
+    @BeforeEach
+    void setup() {
+        itemCache = new ItemCache(2);
+    }
+
+    Item createItem(int itemId) {
+        return new Item(itemId, "item" + itemId, "1.99", 1);
+    }
+
+    @Test
+    void testLeastRecentlyUsedItemEvicted() {
+        itemCache.put(createItem(1));
+        itemCache.put(createItem(2));
+        itemCache.get(1); // item 2 becomes the least recently used
+        itemCache.put(createItem(3));
+
+        assertNotNull(itemCache.get(1));
+        assertNull(itemCache.get(2));
+        assertNotNull(itemCache.get(3));
+        assertEquals(1, itemCache.getStatistics().evictions());
+    }
+
+    @Test
+    void testHitsAndMissesCounted() {
+        itemCache.put(createItem(1));
+        itemCache.get(1);
+        itemCache.get(1);
+        itemCache.get(2);
+
+        ItemCache.Statistics statistics = itemCache.getStatistics();
+        assertEquals(2, statistics.hits());
+        assertEquals(1, statistics.misses());
+        assertEquals(1, statistics.size());
+        assertEquals(2.0 / 3, statistics.getHitRate(), 0.0001);
+    }
+
+    @Test
+    void testCachedItemIsACopy() {
+        Item item = createItem(1);
+        itemCache.put(item);
+        item.setName("changedName");
+        assertEquals("item1", itemCache.get(1).getName());
+    }
+
+    @Test
+    void testEvictedItemIsRemoved() {
+        itemCache.put(createItem(1));
+        itemCache.evict(1);
+        assertNull(itemCache.get(1));
+        assertEquals(0, itemCache.getStatistics().evictions());
+    }
+
+    @Test
+    void testEvictIfRemovesMatchingItems() {
+        itemCache.put(createItem(1));
+        itemCache.put(createItem(2));
+        long version = itemCache.getVersion();
+        itemCache.evictIf(itemId -> itemId >= 2);
+
+        assertNotNull(itemCache.get(1));
+        assertNull(itemCache.get(2));
+        assertNotEquals(version, itemCache.getVersion());
+    }
+
+    @Test
+    void testEvictionToRespectCapacityChangesVersion() {
+        itemCache.put(createItem(1));
+        itemCache.put(createItem(2));
+        long version = itemCache.getVersion();
+        // item 1 is read from the database while item 3 is cached, evicting it
+        assertTrue(itemCache.putIfUnchanged(createItem(3), version));
+        assertNotEquals(version, itemCache.getVersion());
+        assertFalse(itemCache.putIfUnchanged(createItem(1), version));
+        assertNull(itemCache.get(1));
+    }
+
+    @Test
+    void testZeroCapacityCachesNothing() {
+        ItemCache emptyCache = new ItemCache(0);
+        emptyCache.put(createItem(1));
+        assertNull(emptyCache.get(1));
+        assertEquals(0, emptyCache.getStatistics().size());
+    }
+
+    @Test
+    void testPutIfUnchangedRejectsStaleItems() {
+        long version = itemCache.getVersion();
+        assertTrue(itemCache.putIfUnchanged(createItem(1), version));
+
+        version = itemCache.getVersion();
+        // the item is changed while another thread reads it from the database
+        itemCache.evict(2);
+        assertFalse(itemCache.putIfUnchanged(createItem(2), version));
+        assertNull(itemCache.get(2));
+        assertNotEquals(version, itemCache.getVersion());
+    }
+}
@@ -90,4 +90,30 @@ public class CommandTest {
             assertNotEquals("", error);
         }
     }
+
+    @ParameterizedTest
+    @EnumSource(Command.class)
+    @SuppressWarnings("unchecked")
+    void testInputsDispatchedToCommandByFirstToken(Command command) {
+        JSONObject validTests = getCommandTest(command.getName(), "valid");
+        for (Object object : (Collection<Object>) validTests.values()) {
+            String validStatement = (String) object;
+            assertEquals(command, Command.getCommandForInput(validStatement));
+
+            Matcher matcher = inputMatcher.matchInputToCommandRegex(validStatement);
+            assertNotNull(matcher);
+            assertEquals(command, Command.getCommand(matcher.group(1)));
+        }
+
+        JSONObject invalidTests = getCommandTest(command.getName(), "invalid");
+        for (Object object : (Collection<Object>) invalidTests.values()) {
+            assertNull(inputMatcher.matchInputToCommandRegex((String) object));
+        }
+    }
+
+    @Test
+    void testNormalizeInputKeepsTheCaseOfPaths() {
+        assertEquals("read items", Command.normalizeInput("  READ Items "));
+        assertEquals("import /Data/Catalog.CSV", Command.normalizeInput(" IMPORT /Data/Catalog.CSV"));
+    }
 }
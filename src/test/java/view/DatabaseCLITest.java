@@ -1,13 +1,20 @@
 package view;
 
 import model.Database;
+import model.DeletedItem;
 import model.Item;
 import model.Table;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import presenter.DatabasePresenter;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
 
@@ -75,6 +82,35 @@ public class DatabaseCLITest {
         assertFalse(consoleOutput.contains("ERROR"));
     }
 
+    @Test
+    void testReadWritesRowsToWriter() {
+        createItem();
+        createItem();
+        StringWriter writer = new StringWriter();
+        databaseCLI.processInput("READ " + Table.ITEMS.getName(), writer);
+
+        assertEquals(databaseCLI.processInput("READ " + Table.ITEMS.getName()), writer.toString());
+        String[] lines = writer.toString().split("\n");
+        assertEquals(4, lines.length);
+        assertEquals("2 | testName | 100.99 | 1", lines[3]);
+    }
+
+    @Test
+    void testReadAlignedPadsColumns() {
+        for (int i = 0; i < 10; i++) {
+            createItem();
+        }
+        String[] lines = databaseCLI.processInput("READ " + Table.ITEMS.getName() + " ALIGNED").split("\n");
+        assertEquals("id | name     | price  | stock", lines[1]);
+        assertEquals("1  | testName | 100.99 | 1", lines[2]);
+        assertEquals("10 | testName | 100.99 | 1", lines[11]);
+
+        // NEXT keeps the alignment of the page before it
+        databaseCLI.processInput("READ " + Table.ITEMS.getName() + " PAGE 1 SIZE 9 ALIGNED");
+        lines = databaseCLI.processInput("NEXT").split("\n");
+        assertEquals("10 | testName | 100.99 | 1", lines[2]);
+    }
+
     @Test
     void testUpdateOneItemOneAttribute() {
         createItem();
@@ -92,6 +128,18 @@ public class DatabaseCLITest {
         assertEquals(originalItem, updatedItem);
     }
 
+    @Test
+    void testUpdateMultipleAttributesStoresPriceInCents() {
+        createItem();
+        String updateStatement = "UPDATE 1 price = 2.05, stock = 7";
+        String consoleOutput = databaseCLI.processInput(updateStatement);
+        assertFalse(consoleOutput.contains("ERROR"));
+
+        Item updatedItem = database.selectById(Table.ITEMS, 1);
+        assertEquals(205, updatedItem.getPriceInCents());
+        assertEquals(7, updatedItem.getStock());
+    }
+
     @Test
     void testUpdateItemInvalid() {
         createItem();
@@ -154,4 +202,153 @@ public class DatabaseCLITest {
         String consoleOutput = databaseCLI.processInput(restoreStatement);
         assertTrue(consoleOutput.contains("ERROR"));
     }
+
+    @Test
+    void testDeleteAndRestoreIdRanges() {
+        createItem();
+        createItem();
+        String consoleOutput = databaseCLI.processInput("DELETE 1-3 recall");
+        assertEquals("Deleted 2 items with ids 1-3 (1 of the ids are not in the table items).", consoleOutput);
+        assertEquals(0, database.getSizeOfTable(Table.ITEMS.getName()));
+        assertEquals("recall", ((DeletedItem) database.selectById(Table.DELETED_ITEMS, 2)).getComment());
+
+        consoleOutput = databaseCLI.processInput("RESTORE 2,1");
+        assertEquals("Restored 2 items with ids 1-2.", consoleOutput);
+        assertEquals(2, database.getSizeOfTable(Table.ITEMS.getName()));
+        assertTrue(databaseCLI.processInput("RESTORE 1-2").startsWith("ERROR"));
+    }
+
+    @Test
+    void testUpdateIdList() {
+        createItem();
+        createItem();
+        createItem();
+        String consoleOutput = databaseCLI.processInput("UPDATE 1,3 price = 2.05, stock = 7");
+        assertEquals("Updated 2 items with ids 1,3.", consoleOutput);
+        assertEquals(205, database.selectById(Table.ITEMS, 3).getPriceInCents());
+        assertEquals(testItem.getStock(), database.selectById(Table.ITEMS, 2).getStock());
+    }
+
+    @Test
+    void testReversedIdRangeIsAnError() {
+        createItem();
+        assertEquals("ERROR: the range 5-1 ends before it starts.", databaseCLI.processInput("DELETE 5-1"));
+        assertEquals(1, database.getSizeOfTable(Table.ITEMS.getName()));
+    }
+
+    @Test
+    void testReadPageThenNext() {
+        for (int i = 0; i < 3; i++) {
+            createItem();
+        }
+        String firstPage = databaseCLI.processInput("READ items PAGE 1 SIZE 2");
+        assertFalse(firstPage.contains("ERROR"));
+        assertTrue(firstPage.contains("page 1"));
+
+        String secondPage = databaseCLI.processInput("NEXT");
+        assertFalse(secondPage.contains("ERROR"));
+        assertTrue(secondPage.contains("page 2"));
+        assertTrue(secondPage.startsWith("Table items page 2 contains:\n"));
+        assertEquals(3, secondPage.split("\n").length); // header, attributes, one row
+
+        assertTrue(databaseCLI.processInput("NEXT").contains("ERROR"));
+    }
+
+    @Test
+    void testNextWithoutPageProducesError() {
+        String consoleOutput = databaseCLI.processInput("NEXT");
+        assertTrue(consoleOutput.contains("ERROR"));
+    }
+
+    @Test
+    void testMetricsCountCommands() {
+        createItem();
+        databaseCLI.processInput("READ " + Table.ITEMS.getName());
+        String consoleOutput = databaseCLI.processInput("METRICS RESET");
+        assertTrue(consoleOutput.contains("create: count 1"));
+        assertTrue(consoleOutput.contains("INSERT_NEW: count 1, rows 1"));
+
+        consoleOutput = databaseCLI.processInput("METRICS");
+        assertFalse(consoleOutput.contains("create"));
+        assertTrue(consoleOutput.contains("metrics: count 1"));
+    }
+
+    @Test
+    void testSlowLogShowsQueryPlans() {
+        assertTrue(databaseCLI.processInput("SLOWLOG").startsWith("No statements"));
+        database.getSlowStatementLog().setThresholdMillis(0);
+        createItem();
+        databaseCLI.processInput("READ " + Table.ITEMS.getName());
+
+        String consoleOutput = databaseCLI.processInput("SLOWLOG");
+        assertTrue(consoleOutput.contains("QUERY PLAN"));
+        assertTrue(consoleOutput.contains("SEARCH items USING INTEGER PRIMARY KEY"));
+    }
+
+    @Test
+    void testSearchFindsMatchingItems() {
+        createItem();
+        String consoleOutput = databaseCLI.processInput("SEARCH TEST PRICE 100-101 STOCK 1-");
+        assertFalse(consoleOutput.contains("ERROR"));
+        assertTrue(consoleOutput.contains(testItem.getName()));
+
+        assertTrue(databaseCLI.processInput("SEARCH PRICE 1-2").contains("ERROR"));
+        assertTrue(databaseCLI.processInput("SEARCH STOCK -").contains("ERROR"));
+    }
+
+    @Test
+    void testFindSearchesNamesAndComments() {
+        createItem();
+        databaseCLI.processInput("DELETE 1 damaged in a product recall");
+        String consoleOutput = databaseCLI.processInput("FIND recall");
+        assertFalse(consoleOutput.contains("ERROR"));
+        assertTrue(consoleOutput.startsWith("Best matches in " + Table.DELETED_ITEMS.getName()));
+        assertTrue(consoleOutput.contains(testItem.getName()));
+
+        assertTrue(databaseCLI.processInput("FIND nothing").contains("ERROR"));
+    }
+
+    @Test
+    void testImportReportsRejectedRows(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("Catalog.csv");
+        Files.writeString(file, "name,price,stock\nKite,9.99,3\nTop,free,1\n");
+        String consoleOutput = databaseCLI.processInput(Command.normalizeInput("IMPORT " + file));
+        assertFalse(databaseCLI.isError(consoleOutput));
+        assertTrue(consoleOutput.startsWith("Line 3: price 'free' is not a decimal number\n"));
+        assertTrue(consoleOutput.contains("Imported 1 rows (1 rejected)"));
+        assertEquals(1, database.getSizeOfTable(Table.ITEMS.getName()));
+
+        assertTrue(databaseCLI.isError(databaseCLI.processInput("IMPORT " + directory.resolve("missing.csv"))));
+        Path textFile = Files.writeString(directory.resolve("catalog.txt"), "");
+        assertTrue(databaseCLI.isError(databaseCLI.processInput("IMPORT " + textFile)));
+    }
+
+    @Test
+    void testImportOfFileThatIsNotUTF8ReportsRowsImported(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("catalog.csv");
+        String csv = "name,price,stock\n" + "Kite,9.99,3\n".repeat(10_000) + "Caf\u00e9,2.50,1\n";
+        Files.write(file, csv.getBytes(StandardCharsets.ISO_8859_1));
+        String consoleOutput = databaseCLI.processInput(Command.normalizeInput("IMPORT " + file));
+        assertFalse(databaseCLI.isError(consoleOutput));
+        assertTrue(consoleOutput.contains("the rest of the file is not valid UTF-8, import stopped"));
+        int rowsImported = database.getSizeOfTable(Table.ITEMS.getName());
+        assertTrue(rowsImported > 0);
+        assertTrue(consoleOutput.contains("Imported " + rowsImported + " rows"));
+    }
+
+    @Test
+    void testExportWritesTableToFile(@TempDir Path directory) throws IOException {
+        createItem();
+        Path file = directory.resolve("Items Backup.json");
+        String consoleOutput = databaseCLI.processInput(Command.normalizeInput("EXPORT ITEMS " + file));
+        assertTrue(consoleOutput.startsWith("Exported 1 rows"));
+        assertTrue(Files.readString(file).contains("\"name\": \"" + testItem.getName() + "\""));
+
+        Path csvFile = directory.resolve("items.txt");
+        databaseCLI.processInput("EXPORT items " + csvFile + " csv");
+        assertTrue(Files.readString(csvFile).startsWith("id,name,price,stock\n"));
+
+        Path missingDirectory = directory.resolve("missing").resolve("items.csv");
+        assertTrue(databaseCLI.isError(databaseCLI.processInput("EXPORT items " + missingDirectory)));
+    }
 }
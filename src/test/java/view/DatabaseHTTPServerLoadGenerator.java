@@ -0,0 +1,136 @@
+package view;
+
+import model.Database;
+import model.Item;
+import presenter.DatabasePresenter;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DatabaseHTTPServerLoadGenerator measures the throughput and latency of a
+ * DatabaseHTTPServer on localhost. Each client repeatedly sends a request
+ * over a kept-alive connection and waits for its response. Nine in ten
+ * requests read an item and the rest update an item's stock.
+ * It is run manually rather than as a unit test:
+ * {@code java view.DatabaseHTTPServerLoadGenerator [clients] [seconds] [items]}
+ *
+ * @author Liam Tripp
+ */
+public class DatabaseHTTPServerLoadGenerator {
+
+    public static void main(String[] args) throws Exception {
+        // as in DatabaseBackend, before the server is created
+        if (System.getProperty(DatabaseHTTPServer.NODELAY_PROPERTY) == null) {
+            System.setProperty(DatabaseHTTPServer.NODELAY_PROPERTY, "true");
+        }
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int numberOfItems = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+
+        Database database = new Database(Database.IN_MEMORY, 0);
+        database.initializeDatabase();
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < numberOfItems; i++) {
+            items.add(new Item(-1, "item" + i, (long) i, i));
+        }
+        database.bulkInsert(items);
+        DatabasePresenter databasePresenter = new DatabasePresenter();
+        databasePresenter.addDatabase(database);
+        DatabaseHTTPServer databaseHTTPServer = new DatabaseHTTPServer(databasePresenter, 0);
+        databaseHTTPServer.start();
+        String baseURI = "http://localhost:" + databaseHTTPServer.getPort() + "/items/";
+
+        ExecutorService clientExecutor = DatabaseHTTPServer.createRequestExecutor();
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(clientExecutor)
+                .build();
+        long endTime = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        List<Future<long[]>> results = new ArrayList<>();
+        for (int client = 0; client < clients; client++) {
+            long seed = client;
+            results.add(clientExecutor.submit(() -> runClient(httpClient, baseURI, numberOfItems, seed, endTime)));
+        }
+
+        long[] latencies = new long[0];
+        int errors = 0;
+        for (Future<long[]> result : results) {
+            long[] clientLatencies = result.get();
+            int count = (int) clientLatencies[0];
+            errors += (int) clientLatencies[1];
+            int offset = latencies.length;
+            latencies = Arrays.copyOf(latencies, offset + count);
+            System.arraycopy(clientLatencies, 2, latencies, offset, count);
+        }
+        Arrays.sort(latencies);
+        System.out.printf("%d clients, %d s: %d requests (%d errors), %.0f requests/s%n",
+                clients, seconds, latencies.length, errors, latencies.length / (double) seconds);
+        if (latencies.length > 0) {
+            System.out.printf("Latency: median %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                    latencies[latencies.length / 2] / 1_000_000.0,
+                    latencies[(int) Math.ceil(latencies.length * 0.99) - 1] / 1_000_000.0,
+                    latencies[latencies.length - 1] / 1_000_000.0);
+        }
+
+        databaseHTTPServer.stop();
+        clientExecutor.shutdownNow();
+        database.shutdown();
+    }
+
+    /**
+     * Sends requests until the end time, recording their latencies.
+     *
+     * @param httpClient the client whose connections are reused
+     * @param baseURI the URI of the items endpoint, ending with '/'
+     * @param numberOfItems the number of items in the database
+     * @param seed the seed of the client's random requests
+     * @param endTime the System.nanoTime at which to stop
+     * @return the number of requests, the number of errors, then each latency in nanoseconds
+     */
+    private static long[] runClient(HttpClient httpClient, String baseURI, int numberOfItems,
+                                    long seed, long endTime) {
+        Random random = new Random(seed);
+        long[] results = new long[1024];
+        int count = 0;
+        int errors = 0;
+        while (System.nanoTime() < endTime) {
+            URI uri = URI.create(baseURI + (1 + random.nextInt(numberOfItems)));
+            HttpRequest request;
+            if (random.nextInt(10) == 0) {
+                request = HttpRequest.newBuilder(uri)
+                        .method("PATCH", HttpRequest.BodyPublishers.ofString(
+                                "{\"stock\": " + random.nextInt(1000) + "}"))
+                        .build();
+            } else {
+                request = HttpRequest.newBuilder(uri).GET().build();
+            }
+
+            long startTime = System.nanoTime();
+            try {
+                HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() != 200) {
+                    errors++;
+                }
+            } catch (Exception e) {
+                errors++;
+            }
+            if (count + 2 == results.length) {
+                results = Arrays.copyOf(results, results.length * 2);
+            }
+            results[2 + count++] = System.nanoTime() - startTime;
+        }
+        results[0] = count;
+        results[1] = errors;
+        return results;
+    }
+}
@@ -0,0 +1,207 @@
+package view;
+
+import model.Database;
+import model.Item;
+import model.Metrics;
+import model.Table;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import presenter.DatabasePresenter;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * DatabaseHTTPServerTest ensures that DatabaseHTTPServer's endpoints work
+ * properly with the DatabasePresenter.
+ *
+ * @author Liam Tripp
+ */
+public class DatabaseHTTPServerTest {
+
+    private Database database;
+    private DatabaseHTTPServer databaseHTTPServer;
+    private HttpClient httpClient;
+    private Item testItem;
+
+    @BeforeEach
+    void setup() {
+        database = new Database();
+        database.initializeDatabase();
+        DatabasePresenter databasePresenter = new DatabasePresenter();
+        databasePresenter.addDatabase(database);
+        databaseHTTPServer = new DatabaseHTTPServer(databasePresenter, 0);
+        databaseHTTPServer.start();
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        testItem = new Item(1, "testName", "100.99", 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        databaseHTTPServer.stop();
+        database.shutdown();
+    }
+
+    /**
+     * Sends a request to the server.
+     *
+     * @param method the HTTP method
+     * @param path the path of the request
+     * @param body the JSON body, empty if there is none
+     * @return the server's response
+     */
+    HttpResponse<String> send(String method, String path, String body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + databaseHTTPServer.getPort() + path))
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * Returns the body of a response as a JSONObject.
+     *
+     * @param response the response
+     * @return the body as a JSONObject
+     */
+    JSONObject parse(HttpResponse<String> response) throws ParseException {
+        return (JSONObject) new JSONParser().parse(response.body());
+    }
+
+    /**
+     * Creates the testItem.
+     */
+    void createItem() throws IOException, InterruptedException {
+        send("POST", "/items", "{\"name\": \"testName\", \"price\": \"100.99\", \"stock\": 1}");
+    }
+
+    @Test
+    void testCreateItem() throws IOException, InterruptedException, ParseException {
+        HttpResponse<String> response = send("POST", "/items",
+                "{\"name\": \"testName\", \"price\": \"100.99\", \"stock\": 1}");
+        assertEquals(201, response.statusCode());
+        assertEquals(testItem, new Item((int) (long) (Long) parse(response).get("id"),
+                "testName", "100.99", 1));
+        assertEquals(testItem, database.selectById(Table.ITEMS, testItem.getId()));
+        assertTrue(response.headers().firstValue("Content-Type").orElse("").startsWith("application/json"));
+    }
+
+    @Test
+    void testCreateInvalidItem() throws IOException, InterruptedException {
+        assertEquals(400, send("POST", "/items", "{\"name\": \"bad name\", \"price\": \"1.00\"}").statusCode());
+        assertEquals(400, send("POST", "/items", "{\"name\": \"testName\", \"price\": \"free\"}").statusCode());
+        assertEquals(400, send("POST", "/items", "{\"name\": ").statusCode());
+        assertEquals(400, send("POST", "/items", "{\"name\": \"testName\", \"price\": \"-1.00\"}").statusCode());
+        assertEquals(400, send("POST", "/items",
+                "{\"name\": \"testName\", \"price\": \"1.00\", \"stock\": -1}").statusCode());
+        assertEquals(400, send("POST", "/items",
+                "{\"name\": \"testName\", \"price\": \"1.00\", \"stock\": null}").statusCode());
+        assertEquals(400, send("POST", "/items",
+                "{\"name\": \"testName\", \"price\": \"1.00\", \"stock\": 1.5}").statusCode());
+        assertEquals(0, database.getSizeOfTable(Table.ITEMS.getName()));
+    }
+
+    @Test
+    void testReadItems() throws IOException, InterruptedException, ParseException {
+        createItem();
+        createItem();
+        HttpResponse<String> response = send("GET", "/items", "");
+        assertEquals(200, response.statusCode());
+        JSONArray items = (JSONArray) new JSONParser().parse(response.body());
+        assertEquals(2, items.size());
+
+        response = send("GET", "/items?page=2&size=1", "");
+        items = (JSONArray) new JSONParser().parse(response.body());
+        assertEquals(1, items.size());
+        assertEquals(2L, ((JSONObject) items.get(0)).get("id"));
+
+        assertEquals(400, send("GET", "/items?page=0", "").statusCode());
+        assertEquals(404, send("GET", "/customers", "").statusCode());
+    }
+
+    @Test
+    void testReadItem() throws IOException, InterruptedException, ParseException {
+        createItem();
+        HttpResponse<String> response = send("GET", "/items/1", "");
+        assertEquals(200, response.statusCode());
+        assertEquals("100.99", parse(response).get("price"));
+        assertEquals(404, send("GET", "/items/2", "").statusCode());
+        assertEquals(400, send("GET", "/items/one", "").statusCode());
+    }
+
+    @Test
+    void testUpdateItem() throws IOException, InterruptedException, ParseException {
+        createItem();
+        HttpResponse<String> response = send("PATCH", "/items/1", "{\"price\": \"2.50\", \"stock\": 4}");
+        assertEquals(200, response.statusCode());
+        assertEquals(new Item(1, "testName", "2.50", 4), database.selectById(Table.ITEMS, 1));
+        assertEquals(4L, parse(response).get("stock"));
+
+        assertEquals(400, send("PATCH", "/items/1", "{\"name\": \"x'; DROP TABLE items; --\"}").statusCode());
+        assertEquals(400, send("PATCH", "/items/1", "{}").statusCode());
+        assertEquals(400, send("PATCH", "/items/1", "{\"price\": \"-2.50\"}").statusCode());
+        assertEquals(400, send("PATCH", "/items/1", "{\"stock\": -4}").statusCode());
+        assertEquals(400, send("PATCH", "/items/1", "{\"stock\": null}").statusCode());
+        assertEquals(404, send("PATCH", "/items/2", "{\"stock\": 4}").statusCode());
+    }
+
+    @Test
+    void testDeleteAndRestoreItem() throws IOException, InterruptedException, ParseException {
+        createItem();
+        HttpResponse<String> response = send("DELETE", "/items/1", "{\"comment\": \"expired\"}");
+        assertEquals(200, response.statusCode());
+        assertEquals("expired", parse(response).get("comment"));
+        assertEquals(0, database.getSizeOfTable(Table.ITEMS.getName()));
+        assertEquals(404, send("DELETE", "/items/1", "").statusCode());
+
+        response = send("POST", "/deleted_items/1/restore", "");
+        assertEquals(200, response.statusCode());
+        assertEquals(testItem, database.selectById(Table.ITEMS, 1));
+        assertEquals(404, send("POST", "/deleted_items/1/restore", "").statusCode());
+    }
+
+    @Test
+    void testServerErrorHidesItsCause() throws IOException, InterruptedException {
+        database.executeStatement("CREATE TRIGGER items_closed BEFORE INSERT ON items " +
+                "BEGIN SELECT RAISE(ABORT, 'internal detail'); END");
+        HttpResponse<String> response = send("POST", "/items",
+                "{\"name\": \"testName\", \"price\": \"100.99\", \"stock\": 1}");
+        assertEquals(500, response.statusCode());
+        assertFalse(response.body().contains("internal detail"));
+        assertFalse(response.body().contains("SQL"));
+    }
+
+    @Test
+    void testUnsupportedMethod() throws IOException, InterruptedException {
+        assertEquals(405, send("PUT", "/items", "").statusCode());
+        assertEquals(405, send("DELETE", "/deleted_items/1", "").statusCode());
+    }
+
+    @Test
+    void testUnsupportedMethodsRecordedTogether() throws IOException, InterruptedException {
+        for (String method : new String[]{"PUT", "BREW", "FOO"}) {
+            assertEquals(405, send(method, "/items", "").statusCode());
+        }
+        Metrics metrics = database.getMetrics();
+        // each request is recorded just after its response is sent
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!metrics.getCommands().containsKey("HTTP other") ||
+                metrics.getCommands().get("HTTP other").count() < 3) {
+            assertTrue(System.nanoTime() < deadline);
+            Thread.sleep(10);
+        }
+        assertEquals(Set.of("HTTP other"), metrics.getCommands().keySet());
+    }
+}
@@ -0,0 +1,121 @@
+package view;
+
+import model.DeletedItem;
+import model.Item;
+import model.Table;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TableRendererTest ensures that TableRenderer writes rows as they are given
+ * to it, and that aligned columns are as wide as their widest sampled value.
+ *
+ * @author Liam Tripp
+ */
+public class TableRendererTest {
+
+    private final Item kite = new Item(1, "Kite", "9.99", 3);
+    private final Item marbles = new Item(12, "Marbles", "1000.00", 250);
+
+    @Test
+    void testUnalignedRowsMatchTheirValues() {
+        StringWriter writer = new StringWriter();
+        TableRenderer tableRenderer = new TableRenderer(writer, "Table items contains:", Table.ITEMS);
+        tableRenderer.writeRow(kite);
+        tableRenderer.writeRow(marbles);
+        tableRenderer.finish();
+
+        assertEquals("Table items contains:\n" +
+                String.join(" | ", Item.getAttributeNamesAsArray()) + "\n" +
+                String.join(" | ", kite.getValuesAsArray()) + "\n" +
+                String.join(" | ", marbles.getValuesAsArray()) + "\n", writer.toString());
+        assertEquals(2, tableRenderer.getRows());
+    }
+
+    @Test
+    void testEmptyTableWritesNothing() {
+        StringWriter writer = new StringWriter();
+        TableRenderer tableRenderer = new TableRenderer(writer, "Table items contains:", Table.ITEMS, true, 10);
+        tableRenderer.finish();
+        assertEquals("", writer.toString());
+        assertEquals(0, tableRenderer.getRows());
+    }
+
+    @Test
+    void testAlignedColumnsAreAsWideAsTheSample() {
+        StringWriter writer = new StringWriter();
+        TableRenderer tableRenderer = new TableRenderer(writer, "title", Table.ITEMS, true, 2);
+        tableRenderer.writeRow(kite);
+        assertEquals("", writer.toString(), "rows are held until the sample is complete");
+        tableRenderer.writeRow(marbles);
+        // wider than the sample, so it pushes the rest of its row to the right
+        tableRenderer.writeRow(new Item(123, "Skipping rope", "2.50", 1));
+        tableRenderer.finish();
+
+        assertEquals("title\n" +
+                "id | name    | price   | stock\n" +
+                "1  | Kite    | 9.99    | 3\n" +
+                "12 | Marbles | 1000.00 | 250\n" +
+                "123 | Skipping rope | 2.50    | 1\n", writer.toString());
+    }
+
+    @Test
+    void testAlignedColumnsAreLimitedInWidth() {
+        StringWriter writer = new StringWriter();
+        TableRenderer tableRenderer = new TableRenderer(writer, "title", Table.ITEMS, true, 10);
+        String longName = "x".repeat(TableRenderer.MAX_COLUMN_WIDTH + 10);
+        tableRenderer.writeRow(new Item(1, longName, "1.00", 1));
+        tableRenderer.writeRow(kite);
+        tableRenderer.finish();
+
+        String[] lines = writer.toString().split("\n");
+        assertEquals("1  | Kite" + " ".repeat(TableRenderer.MAX_COLUMN_WIDTH - 4) + " | 9.99  | 3", lines[3]);
+    }
+
+    @Test
+    void testBlankCommentsAreLeftOut() {
+        StringWriter writer = new StringWriter();
+        TableRenderer tableRenderer = new TableRenderer(writer, "title", Table.DELETED_ITEMS, true, 10);
+        tableRenderer.writeRow(new DeletedItem(kite, "recall"));
+        tableRenderer.writeRow(new DeletedItem(marbles, ""));
+        tableRenderer.finish();
+
+        String[] lines = writer.toString().split("\n");
+        assertEquals("id | name    | price   | stock | comment", lines[1]);
+        assertEquals("1  | Kite    | 9.99    | 3     | recall", lines[2]);
+        assertEquals("12 | Marbles | 1000.00 | 250", lines[3]);
+    }
+
+    @Test
+    void testRowsAreWrittenBeforeTheTableIsFinished() {
+        List<String> writes = new ArrayList<>();
+        Writer writer = new Writer() {
+            @Override
+            public void write(char[] characters, int offset, int length) {
+                writes.add(new String(characters, offset, length));
+            }
+
+            @Override
+            public void write(String text, int offset, int length) {
+                writes.add(text.substring(offset, offset + length));
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        TableRenderer tableRenderer = new TableRenderer(writer, "title", Table.ITEMS);
+        tableRenderer.writeRow(kite);
+        assertTrue(String.join("", writes).endsWith(String.join(" | ", kite.getValuesAsArray()) + "\n"));
+    }
+}